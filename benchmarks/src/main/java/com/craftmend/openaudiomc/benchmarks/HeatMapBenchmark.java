@@ -0,0 +1,50 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.generic.utils.data.ConcurrentHeatMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeatMapBenchmark {
+
+    // same settings as the predictive media cache
+    @Param({"500"})
+    private int maxElements;
+
+    @Param({"100", "1000"})
+    private int distinctKeys;
+
+    private String[] keys;
+    private ConcurrentHeatMap<String, Byte> heatMap;
+
+    @Setup
+    public void setup() {
+        keys = new String[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) {
+            keys[i] = "https://example.com/audio/track-" + i + ".mp3";
+        }
+
+        heatMap = new ConcurrentHeatMap<>(60 * 60, maxElements, ConcurrentHeatMap.BYTE_CONTEXT);
+        for (String key : keys) {
+            heatMap.bump(key);
+        }
+    }
+
+    @Benchmark
+    public void bump() {
+        heatMap.bump(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+
+    @Benchmark
+    public Object getTop() {
+        return heatMap.getTop(10);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.generic.media.MediaService;
+import com.craftmend.openaudiomc.generic.media.middleware.DropBoxMiddleware;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MediaProcessBenchmark {
+
+    private MediaService mediaService;
+
+    @Setup
+    public void setup() {
+        // the CDN middleware needs a running authentication service, so use a stand-in with the same prefix
+        mediaService = new MediaService();
+        mediaService.registerMutation("https://www.dropbox.com", new DropBoxMiddleware());
+        mediaService.registerMutation("local:", original -> "https://cdn.example.com/files/" + original.substring(6));
+    }
+
+    @Benchmark
+    public String plainUrl() {
+        return mediaService.process("https://example.com/audio/ambient.mp3");
+    }
+
+    @Benchmark
+    public String dropboxUrl() {
+        return mediaService.process("https://www.dropbox.com/s/abcdefg/ambient.mp3?dl=0");
+    }
+
+    @Benchmark
+    public String localUrl() {
+        return mediaService.process("local:ambient.mp3");
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacket;
+import com.craftmend.openaudiomc.generic.utils.data.GsonFactory;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketSerializationBenchmark {
+
+    // packets are build from json, because the regular constructors depend on running services
+    private static final String CREATE_MEDIA = "{\"data\":{\"type\":\"com.craftmend.openaudiomc.generic.networking.payloads.client.media.ClientCreateMediaPayload\","
+            + "\"payload\":{\"media\":{\"mediaId\":\"f4b4cbf6-58c9-4b6e-a7b7-1a5b4d4f0a77\",\"source\":\"https://example.com/audio/ambient.mp3\","
+            + "\"startInstant\":1634567890000,\"doPickup\":true,\"loop\":true,\"fadeTime\":500,\"volume\":80,\"flag\":\"DEFAULT\"},"
+            + "\"distance\":12,\"maxDistance\":30}},\"packetChannel\":\"CLIENT_OUT_CREATE_MEDIA\",\"client\":\"8667ba71-b85a-4004-af54-457a9734eed7\"}";
+
+    private static final String DESTROY_MEDIA = "{\"data\":{\"type\":\"com.craftmend.openaudiomc.generic.networking.payloads.client.media.ClientDestroyMediaPayload\","
+            + "\"payload\":{\"soundId\":\"f4b4cbf6-58c9-4b6e-a7b7-1a5b4d4f0a77\",\"all\":false,\"fadeTime\":500}},"
+            + "\"packetChannel\":\"CLIENT_OUT_DESTROY_MEDIA\",\"client\":\"8667ba71-b85a-4004-af54-457a9734eed7\"}";
+
+    private Gson gson;
+    private AbstractPacket createMedia;
+    private AbstractPacket destroyMedia;
+
+    @Setup
+    public void setup() {
+        gson = GsonFactory.create();
+        createMedia = gson.fromJson(CREATE_MEDIA, AbstractPacket.class);
+        destroyMedia = gson.fromJson(DESTROY_MEDIA, AbstractPacket.class);
+    }
+
+    @Benchmark
+    public String serializeCreateMedia() {
+        return gson.toJson(createMedia);
+    }
+
+    @Benchmark
+    public String serializeDestroyMedia() {
+        return gson.toJson(destroyMedia);
+    }
+
+    @Benchmark
+    public AbstractPacket deserializeCreateMedia() {
+        return gson.fromJson(CREATE_MEDIA, AbstractPacket.class);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.spigot.modules.voicechat.filters.ProximityGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The geometric part of the PeerFilter evaluation for a full proximity tick.
+ * PeerFilter itself needs live connections and players, so this compares the all-pairs world and
+ * distance checks it used to run against the grid based candidate search that feeds it now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeerSearchBenchmark {
+
+    private static final String[] WORLDS = new String[]{"world", "world_nether"};
+    private static final int VOICE_RADIUS = 45;
+    private static final int MAP_SIZE = 1500;
+
+    @Param({"100", "400"})
+    private int playerCount;
+
+    private Peer[] peers;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(38);
+        peers = new Peer[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            peers[i] = new Peer(
+                    i,
+                    WORLDS[random.nextInt(WORLDS.length)],
+                    (random.nextDouble() * MAP_SIZE) - (MAP_SIZE / 2),
+                    64 + random.nextDouble() * 20,
+                    (random.nextDouble() * MAP_SIZE) - (MAP_SIZE / 2)
+            );
+        }
+    }
+
+    @Benchmark
+    public int allPairs() {
+        int links = 0;
+        for (Peer context : peers) {
+            for (Peer other : peers) {
+                if (other == context) continue;
+                if (!other.world.equals(context.world)) continue;
+                if (other.distanceSquared(context) > VOICE_RADIUS * VOICE_RADIUS) continue;
+                links++;
+            }
+        }
+        return links;
+    }
+
+    @Benchmark
+    public int grid() {
+        ProximityGrid<Peer> grid = new ProximityGrid<>(VOICE_RADIUS);
+        for (Peer peer : peers) {
+            grid.insert(peer.world, peer.x, peer.z, peer);
+        }
+
+        int links = 0;
+        for (Peer context : peers) {
+            List<Peer> candidates = grid.getNeighbours(context.world, context.x, context.z);
+            for (Peer other : candidates) {
+                // every pair only once, the result counts for both sides
+                if (other.index <= context.index) continue;
+                if (other.distanceSquared(context) > VOICE_RADIUS * VOICE_RADIUS) continue;
+                links += 2;
+            }
+        }
+        return links;
+    }
+
+    private static class Peer {
+        private final int index;
+        private final String world;
+        private final double x;
+        private final double y;
+        private final double z;
+
+        private Peer(int index, String world, double x, double y, double z) {
+            this.index = index;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        private double distanceSquared(Peer other) {
+            double dx = x - other.x;
+            double dy = y - other.y;
+            double dz = z - other.z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.BlockSolidity;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.EstimatedRayTracer;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.VoxelRayTracer;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RayTracerBenchmark {
+
+    private static final int GRID_SIZE = 64;
+
+    @Param({"0.05", "0.2"})
+    private double density;
+
+    private boolean[] grid;
+    private BlockSolidity solidity;
+    private double[][] rays;
+    private int rayIndex = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(38);
+        grid = new boolean[GRID_SIZE * GRID_SIZE * GRID_SIZE];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = random.nextDouble() < density;
+        }
+
+        solidity = (x, y, z) -> {
+            if (x < 0 || y < 0 || z < 0 || x >= GRID_SIZE || y >= GRID_SIZE || z >= GRID_SIZE) return false;
+            return grid[(x * GRID_SIZE + y) * GRID_SIZE + z];
+        };
+
+        rays = new double[2048][];
+        for (int i = 0; i < rays.length; i++) {
+            rays[i] = new double[]{
+                    random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE,
+                    random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE
+            };
+        }
+    }
+
+    @Benchmark
+    public int voxelTracer() {
+        double[] ray = nextRay();
+        return VoxelRayTracer.countObstructions(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5], solidity);
+    }
+
+    @Benchmark
+    public int estimatedTracer() {
+        double[] ray = nextRay();
+        return EstimatedRayTracer.countObstructions(new Vector(ray[0], ray[1], ray[2]), new Vector(ray[3], ray[4], ray[5]), solidity);
+    }
+
+    private double[] nextRay() {
+        rayIndex = (rayIndex + 1) & (rays.length - 1);
+        return rays[rayIndex];
+    }
+
+}
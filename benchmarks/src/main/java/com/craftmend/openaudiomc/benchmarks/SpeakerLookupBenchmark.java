@@ -0,0 +1,84 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpeakerLookupBenchmark {
+
+    private static final String[] WORLDS = new String[]{"world", "world_nether", "world_the_end"};
+    private static final int MAP_SIZE = 4000;
+
+    @Param({"1000", "40000"})
+    private int speakerCount;
+
+    private final List<Speaker> speakers = new ArrayList<>();
+    private final SpeakerIndex index = new SpeakerIndex();
+    private double[][] queryPoints;
+    private int queryIndex = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(38);
+        for (int i = 0; i < speakerCount; i++) {
+            MappedLocation location = new MappedLocation(
+                    random.nextInt(MAP_SIZE) - (MAP_SIZE / 2),
+                    random.nextInt(256),
+                    random.nextInt(MAP_SIZE) - (MAP_SIZE / 2),
+                    WORLDS[random.nextInt(WORLDS.length)]
+            );
+            Speaker speaker = new Speaker("https://example.com/audio/ambient.mp3", UUID.randomUUID(), 5 + random.nextInt(30),
+                    location, SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class));
+            speakers.add(speaker);
+            index.add(speaker);
+        }
+
+        queryPoints = new double[1024][];
+        for (int i = 0; i < queryPoints.length; i++) {
+            queryPoints[i] = new double[]{
+                    random.nextInt(WORLDS.length),
+                    (random.nextDouble() * MAP_SIZE) - (MAP_SIZE / 2),
+                    random.nextDouble() * 256,
+                    (random.nextDouble() * MAP_SIZE) - (MAP_SIZE / 2)
+            };
+        }
+    }
+
+    @Benchmark
+    public List<Speaker> linearScan() {
+        double[] point = nextPoint();
+        String world = WORLDS[(int) point[0]];
+        List<Speaker> found = new ArrayList<>();
+        // mirrors the filter that SpeakerCollector used before the index
+        for (Speaker speaker : new ArrayList<>(speakers)) {
+            if (!speaker.getLocation().getWorld().equals(world)) continue;
+            if (!SpeakerIndex.isInRange(speaker, point[1], point[2], point[3])) continue;
+            found.add(speaker);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<Speaker> indexedLookup() {
+        double[] point = nextPoint();
+        return index.query(WORLDS[(int) point[0]], point[1], point[2], point[3]);
+    }
+
+    private double[] nextPoint() {
+        queryIndex = (queryIndex + 1) & (queryPoints.length - 1);
+        return queryPoints[queryIndex];
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.craftmend.openaudiomc.benchmarks;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegionLoader;
+import com.craftmend.storm.Storm;
+import com.craftmend.storm.StormOptions;
+import com.craftmend.storm.api.enums.Where;
+import com.craftmend.storm.connection.sqlite.SqliteFileDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading every stored speaker, like startup used to, against loading the speakers of a single region file
+ * like the {@link SpeakerRegionLoader} does when its first chunk loads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpeakerStorageBenchmark {
+
+    private static final String[] WORLDS = new String[]{"world", "world_nether", "lobby"};
+    private static final int MAP_SIZE = 20000;
+
+    @Param({"10000", "100000"})
+    private int speakerCount;
+
+    private File file;
+    private Storm storm;
+    private String[] regions;
+    private int regionIndex = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        file = File.createTempFile("openaudiomc-speakers", ".db");
+
+        Class.forName("org.sqlite.JDBC");
+        storm = new Storm(new StormOptions(), new SqliteFileDriver(file));
+        storm.registerModel(new Speaker());
+        storm.runMigrations();
+
+        Random random = new Random(38);
+        for (int i = 0; i < speakerCount; i++) {
+            MappedLocation location = new MappedLocation(
+                    random.nextInt(MAP_SIZE) - (MAP_SIZE / 2),
+                    random.nextInt(256),
+                    random.nextInt(MAP_SIZE) - (MAP_SIZE / 2),
+                    WORLDS[random.nextInt(WORLDS.length)]
+            );
+            storm.save(new Speaker("https://example.com/audio/ambient.mp3", UUID.randomUUID(), 10, location,
+                    SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class)));
+        }
+
+        // regions around spawn, like the ones that load on startup
+        regions = new String[16];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = SpeakerRegionLoader.regionKey("world", ((i & 3) - 2) << 5, ((i >> 2) - 2) << 5);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Collection<Speaker> fullLoad() throws Exception {
+        return storm.buildQuery(Speaker.class).execute().join();
+    }
+
+    @Benchmark
+    public Collection<Speaker> regionLoad() throws Exception {
+        regionIndex = (regionIndex + 1) & (regions.length - 1);
+        return storm.buildQuery(Speaker.class).where("region", Where.EQUAL, regions[regionIndex]).execute().join();
+    }
+
+}
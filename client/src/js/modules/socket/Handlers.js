@@ -15,6 +15,7 @@ import {HandleVoiceChatDrop} from "./handlers/HandleVoicechatDrop";
 import {HandleVoicePeerLocationUpdate} from "./handlers/HandleVoicePeerLocationUpdate";
 import {HandleVoiceChatMicToggle} from "./handlers/HandleVoiceChatMicToggle";
 import {handleClientBlur} from "./handlers/HandleClientVoiceBlurUi";
+import {handleBatch} from "./handlers/HandleBatch";
 
 export class Handlers {
 
@@ -25,6 +26,7 @@ export class Handlers {
 
         // general protocol
         registerClassHandler("ClientVersionPayload", handleProtocolVersion);
+        registerClassHandler("ClientBatchPayload", handleBatch);
         registerClassHandler("NotificationPayload", handleNotification);
         registerClassHandler("HueColorPayload", handleHuePayload);
         registerClassHandler("ClientPlayerLocationPayload", handlePlayerLocation);
@@ -87,10 +87,7 @@ export class SocketModule {
         });
 
         this.socket.on("data", data => {
-            let packages = data.type.split(".");
-            let payloadType = packages[packages.length - 1];
-            if (that.handlers[payloadType] != null) that.handlers[payloadType](data.payload);
-            this.inCount++;
+            that.handlePacket(data);
         });
 
         this.socket.connect();
@@ -114,6 +111,13 @@ export class SocketModule {
         }
     }
 
+    handlePacket(data) {
+        let packages = data.type.split(".");
+        let payloadType = packages[packages.length - 1];
+        if (this.handlers[payloadType] != null) this.handlers[payloadType](data.payload);
+        this.inCount++;
+    }
+
     registerHandler(channel, f) {
         this.handlers[channel] = f;
     }
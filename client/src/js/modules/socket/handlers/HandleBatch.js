@@ -0,0 +1,6 @@
+export function handleBatch(openAudioMc, data) {
+    // multiple packets combined in one message, handle them in the order they were send in
+    for (let i = 0; i < data.packets.length; i++) {
+        openAudioMc.socketModule.handlePacket(data.packets[i]);
+    }
+}
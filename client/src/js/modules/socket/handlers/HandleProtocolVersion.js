@@ -1,5 +1,6 @@
 
 import {oalog} from "../../../helpers/log";
+import * as PluginChannel from "../../../helpers/protocol/PluginChannel";
 
 export function handleProtocolVersion(openAudioMc, data) {
     const revision = parseInt(data.protocolRevision);
@@ -28,4 +29,10 @@ export function handleProtocolVersion(openAudioMc, data) {
         // oalog("PROTO rev => 5, enabling loudness callbacks");
         // openAudioMc.voiceModule.loudnessDetectionEnabled = true
     }
+
+    if (revision >= 7) {
+        // let the server know we can handle batches, it sends packets one by one until it knows
+        oalog("PROTO rev => 7, enabling packet batches");
+        openAudioMc.socketModule.send(PluginChannel.RTC_READY, {"event": "CLIENT_SUPPORTS_BATCHING"});
+    }
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import com.craftmend.openaudiomc.generic.platform.interfaces.OpenAudioInvoker;
 import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
 import com.craftmend.openaudiomc.generic.proxy.ProxyHostService;
 import com.craftmend.openaudiomc.generic.proxy.interfaces.UserHooks;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
 import com.craftmend.openaudiomc.generic.rd.RestDirectService;
 import com.craftmend.openaudiomc.generic.redis.RedisService;
 import com.craftmend.openaudiomc.generic.resources.RuntimeDependencyService;
@@ -128,6 +129,7 @@ public class OpenAudioMc {
 
         // load core services in order
         serviceManager.loadServices(
+                MetricsService.class,           // internal metrics and the prometheus endpoint
                 DatabaseService.class,          // player and profile storage
                 EnvironmentService.class,       // env loader
                 MojangLookupService.class,      // handles caching of uuid's > names
@@ -169,6 +171,10 @@ public class OpenAudioMc {
         } catch (NoClassDefFoundError exception) {
             OpenAudioLogger.toConsole("Bukkit already unloaded the OA+ classes, can't kill tokens.");
         }
+
+        // write everything that's still queued
+        serviceManager.getService(DatabaseService.class).shutdown();
+        serviceManager.getService(MetricsService.class).onDisable();
     }
 
     // easy shorthand getters
@@ -33,7 +33,8 @@ public interface RegistryApi {
     /**
      * Allows you to overwrite the default filtering behaviour, which is used to decide which players group
      * up in proximity voice chat session. Can be used to implement Team/Party/Friend systems or to customize
-     * moderation rules
+     * moderation rules. Your filter gets to check every pair of players that can use voice chat, regardless of
+     * their distance, so it's up to the filter to enforce a range.
      *
      * @param filter Filter implementation
      */
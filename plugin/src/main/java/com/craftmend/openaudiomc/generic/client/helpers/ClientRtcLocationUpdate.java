@@ -1,21 +1,22 @@
 package com.craftmend.openaudiomc.generic.client.helpers;
 
+import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
+import com.craftmend.openaudiomc.spigot.services.world.ObstructionService;
 import com.craftmend.openaudiomc.spigot.services.world.Vector3;
 import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
-import com.craftmend.openaudiomc.spigot.services.world.interfaces.IRayTracer;
-import com.craftmend.openaudiomc.spigot.services.world.tracing.EstimatedRayTracer;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.util.concurrent.CompletableFuture;
+
 @NoArgsConstructor
 @AllArgsConstructor
 public class ClientRtcLocationUpdate {
 
     private static final boolean PROCESS_OBSTRUCTIONS = StorageKey.SETTINGS_VC_PROCESS_OBSTRUCTIONS.getBoolean();
-    private static IRayTracer rayTracer = new EstimatedRayTracer();
 
     private String streamKey;
     private double x, y, z;
@@ -26,7 +27,7 @@ public class ClientRtcLocationUpdate {
 
         if (PROCESS_OBSTRUCTIONS) {
             // check line-of-sight
-            obstructions = rayTracer.obstructionsBetweenLocations(
+            obstructions = OpenAudioMc.getService(ObstructionService.class).obstructionsBetween(
                     source,
                     targetLocation
             );
@@ -42,6 +43,25 @@ public class ClientRtcLocationUpdate {
         );
     }
 
+    /**
+     * Same as fromClientWithLocation, but the line-of-sight check gets queued with all other obstruction
+     * checks instead of being done on the current thread
+     */
+    public static CompletableFuture<ClientRtcLocationUpdate> queueFromClientWithLocation(ClientConnection clientConnection, Location source, Vector3 targetLocation) {
+        String streamKey = clientConnection.getRtcSessionManager().getStreamKey();
+        double x = source.getX();
+        double y = source.getY();
+        double z = source.getZ();
+
+        if (!PROCESS_OBSTRUCTIONS) {
+            return CompletableFuture.completedFuture(new ClientRtcLocationUpdate(streamKey, x, y, z, 0));
+        }
+
+        return OpenAudioMc.getService(ObstructionService.class)
+                .queueObstructions(source, targetLocation)
+                .thenApply(obstructions -> new ClientRtcLocationUpdate(streamKey, x, y, z, obstructions));
+    }
+
     public static ClientRtcLocationUpdate fromClient(ClientConnection clientConnection, Vector3 targetLocation) {
         Player player = (Player) clientConnection.getUser().getOriginal();
 
@@ -49,7 +69,7 @@ public class ClientRtcLocationUpdate {
 
         if (PROCESS_OBSTRUCTIONS) {
             // check line-of-sight
-            obstructions = rayTracer.obstructionsBetweenLocations(
+            obstructions = OpenAudioMc.getService(ObstructionService.class).obstructionsBetween(
                     player.getLocation(),
                     targetLocation
             );
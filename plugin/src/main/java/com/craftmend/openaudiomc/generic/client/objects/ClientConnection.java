@@ -121,6 +121,7 @@ public class ClientConnection implements Authenticatable, Client, Serializable {
         session.setApiSpeakers(0);
         session.setConnectedToRtc(false);
         session.setHasHueLinked(false);
+        session.setBatchingSupported(false);
         session.setConnected(false);
         disconnectHandlers.forEach(event -> event.run());
 
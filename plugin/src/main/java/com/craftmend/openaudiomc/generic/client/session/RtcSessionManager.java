@@ -33,15 +33,21 @@ import org.bukkit.Location;
 
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RtcSessionManager implements Serializable {
 
     @Getter private boolean isMicrophoneEnabled = false;
     @Getter private final transient Set<UUID> subscriptions = ConcurrentHashMap.newKeySet();
-    @Getter private final transient Set<ClientRtcLocationUpdate> locationUpdateQueue = ConcurrentHashMap.newKeySet();
+    // newest location of every peer that we didn't send yet, by their stream key
+    private final transient Map<String, ClientRtcLocationUpdate> locationUpdateQueue = new ConcurrentHashMap<>();
+    // highest sequence number that got queued per peer stream, obstruction checks can finish out of order
+    private final transient Map<String, Long> locationSequences = new ConcurrentHashMap<>();
+    private final transient AtomicLong locationSequence = new AtomicLong();
     @Getter private final transient Set<RtcBlockReason> blockReasons = new HashSet<>();
     @Getter private final transient Set<RtcStateFlag> stateFlags = new HashSet<>();
     @Getter private final transient Set<UUID> recentPeerAdditions = new HashSet<>();
@@ -60,6 +66,7 @@ public class RtcSessionManager implements Serializable {
             this.isMicrophoneEnabled = false;
             makePeersDrop();
             locationUpdateQueue.clear();
+            locationSequences.clear();
         });
     }
 
@@ -130,6 +137,8 @@ public class RtcSessionManager implements Serializable {
             if (peer.getRtcSessionManager().subscriptions.contains(clientConnection.getOwner().getUniqueId())) {
                 // send unsub packet
                 peer.getRtcSessionManager().subscriptions.remove(clientConnection.getOwner().getUniqueId());
+                peer.getRtcSessionManager().locationUpdateQueue.remove(streamKey);
+                peer.getRtcSessionManager().locationSequences.remove(streamKey);
                 peer.getRtcSessionManager().updateLocationWatcher();
                 peer.sendPacket(new PacketClientDropVoiceStream(new ClientVoiceDropPayload(streamKey)));
 
@@ -147,19 +156,55 @@ public class RtcSessionManager implements Serializable {
     }
 
     public void forceUpdateLocation(Location location) {
+        long sequence = locationSequence.incrementAndGet();
+        String streamKey = this.streamKey;
         for (ClientConnection peer : OpenAudioMc.getService(NetworkingService.class).getClients()) {
             if (peer.getOwner().getUniqueId() == clientConnection.getOwner().getUniqueId())
                 continue;
 
             if (peer.getRtcSessionManager().subscriptions.contains(clientConnection.getOwner().getUniqueId())) {
-                peer.getRtcSessionManager().locationUpdateQueue.add(
-                        ClientRtcLocationUpdate
-                                .fromClientWithLocation(clientConnection, location, Vector3.from(peer))
-                );
+                // obstructions for all peers get checked in one go, the update gets queued once that's done
+                ClientRtcLocationUpdate
+                        .queueFromClientWithLocation(clientConnection, location, Vector3.from(peer))
+                        .thenAccept(update -> {
+                            if (peer.getRtcSessionManager().subscriptions.contains(clientConnection.getOwner().getUniqueId())) {
+                                peer.getRtcSessionManager().queueLocationUpdate(streamKey, sequence, update);
+                            }
+                        });
             }
         }
     }
 
+    /**
+     * Queue the location of a peer, unless a newer location of that peer got queued already
+     *
+     * @param peerStreamKey Stream key of the peer that moved
+     * @param sequence      Sequence number the peer gave this location
+     * @param update        The location update
+     */
+    public void queueLocationUpdate(String peerStreamKey, long sequence, ClientRtcLocationUpdate update) {
+        // queued while holding the key, so an older update can't overwrite a newer one between the check and the put
+        locationSequences.compute(peerStreamKey, (key, queued) -> {
+            if (queued != null && queued >= sequence) return queued;
+            locationUpdateQueue.put(peerStreamKey, update);
+            return sequence;
+        });
+    }
+
+    /**
+     * @return The queued location updates, which are removed from the queue
+     */
+    public Set<ClientRtcLocationUpdate> drainLocationUpdates() {
+        Set<ClientRtcLocationUpdate> updates = new HashSet<>();
+        for (Map.Entry<String, ClientRtcLocationUpdate> entry : locationUpdateQueue.entrySet()) {
+            // only remove what we send, a newer update might've come in since
+            if (locationUpdateQueue.remove(entry.getKey(), entry.getValue())) {
+                updates.add(entry.getValue());
+            }
+        }
+        return updates;
+    }
+
     public void updateLocationWatcher() {
         if (OpenAudioMc.getInstance().getPlatform() == Platform.SPIGOT) {
             SpigotConnection spigotConnection = OpenAudioMc.getService(SpigotPlayerService.class).getClient(clientConnection.getOwner().getUniqueId());
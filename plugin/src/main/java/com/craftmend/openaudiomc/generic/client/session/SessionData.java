@@ -27,6 +27,8 @@ public class SessionData {
     private boolean sessionUpdated = false;
     private boolean hasHueLinked = false;
     private boolean isConnectedToRtc = false;
+    // whether the client told us it can handle batched packets, older clients would drop them
+    private volatile boolean batchingSupported = false;
 
     // ongoing sounds
     private final List<Media> ongoingMedia = new ArrayList<>();
@@ -3,6 +3,7 @@ package com.craftmend.openaudiomc.generic.database;
 import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.database.internal.DataStore;
 import com.craftmend.openaudiomc.generic.database.internal.Repository;
+import com.craftmend.openaudiomc.generic.database.internal.WriteBehindQueue;
 import com.craftmend.openaudiomc.generic.environment.MagicValue;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
 import com.craftmend.openaudiomc.generic.modules.ModuleLoaderService;
@@ -30,6 +31,7 @@ public class DatabaseService extends Service implements StormLogger {
     private final Map<Class<? extends DataStore>, Repository<? extends DataStore>> databaseMap = new HashMap<>();
 
     @Getter private Storm storm;
+    @Getter private WriteBehindQueue writeQueue;
 
     @SneakyThrows
     public DatabaseService() {
@@ -43,6 +45,7 @@ public class DatabaseService extends Service implements StormLogger {
         Class.forName("org.sqlite.JDBC");
         storm = new Storm(options, new SqliteFileDriver(new File(storageDir, "storm.db")));
         //storm.setGson(OpenAudioMc.getGson());
+        writeQueue = new WriteBehindQueue(storm);
 
         // warmup tables
         List<Class<? extends DataStore>> tables = new ArrayList<>();
@@ -66,7 +69,8 @@ public class DatabaseService extends Service implements StormLogger {
     }
 
     public void shutdown() {
-        OpenAudioLogger.toConsole("Closing database");
+        OpenAudioLogger.toConsole("Closing database, writing " + writeQueue.getQueueDepth() + " pending changes");
+        writeQueue.shutdown();
         databaseMap.clear();
     }
 
@@ -11,11 +11,13 @@ import java.util.Collection;
 public class Repository<T extends DataStore> {
 
     private Storm storm;
+    private WriteBehindQueue writeQueue;
     private Class<? extends DataStore> type;
 
     @SneakyThrows
     public void onCreate(DatabaseService databaseService, Storm storm, Class<? extends DataStore> dataClass) {
         this.storm = storm;
+        this.writeQueue = databaseService.getWriteQueue();
         this.type = dataClass;
         storm.registerModel(dataClass.getConstructor().newInstance());
         storm.runMigrations();
@@ -23,33 +25,55 @@ public class Repository<T extends DataStore> {
 
     @SneakyThrows
     public Collection<T> values() {
+        // make sure we don't miss anything that's still waiting to be written
+        writeQueue.awaitFlush();
         return (Collection<T>) storm.buildQuery(type).execute().join();
     }
 
     public T getWhere(String row, Object value) {
         try {
+            writeQueue.awaitFlush();
             return (T) storm.buildQuery(type).where(row, Where.EQUAL, value).execute().join().stream().findFirst().orElse(null);
         } catch (Exception e) {
             return null;
         }
     }
 
+    /**
+     * @param row   Column to filter on
+     * @param value Value the column needs to have
+     * @return Every row that matches, without loading the rest of the table
+     */
+    @SneakyThrows
+    public Collection<T> valuesWhere(String row, Object value) {
+        writeQueue.awaitFlush();
+        return (Collection<T>) storm.buildQuery(type).where(row, Where.EQUAL, value).execute().join();
+    }
+
     public T castToCompatible(Object o) {
         return (T) o;
     }
 
-    @SneakyThrows
+    /**
+     * Queue the model to be saved by the database writer, repeated saves before the
+     * next flush only result in a single write
+     *
+     * @param data Model to save
+     */
     public void save(T data) {
-        storm.save(data);
+        writeQueue.save(data);
     }
 
-    @SneakyThrows
     public void saveUnsafe(Object data) {
-        storm.save((StormModel) data);
+        writeQueue.save((StormModel) data);
     }
 
-    @SneakyThrows
+    /**
+     * Queue the model to be deleted by the database writer
+     *
+     * @param key Model to delete
+     */
     public void delete(StormModel key) {
-        storm.delete(key);
+        writeQueue.delete(key);
     }
 }
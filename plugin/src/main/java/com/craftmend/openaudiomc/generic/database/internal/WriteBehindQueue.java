@@ -0,0 +1,308 @@
+package com.craftmend.openaudiomc.generic.database.internal;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.Histogram;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
+import com.craftmend.storm.Storm;
+import com.craftmend.storm.api.StormModel;
+import com.craftmend.storm.connection.sqlite.SqliteFileDriver;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects saves and deletes, and writes them to storm on a single writer thread.
+ *
+ * Repeated writes to the same model between two flushes get coalesced into one, and only the
+ * last operation per model gets executed. Join and quit storms cause a lot of writes for the
+ * same few rows, which would otherwise all hit sqlite one after another on random threads.
+ * A model that gets saved and deleted before it was ever written doesn't get written at all.
+ *
+ * A flush writes its batch in a single sqlite transaction, so the whole batch costs one commit instead of
+ * one per row. When anything in it fails, the transaction gets rolled back and the rows get written one by one,
+ * so a single broken row doesn't take the rest of the batch with it.
+ *
+ * Flushes never overlap, whether they run on the writer thread, for a read, or during shutdown.
+ */
+public class WriteBehindQueue {
+
+    private static final long FLUSH_INTERVAL_MS = 250;
+
+    private final Storm storm;
+    private final ScheduledExecutorService writer;
+    // held for the whole flush, taken before this
+    private final Object flushLock = new Object();
+
+    // guarded by this, models don't implement a row-based equals so they're tracked by identity
+    private Map<StormModel, Operation> pending = new IdentityHashMap<>();
+    private Queue<StormModel> order = new ArrayDeque<>();
+    // the batch that's being written right now
+    private Map<StormModel, Operation> flushing = Collections.emptyMap();
+    private boolean acceptingWrites = true;
+
+    private final AtomicLong queuedWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong executedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    @Getter private volatile long lastFlushMillis = 0;
+    @Getter private volatile long maxFlushMillis = 0;
+    @Getter private volatile int lastFlushSize = 0;
+
+    private final Histogram flushDuration;
+    private final Counter[] succeededOperations = new Counter[Operation.values().length];
+    private final Counter[] failedOperations = new Counter[Operation.values().length];
+
+    public WriteBehindQueue(Storm storm) {
+        this(storm, OpenAudioMc.getService(MetricsService.class).getRegistry());
+    }
+
+    public WriteBehindQueue(Storm storm, MetricsRegistry registry) {
+        this.storm = storm;
+
+        this.flushDuration = registry.histogram("openaudiomc_database_flush_duration_seconds", "Time it took to write a batch of queued changes", Histogram.LATENCY_BUCKETS);
+        registry.gauge("openaudiomc_database_queue_depth", "Changes waiting to be written", this::getQueueDepth);
+        for (Operation operation : Operation.values()) {
+            String name = operation.name().toLowerCase();
+            succeededOperations[operation.ordinal()] = registry.counter("openaudiomc_database_operations_total", "Executed database writes", "operation", name, "result", "success");
+            failedOperations[operation.ordinal()] = registry.counter("openaudiomc_database_operations_total", "Executed database writes", "operation", name, "result", "failure");
+        }
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OpenAudioMc-DatabaseWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void save(StormModel model) {
+        queue(model, Operation.SAVE);
+    }
+
+    public void delete(StormModel model) {
+        queue(model, Operation.DELETE);
+    }
+
+    private void queue(StormModel model, Operation operation) {
+        synchronized (this) {
+            if (acceptingWrites) {
+                queuedWrites.incrementAndGet();
+                Operation previous = pending.put(model, operation);
+                if (previous == null) {
+                    order.add(model);
+                    return;
+                }
+
+                coalescedWrites.incrementAndGet();
+                // it never made it to the database, so there's nothing to save or delete
+                if (previous == Operation.SAVE && operation == Operation.DELETE
+                        && model.getId() == null && !flushing.containsKey(model)) {
+                    pending.remove(model);
+                }
+                return;
+            }
+        }
+
+        // we're shut down, so run it right away, after whatever was still being written
+        synchronized (flushLock) {
+            flush();
+            execute(model, operation);
+        }
+    }
+
+    /**
+     * Block until everything that's queued right now has been written.
+     * Used before reads, so they don't miss writes that are still pending.
+     */
+    public void awaitFlush() {
+        if (Thread.currentThread().getName().equals("OpenAudioMc-DatabaseWriter")) {
+            flush();
+            return;
+        }
+
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+        }
+
+        try {
+            CompletableFuture.runAsync(this::flush, writer).join();
+        } catch (RejectedExecutionException e) {
+            // the writer stopped, the flush lock makes this wait for a shutdown that's still writing
+            flush();
+        }
+    }
+
+    /**
+     * Stop accepting writes, write everything that's left and stop the writer thread.
+     * Writes that come in after this get executed right away by the thread that makes them.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            acceptingWrites = false;
+        }
+
+        // a flush that's already running finishes first, this writes whatever it didn't take
+        flush();
+
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                OpenAudioLogger.toConsole("The database writer took too long to stop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        synchronized (flushLock) {
+            Map<StormModel, Operation> batch;
+            Queue<StormModel> batchOrder;
+
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    // only models that got dropped are left
+                    order.clear();
+                    return;
+                }
+                batch = pending;
+                batchOrder = order;
+                flushing = batch;
+                pending = new IdentityHashMap<>();
+                order = new ArrayDeque<>();
+            }
+
+            try {
+                writeBatch(batch, batchOrder);
+            } finally {
+                synchronized (this) {
+                    flushing = Collections.emptyMap();
+                }
+            }
+        }
+    }
+
+    private void writeBatch(Map<StormModel, Operation> batch, Queue<StormModel> batchOrder) {
+        // models that got dropped and queued again are in the order twice
+        Set<StormModel> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<StormModel> models = new ArrayList<>();
+        for (StormModel model : batchOrder) {
+            if (batch.containsKey(model) && seen.add(model)) models.add(model);
+        }
+
+        long start = System.nanoTime();
+        if (models.size() < 2 || !writeTransaction(models, batch)) {
+            for (StormModel model : models) {
+                execute(model, batch.get(model));
+            }
+        }
+
+        long tookNanos = System.nanoTime() - start;
+        flushDuration.observeNanos(tookNanos);
+        long took = TimeUnit.NANOSECONDS.toMillis(tookNanos);
+        lastFlushMillis = took;
+        lastFlushSize = models.size();
+        if (took > maxFlushMillis) maxFlushMillis = took;
+    }
+
+    /**
+     * @return If the whole batch got committed, nothing got written when it didn't
+     */
+    private boolean writeTransaction(List<StormModel> models, Map<StormModel, Operation> batch) {
+        // the sqlite driver has a single connection, so everything storm runs in between ends up in the transaction
+        if (!(storm.getDriver() instanceof SqliteFileDriver)) return false;
+
+        try {
+            storm.getDriver().executeUpdate("BEGIN TRANSACTION");
+        } catch (Exception e) {
+            return false;
+        }
+
+        // inserts give their model an id, which has to go again when the insert gets rolled back
+        List<StormModel> inserted = new ArrayList<>();
+        for (StormModel model : models) {
+            if (model.getId() == null) inserted.add(model);
+        }
+
+        try {
+            for (StormModel model : models) {
+                write(model, batch.get(model));
+            }
+            storm.getDriver().executeUpdate("COMMIT");
+        } catch (Exception e) {
+            try {
+                storm.getDriver().executeUpdate("ROLLBACK");
+            } catch (Exception rollbackFailure) {
+                OpenAudioLogger.handleException(rollbackFailure);
+            }
+            for (StormModel model : inserted) {
+                model.setId(null);
+            }
+            return false;
+        }
+
+        for (StormModel model : models) {
+            Operation operation = batch.get(model);
+            executedWrites.incrementAndGet();
+            succeededOperations[operation.ordinal()].inc();
+        }
+        return true;
+    }
+
+    private void write(StormModel model, Operation operation) throws Exception {
+        if (operation == Operation.SAVE) {
+            storm.save(model);
+        } else {
+            storm.delete(model);
+        }
+    }
+
+    private void execute(StormModel model, Operation operation) {
+        try {
+            write(model, operation);
+            executedWrites.incrementAndGet();
+            succeededOperations[operation.ordinal()].inc();
+        } catch (Exception e) {
+            failedWrites.incrementAndGet();
+            failedOperations[operation.ordinal()].inc();
+            OpenAudioLogger.toConsole("Failed to " + operation.name().toLowerCase() + " a " + model.getClass().getSimpleName());
+            OpenAudioLogger.handleException(e);
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized int getQueueDepth() {
+        return pending.size();
+    }
+
+    public long getQueuedWrites() {
+        return queuedWrites.get();
+    }
+
+    public long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    public long getExecutedWrites() {
+        return executedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    private enum Operation {
+        SAVE,
+        DELETE
+    }
+
+}
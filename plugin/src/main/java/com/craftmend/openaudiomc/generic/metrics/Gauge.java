@@ -0,0 +1,32 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value that gets read when the metrics get scraped, so nothing has to keep it up to date
+ */
+public class Gauge implements Metric {
+
+    private volatile DoubleSupplier supplier;
+
+    public Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Read from something else from now on, for when the owner of the old supplier got replaced
+     */
+    void setSupplier(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    public double get() {
+        return supplier.getAsDouble();
+    }
+
+    @Override
+    public void write(StringBuilder out, String name, String labels) {
+        MetricsRegistry.writeSample(out, name, labels, supplier.getAsDouble());
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts observations in fixed buckets. Buckets are stored per bucket and only made cumulative
+ * when they're written, so an observation only touches a single bucket.
+ */
+public class Histogram implements Metric {
+
+    // in seconds, from half a millisecond up to two and a half seconds
+    public static final double[] LATENCY_BUCKETS = new double[]{
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5
+    };
+
+    private final double[] buckets;
+    private final LongAdder[] counts;
+    private final DoubleAdder sum = new DoubleAdder();
+    private final LongAdder count = new LongAdder();
+
+    public Histogram(double[] buckets) {
+        this.buckets = buckets.clone();
+        // the last one is the +Inf bucket
+        this.counts = new LongAdder[buckets.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int bucket = buckets.length;
+        for (int i = 0; i < buckets.length; i++) {
+            if (value <= buckets[i]) {
+                bucket = i;
+                break;
+            }
+        }
+        counts[bucket].increment();
+        sum.add(value);
+        count.increment();
+    }
+
+    public void observeNanos(long nanos) {
+        observe(nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+
+    @Override
+    public void write(StringBuilder out, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += counts[i].sum();
+            MetricsRegistry.writeSample(out, name + "_bucket", prefix + "le=\"" + buckets[i] + "\"", cumulative);
+        }
+        cumulative += counts[buckets.length].sum();
+        MetricsRegistry.writeSample(out, name + "_bucket", prefix + "le=\"+Inf\"", cumulative);
+        MetricsRegistry.writeSample(out, name + "_sum", labels, sum.sum());
+        MetricsRegistry.writeSample(out, name + "_count", labels, cumulative);
+    }
+
+}
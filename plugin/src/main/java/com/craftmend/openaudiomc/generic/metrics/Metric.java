@@ -0,0 +1,14 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+public interface Metric {
+
+    /**
+     * Write the current value(s) in the prometheus text format
+     *
+     * @param out    Target
+     * @param name   Metric name
+     * @param labels Rendered labels without braces, can be empty
+     */
+    void write(StringBuilder out, String name, String labels);
+
+}
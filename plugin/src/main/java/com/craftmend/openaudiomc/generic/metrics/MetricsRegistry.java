@@ -0,0 +1,93 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+import lombok.AllArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Keeps all internal metrics, and renders them in the prometheus text format.
+ *
+ * Metrics are grouped in families by name, and every family holds one metric per set of labels.
+ * Labels are passed as key value pairs, so {@code counter("x", "help", "channel", "a")} is {@code x{channel="a"}}.
+ * Looking up a metric isn't free, so hot paths should look theirs up once and keep a reference.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help, String... labels) {
+        return get(name, help, "counter", labels, l -> new Counter(), Counter.class);
+    }
+
+    /**
+     * Registering a gauge again replaces its supplier, so a reloaded service doesn't keep reporting (and referencing)
+     * the instance it replaced
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        Gauge gauge = get(name, help, "gauge", labels, l -> new Gauge(supplier), Gauge.class);
+        gauge.setSupplier(supplier);
+        return gauge;
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return get(name, help, "histogram", labels, l -> new Histogram(buckets), Histogram.class);
+    }
+
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Metric> entry : family.metrics.entrySet()) {
+                entry.getValue().write(out, family.name, entry.getKey());
+            }
+        }
+        return out.toString();
+    }
+
+    private <T extends Metric> T get(String name, String help, String type, String[] labels, Function<String, Metric> factory, Class<T> expected) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type, new ConcurrentSkipListMap<>()));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return expected.cast(family.metrics.computeIfAbsent(renderLabels(labels), factory));
+    }
+
+    static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels need to be key value pairs");
+        StringBuilder rendered = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) rendered.append(',');
+            rendered.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return rendered.toString();
+    }
+
+    static void writeSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @AllArgsConstructor
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final Map<String, Metric> metrics;
+    }
+
+}
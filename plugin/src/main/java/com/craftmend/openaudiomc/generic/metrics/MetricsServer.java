@@ -0,0 +1,32 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tiny http server that only exposes the metrics, for a prometheus scraper running on the same machine
+ */
+public class MetricsServer extends NanoHTTPD {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private final MetricsRegistry registry;
+
+    public MetricsServer(String host, int port, MetricsRegistry registry) throws IOException {
+        super(host, port);
+        this.registry = registry;
+        Logger.getLogger(NanoHTTPD.class.getName()).setLevel(Level.OFF);
+        start(NanoHTTPD.SOCKET_READ_TIMEOUT, true);
+    }
+
+    @Override
+    public Response serve(IHTTPSession session) {
+        if (!session.getUri().equals("/metrics")) {
+            return newFixedLengthResponse(Response.Status.NOT_FOUND, NanoHTTPD.MIME_PLAINTEXT, "Metrics are served on /metrics");
+        }
+        return newFixedLengthResponse(Response.Status.OK, CONTENT_TYPE, registry.toPrometheus());
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.networking.interfaces.NetworkingService;
+import com.craftmend.openaudiomc.generic.service.Service;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+
+@NoArgsConstructor
+public class MetricsService extends Service {
+
+    @Getter private final MetricsRegistry registry = new MetricsRegistry();
+    @Getter private final PacketMetrics packetMetrics = new PacketMetrics(registry);
+    private MetricsServer server;
+
+    @Override
+    public void onEnable() {
+        registry.gauge("openaudiomc_clients", "Known client sessions", () -> OpenAudioMc.getService(NetworkingService.class).getClients().size());
+        registry.gauge("openaudiomc_clients_connected", "Clients with an open web client", () -> {
+            int connected = 0;
+            for (ClientConnection client : OpenAudioMc.getService(NetworkingService.class).getClients()) {
+                if (client.isConnected()) connected++;
+            }
+            return connected;
+        });
+
+        if (!StorageKey.SETTINGS_METRICS_ENABLED.getBoolean()) return;
+
+        int port = StorageKey.SETTINGS_METRICS_PORT.getInt();
+        try {
+            // only reachable from the machine itself, there's no authentication on it
+            server = new MetricsServer("127.0.0.1", port, registry);
+            OpenAudioLogger.toConsole("Serving metrics on http://127.0.0.1:" + port + "/metrics");
+        } catch (IOException e) {
+            OpenAudioLogger.toConsole("Failed to start the metrics server on port " + port);
+            OpenAudioLogger.handleException(e);
+        }
+    }
+
+    @Override
+    public void onDisable() {
+        if (server != null) server.stop();
+    }
+
+}
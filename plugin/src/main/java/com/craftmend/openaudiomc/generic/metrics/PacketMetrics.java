@@ -0,0 +1,72 @@
+package com.craftmend.openaudiomc.generic.metrics;
+
+import com.craftmend.openaudiomc.generic.networking.abstracts.PacketChannel;
+
+/**
+ * Per channel packet counters, looked up once so counting a packet is an array index and an add
+ */
+public class PacketMetrics {
+
+    private final Counter[] sent = new Counter[PacketChannel.values().length];
+    private final Counter[] received = new Counter[PacketChannel.values().length];
+    private final Counter framesSent;
+    private final Counter bytesSent;
+    private final Counter bytesReceived;
+
+    public PacketMetrics(MetricsRegistry registry) {
+        for (PacketChannel channel : PacketChannel.values()) {
+            if (channel.name().startsWith("SOCKET_IN_")) {
+                received[channel.ordinal()] = registry.counter("openaudiomc_packets_received_total", "Packets received from the relay", "channel", channel.name());
+            } else {
+                sent[channel.ordinal()] = registry.counter("openaudiomc_packets_sent_total", "Packets send to the relay, before batching", "channel", channel.name());
+            }
+        }
+
+        framesSent = registry.counter("openaudiomc_frames_sent_total", "Socket frames send to the relay, after batching");
+        bytesSent = registry.counter("openaudiomc_bytes_sent_total", "Serialized bytes send to the relay");
+        bytesReceived = registry.counter("openaudiomc_bytes_received_total", "Serialized bytes received from the relay");
+    }
+
+    public void onSend(PacketChannel channel) {
+        if (channel != null && sent[channel.ordinal()] != null) sent[channel.ordinal()].inc();
+    }
+
+    public void onEmit(String frame) {
+        framesSent.inc();
+        bytesSent.add(utf8Length(frame));
+    }
+
+    public void onReceive(PacketChannel channel) {
+        if (channel != null && received[channel.ordinal()] != null) received[channel.ordinal()].inc();
+    }
+
+    public void onReceiveBytes(String frame) {
+        bytesReceived.add(utf8Length(frame));
+    }
+
+    /**
+     * @return Size of the text once it's encoded as utf-8, like it goes over the wire, without encoding it
+     */
+    public static int utf8Length(CharSequence text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // a surrogate pair is a single code point of 4 bytes
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // lone surrogates get encoded as '?'
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+}
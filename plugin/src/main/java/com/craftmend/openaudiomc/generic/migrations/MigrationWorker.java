@@ -46,6 +46,14 @@ public class MigrationWorker {
                 new PredictiveCacheMigration(),         // migrate audio smart cache
                 new AddRDTimeoutMigration(),            // configurable timeout
                 new AddPapiMigration(),                 // add placeholder api values
+                new AddPacketBatchingMigration(),       // add client packet batching options
+                new AddMetricsMigration(),              // add the prometheus metrics endpoint
+                new AddObstructionBudgetMigration(),    // add the obstruction check budget
+                new SpeakerRegionMigration(),           // index speakers by region, so they can be loaded lazily
+                new AddSpeakerClusterMigration(),       // add the speaker cluster radius
+                new AddHandlerTimingsMigration(),       // add the handler timings toggle
+                new AddLocationUpdateMigration(),       // add the location update precision and interval
+                new AddRDThreadsMigration(),            // add the rest direct thread limit
         };
 
         for (SimpleMigration migration : migrations) {
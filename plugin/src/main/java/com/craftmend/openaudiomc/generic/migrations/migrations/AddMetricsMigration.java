@@ -0,0 +1,21 @@
+package com.craftmend.openaudiomc.generic.migrations.migrations;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.migrations.MigrationWorker;
+import com.craftmend.openaudiomc.generic.migrations.interfaces.SimpleMigration;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
+import com.craftmend.openaudiomc.generic.storage.interfaces.Configuration;
+
+public class AddMetricsMigration extends SimpleMigration {
+
+    @Override
+    public boolean shouldBeRun(MigrationWorker migrationWorker) {
+        Configuration config = OpenAudioMc.getInstance().getConfiguration();
+        return !config.hasStorageKey(StorageKey.SETTINGS_METRICS_ENABLED);
+    }
+
+    @Override
+    public void execute(MigrationWorker migrationWorker) {
+        migrateFilesFromResources();
+    }
+}
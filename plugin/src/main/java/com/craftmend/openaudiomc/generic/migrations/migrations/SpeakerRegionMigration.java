@@ -0,0 +1,53 @@
+package com.craftmend.openaudiomc.generic.migrations.migrations;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.database.DatabaseService;
+import com.craftmend.openaudiomc.generic.database.internal.Repository;
+import com.craftmend.openaudiomc.generic.database.internal.WriteBehindQueue;
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.migrations.MigrationWorker;
+import com.craftmend.openaudiomc.generic.migrations.interfaces.SimpleMigration;
+import com.craftmend.openaudiomc.generic.platform.Platform;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
+import com.craftmend.openaudiomc.generic.storage.interfaces.Configuration;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+
+public class SpeakerRegionMigration extends SimpleMigration {
+
+    @Override
+    public boolean shouldBeRun(MigrationWorker migrationWorker) {
+        if (OpenAudioMc.getInstance().getPlatform() != Platform.SPIGOT) return false;
+
+        Configuration config = OpenAudioMc.getInstance().getConfiguration();
+        return !config.getBoolean(StorageKey.DATABASE_SPEAKER_REGIONS);
+    }
+
+    @Override
+    public void execute(MigrationWorker migrationWorker) {
+        OpenAudioLogger.toConsole("Indexing speakers by region, this only happens once");
+        DatabaseService databaseService = OpenAudioMc.getService(DatabaseService.class);
+        Repository<Speaker> repository = databaseService.getRepository(Speaker.class);
+        WriteBehindQueue writeQueue = databaseService.getWriteQueue();
+        long failedBefore = writeQueue.getFailedWrites();
+
+        int indexed = 0;
+        for (Speaker speaker : repository.values()) {
+            if (speaker.getRegion() != null) continue;
+            speaker.updateRegion();
+            repository.save(speaker);
+            indexed++;
+        }
+
+        // speakers without a region never get loaded, so only mark it as done once all of them are written
+        writeQueue.awaitFlush();
+        if (writeQueue.getFailedWrites() != failedBefore) {
+            OpenAudioLogger.toConsole("Not all speakers could be indexed, retrying on the next start");
+            return;
+        }
+
+        OpenAudioLogger.toConsole("Indexed " + indexed + " speakers");
+        Configuration config = OpenAudioMc.getInstance().getConfiguration();
+        config.setBoolean(StorageKey.DATABASE_SPEAKER_REGIONS, true);
+        config.saveAll();
+    }
+}
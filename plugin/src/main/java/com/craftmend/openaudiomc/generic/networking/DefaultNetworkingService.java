@@ -39,7 +39,7 @@ public class DefaultNetworkingService extends NetworkingService {
     private final Set<INetworkingEvents> eventHandlers = new HashSet<>();
     private final Map<UUID, ClientConnection> clientMap = new ConcurrentHashMap<>();
     private final Map<PacketChannel, PayloadHandler<?>> packetHandlerMap = new HashMap<>();
-    private SocketIoConnector socketIoConnector;
+    @Getter private SocketIoConnector socketIoConnector;
     private int packetThroughput = 0;
 
     public DefaultNetworkingService() {
@@ -123,6 +123,7 @@ public class DefaultNetworkingService extends NetworkingService {
     @Override
     public void send(Authenticatable client, AbstractPacket packet) {
         for (INetworkingEvents event : getEvents()) event.onPacketSend(client, packet);
+        packetThroughput++;
         socketIoConnector.send(client, packet);
     }
 
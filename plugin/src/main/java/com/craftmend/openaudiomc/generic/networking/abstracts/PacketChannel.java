@@ -36,6 +36,7 @@ public enum PacketChannel {
     CLIENT_OUT_VOICE_UPDATE_PEER_LOCATIONS,
     CLIENT_OUT_VOICE_SUBSCRIBE,
     CLIENT_OUT_TOGGLE_MIC,
+    CLIENT_OUT_BATCH,
     SOCKET_IN_CLIENT_INITIALIZED_RTC
 
 }
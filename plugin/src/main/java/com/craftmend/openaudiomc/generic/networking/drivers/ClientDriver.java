@@ -4,6 +4,8 @@ import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.api.impl.event.events.ClientPreAuthEvent;
 import com.craftmend.openaudiomc.api.interfaces.AudioApi;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
+import com.craftmend.openaudiomc.generic.metrics.PacketMetrics;
 import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacket;
 import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
 import com.craftmend.openaudiomc.generic.networking.interfaces.Authenticatable;
@@ -53,7 +55,11 @@ public class ClientDriver implements SocketDriver {
 
         socket.on("data", args -> {
             try {
-                AbstractPacket abstractPacket = OpenAudioMc.getGson().fromJson(args[0].toString(), AbstractPacket.class);
+                String json = args[0].toString();
+                AbstractPacket abstractPacket = OpenAudioMc.getGson().fromJson(json, AbstractPacket.class);
+                PacketMetrics packetMetrics = OpenAudioMc.getService(MetricsService.class).getPacketMetrics();
+                packetMetrics.onReceiveBytes(json);
+                packetMetrics.onReceive(abstractPacket.getPacketChannel());
                 OpenAudioMc.getService(NetworkingService.class).triggerPacket(abstractPacket);
             } catch (Exception e) {
                 OpenAudioLogger.handleException(e);
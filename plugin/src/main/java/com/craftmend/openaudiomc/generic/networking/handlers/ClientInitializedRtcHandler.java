@@ -58,6 +58,11 @@ public class ClientInitializedRtcHandler extends PayloadHandler<ClientOpenedRtcP
                 broadcastRtcUpdate(cc.getUser(), true, true, cc.getRtcSessionManager().getStreamKey(), cc);
                 break;
             }
+
+            case CLIENT_SUPPORTS_BATCHING: {
+                cc.getSession().setBatchingSupported(true);
+                break;
+            }
         }
     }
 
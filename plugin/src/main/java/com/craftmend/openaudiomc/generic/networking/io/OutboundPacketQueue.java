@@ -0,0 +1,148 @@
+package com.craftmend.openaudiomc.generic.networking.io;
+
+import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacket;
+import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacketPayload;
+import com.craftmend.openaudiomc.generic.networking.abstracts.PacketChannel;
+import com.craftmend.openaudiomc.generic.networking.interfaces.Authenticatable;
+import com.craftmend.openaudiomc.generic.networking.packets.client.ui.PacketClientBatch;
+import com.craftmend.openaudiomc.generic.networking.payloads.client.ui.ClientBatchPayload;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Holds outgoing client packets per client, so everything that got queued within one flush interval
+ * can be send to that client as a single frame instead of one frame per packet.
+ */
+public class OutboundPacketQueue {
+
+    // constant parts of a serialized packet, used to calculate the bytes that batching saves
+    private static final int UUID_LENGTH = 36;
+    private static final int PACKET_ENVELOPE_LENGTH = "{\"data\":,\"packetChannel\":\"\",\"client\":\"\"}".length() + UUID_LENGTH;
+    private static final int BATCH_WRAPPER_LENGTH = ("{\"type\":\"" + ClientBatchPayload.class.getName() + "\",\"payload\":{\"packets\":[]}}").length();
+
+    private final Map<UUID, ClientQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicLong packetsQueued = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesSaved = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public static boolean isBatchable(AbstractPacket packet) {
+        // socket packets are handled by the relay itself, so those can never be part of a client batch
+        return packet.getPacketChannel() != null && packet.getPacketChannel().name().startsWith("CLIENT_OUT_");
+    }
+
+    public void queue(Authenticatable client, AbstractPacket packet) {
+        queues.computeIfAbsent(client.getOwner().getUniqueId(), uuid -> new ClientQueue(client, new ConcurrentLinkedQueue<>()))
+                .packets.add(packet);
+        packetsQueued.incrementAndGet();
+    }
+
+    /**
+     * Flush everything that's queued for every client
+     *
+     * @param emitter Called with every client and the single packet that should be emitted for it
+     */
+    public void flush(BiConsumer<Authenticatable, AbstractPacket> emitter) {
+        for (ClientQueue clientQueue : queues.values()) {
+            if (!clientQueue.client.isConnected()) {
+                // nothing we can send anymore, the client will get a fresh queue when it connects again
+                queues.remove(clientQueue.client.getOwner().getUniqueId(), clientQueue);
+                clientQueue.packets.clear();
+                continue;
+            }
+            flush(clientQueue, emitter);
+        }
+    }
+
+    /**
+     * Flush everything that's queued for a single client, used to keep the packet order intact
+     * when a packet gets send that can't be batched
+     *
+     * @param client  Client to flush
+     * @param emitter Called with the packet that should be emitted
+     */
+    public void flush(Authenticatable client, BiConsumer<Authenticatable, AbstractPacket> emitter) {
+        ClientQueue clientQueue = queues.get(client.getOwner().getUniqueId());
+        if (clientQueue != null) flush(clientQueue, emitter);
+    }
+
+    private void flush(ClientQueue clientQueue, BiConsumer<Authenticatable, AbstractPacket> emitter) {
+        // multiple threads might flush the same client, so this needs to be atomic to keep the order intact
+        synchronized (clientQueue) {
+            List<AbstractPacket> pending = new ArrayList<>();
+            AbstractPacket next;
+            while ((next = clientQueue.packets.poll()) != null) {
+                pending.add(next);
+            }
+
+            if (pending.isEmpty()) return;
+            framesSent.incrementAndGet();
+
+            if (pending.size() == 1) {
+                emitter.accept(clientQueue.client, pending.get(0));
+                return;
+            }
+
+            List<AbstractPacketPayload> payloads = new ArrayList<>(pending.size());
+            int savedBytes = 0;
+            for (AbstractPacket packet : pending) {
+                if (packet.getData() instanceof ClientBatchPayload) {
+                    // already grouped by whoever send it, no need to nest it
+                    payloads.addAll(((ClientBatchPayload) packet.getData()).getPackets());
+                    savedBytes += BATCH_WRAPPER_LENGTH;
+                } else {
+                    payloads.add(packet.getData());
+                }
+                savedBytes += envelopeLength(packet.getPacketChannel());
+            }
+
+            // the batch still needs its own envelope, wrapper and a comma between every payload
+            savedBytes -= envelopeLength(PacketChannel.CLIENT_OUT_BATCH) + BATCH_WRAPPER_LENGTH + (pending.size() - 1);
+
+            framesSaved.addAndGet(pending.size() - 1);
+            bytesSaved.addAndGet(savedBytes);
+            emitter.accept(clientQueue.client, new PacketClientBatch(new ClientBatchPayload(payloads)));
+        }
+    }
+
+    public void clear() {
+        queues.clear();
+    }
+
+    public long getPacketsQueued() {
+        return packetsQueued.get();
+    }
+
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    public long getFramesSaved() {
+        return framesSaved.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    private static int envelopeLength(PacketChannel channel) {
+        return PACKET_ENVELOPE_LENGTH + channel.name().length();
+    }
+
+    @AllArgsConstructor
+    private static class ClientQueue {
+        private final Authenticatable client;
+        private final Queue<AbstractPacket> packets;
+    }
+
+}
@@ -6,8 +6,11 @@ import com.craftmend.openaudiomc.api.impl.event.events.StateChangeEvent;
 import com.craftmend.openaudiomc.api.interfaces.AudioApi;
 import com.craftmend.openaudiomc.generic.authentication.AuthenticationService;
 import com.craftmend.openaudiomc.generic.authentication.objects.ServerKeySet;
+import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
 import com.craftmend.openaudiomc.generic.craftmend.CraftmendService;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
+import com.craftmend.openaudiomc.generic.metrics.PacketMetrics;
 import com.craftmend.openaudiomc.generic.networking.certificate.CertificateHelper;
 import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacket;
 import com.craftmend.openaudiomc.generic.networking.drivers.ClientDriver;
@@ -49,6 +52,9 @@ public class SocketIoConnector {
     private boolean registeredLogout = false;
     @Getter private UUID lastUsedRelay = UUID.randomUUID();
     private ServerKeySet keySet;
+    @Getter private final OutboundPacketQueue outboundQueue = new OutboundPacketQueue();
+    private final boolean batchPackets;
+    private final PacketMetrics packetMetrics = OpenAudioMc.getService(MetricsService.class).getPacketMetrics();
 
     private final SocketDriver[] drivers = new SocketDriver[]{
             new NotificationDriver(),
@@ -58,6 +64,12 @@ public class SocketIoConnector {
 
     public SocketIoConnector(ServerKeySet keySet) {
         this.keySet = keySet;
+        this.batchPackets = StorageKey.SETTINGS_BATCH_CLIENT_PACKETS.getBoolean();
+
+        if (batchPackets) {
+            int interval = Math.max(1, StorageKey.SETTINGS_BATCH_CLIENT_PACKETS_INTERVAL.getInt());
+            OpenAudioMc.resolveDependency(TaskService.class).scheduleAsyncRepeatingTask(this::flush, interval, interval);
+        }
     }
 
     public void setupConnection() {
@@ -170,6 +182,7 @@ public class SocketIoConnector {
         if (logoutHandler != null) {
             logoutHandler.executeAsync();
         }
+        outboundQueue.clear();
         if (this.socket != null) {
             this.socket.disconnect();
         }
@@ -181,7 +194,45 @@ public class SocketIoConnector {
         // only send the packet if the client is online, valid and the plugin is connected
         if (client.isConnected() && OpenAudioMc.getService(StateService.class).getCurrentState().isConnected()) {
             packet.setClient(client.getOwner().getUniqueId());
-            socket.emit("data", OpenAudioMc.getGson().toJson(packet));
+            packetMetrics.onSend(packet.getPacketChannel());
+
+            if (OutboundPacketQueue.isBatchable(packet) && supportsBatching(client)) {
+                outboundQueue.queue(client, packet);
+            } else {
+                // send everything that came before this packet first, to keep the order intact
+                outboundQueue.flush(client, (target, pending) -> emit(pending));
+                emit(packet);
+            }
+        }
+    }
+
+    /**
+     * Send everything that got queued since the last flush, as one frame per client
+     */
+    public void flush() {
+        if (!OpenAudioMc.getService(StateService.class).getCurrentState().isConnected()) {
+            // these would've been dropped if they weren't queued
+            outboundQueue.clear();
+            return;
         }
+        outboundQueue.flush((client, packet) -> {
+            packet.setClient(client.getOwner().getUniqueId());
+            emit(packet);
+        });
+    }
+
+    /**
+     * Older web clients don't know batches and would silently drop them, so they only get
+     * batches after they reported that they can handle them
+     */
+    private boolean supportsBatching(Authenticatable client) {
+        if (!batchPackets) return false;
+        return client instanceof ClientConnection && ((ClientConnection) client).getSession().isBatchingSupported();
+    }
+
+    private void emit(AbstractPacket packet) {
+        String json = OpenAudioMc.getGson().toJson(packet);
+        packetMetrics.onEmit(json);
+        socket.emit("data", json);
     }
 }
@@ -0,0 +1,13 @@
+package com.craftmend.openaudiomc.generic.networking.packets.client.ui;
+
+import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacket;
+import com.craftmend.openaudiomc.generic.networking.abstracts.PacketChannel;
+import com.craftmend.openaudiomc.generic.networking.payloads.client.ui.ClientBatchPayload;
+
+public class PacketClientBatch extends AbstractPacket {
+
+    public PacketClientBatch(ClientBatchPayload payload) {
+        super(payload, PacketChannel.CLIENT_OUT_BATCH, null);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.craftmend.openaudiomc.generic.networking.payloads.client.ui;
+
+import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacketPayload;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBatchPayload extends AbstractPacketPayload {
+
+    // handled by the client in order, just as if they were send one by one
+    private List<AbstractPacketPayload> packets = new ArrayList<>();
+
+}
@@ -16,7 +16,8 @@ public class ClientVersionPayload extends AbstractPacketPayload {
     // 4 = enable client volume updates
     // 5 = enable voice loudness
     // 6 = enable magic value sharing
-    private int protocolRevision = 6;
+    // 7 = enable batched packets, once the client confirms that it supports them
+    private int protocolRevision = 7;
     private int locationUpdateTicks = MagicValue.LOCATION_TRACK_INTERVAL.get(Integer.class);
 
 }
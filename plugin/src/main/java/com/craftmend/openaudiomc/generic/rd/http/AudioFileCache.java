@@ -0,0 +1,157 @@
+package com.craftmend.openaudiomc.generic.rd.http;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps audio files memory mapped, together with their content type and etag.
+ *
+ * Every request for a cached file reads from the same mapped buffer, so a few hundred players
+ * loading the same file doesn't mean a few hundred file handles and disk reads. The file is
+ * mapped again when its size or modification date changes. Files that are too big to keep around
+ * only get the requested region mapped, for the duration of the request.
+ */
+public class AudioFileCache {
+
+    private static final long MAX_CACHED_FILE_SIZE = 32 * 1024 * 1024;
+    private static final int MAX_CACHED_FILES = 128;
+
+    // guarded by itself, in access order so the least recently used file gets dropped first
+    private final Map<String, CachedAudioFile> files = new LinkedHashMap<String, CachedAudioFile>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedAudioFile> eldest) {
+            return size() > MAX_CACHED_FILES;
+        }
+    };
+
+    /**
+     * @param file Audio file
+     * @return The cached file, mapped again when it changed on disk
+     * @throws IOException when the file can't be read
+     */
+    public CachedAudioFile get(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        synchronized (files) {
+            CachedAudioFile cached = files.get(key);
+            if (cached != null && cached.lastModified == lastModified && cached.length == length) return cached;
+        }
+
+        CachedAudioFile loaded = new CachedAudioFile(file, lastModified, length);
+        synchronized (files) {
+            files.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public void clear() {
+        synchronized (files) {
+            files.clear();
+        }
+    }
+
+    public static class CachedAudioFile {
+
+        @Getter private final File file;
+        @Getter private final String mimeType;
+        @Getter private final String etag;
+        @Getter private final long length;
+        private final long lastModified;
+        private final ByteBuffer content;
+
+        private CachedAudioFile(File file, long lastModified, long length) throws IOException {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+
+            String probed = Files.probeContentType(file.toPath());
+            this.mimeType = probed == null ? "application/octet-stream" : probed;
+
+            if (length <= MAX_CACHED_FILE_SIZE) {
+                this.content = map(file, 0, length);
+                CRC32 crc = new CRC32();
+                crc.update(content.duplicate());
+                this.etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Long.toHexString(length) + "\"";
+            } else {
+                // not worth hashing a file this size, identify it by its metadata instead
+                this.content = null;
+                this.etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+            }
+        }
+
+        /**
+         * Open a stream over a part of the file, without reading anything before it
+         *
+         * @param start First byte
+         * @param end   Last byte, inclusive
+         * @return A stream that reads exactly that range
+         * @throws IOException when the file can't be mapped
+         */
+        public InputStream open(long start, long end) throws IOException {
+            if (content != null) {
+                ByteBuffer region = content.duplicate();
+                region.position((int) start);
+                region.limit((int) end + 1);
+                return new ByteBufferInputStream(region);
+            }
+            return new ByteBufferInputStream(map(file, start, end - start + 1));
+        }
+
+        private static MappedByteBuffer map(File file, long start, long length) throws IOException {
+            if (length > Integer.MAX_VALUE) throw new IOException("Can't serve more than 2GB at once");
+            // the mapping stays valid after the channel is closed
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                 FileChannel channel = randomAccessFile.getChannel()) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) return -1;
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.craftmend.openaudiomc.generic.rd.http;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * NanoHTTPD starts a brand new thread for every connection by default. This runner hands them
+ * to a pool instead, so a burst of players loading a file reuses the threads of the previous burst.
+ *
+ * The pool never grows past its maximum, so a flood of connections can't exhaust the server's threads.
+ * Connections beyond that wait in the queue until a thread frees up, they never get dropped. Responses close
+ * their connection (see {@link RestDirectServer}), so a thread is free again as soon as its file is sent.
+ */
+public class PooledAsyncRunner implements NanoHTTPD.AsyncRunner {
+
+    private static final long IDLE_SECONDS = 60;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final Set<NanoHTTPD.ClientHandler> running = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param maxThreads Most connections that get handled at the same time
+     */
+    public PooledAsyncRunner(int maxThreads) {
+        int threads = Math.max(1, maxThreads);
+        this.executor = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "OpenAudioMc-RestDirect-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // idle threads stop, so it only keeps threads around while there's traffic
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void closeAll() {
+        // close() calls back into closed(), so work on a copy
+        List<NanoHTTPD.ClientHandler> handlers = new ArrayList<>(running);
+        for (NanoHTTPD.ClientHandler handler : handlers) {
+            handler.close();
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public void closed(NanoHTTPD.ClientHandler clientHandler) {
+        running.remove(clientHandler);
+    }
+
+    @Override
+    public void exec(NanoHTTPD.ClientHandler clientHandler) {
+        running.add(clientHandler);
+        try {
+            executor.execute(clientHandler);
+        } catch (RejectedExecutionException e) {
+            // only happens while shutting down. it never ran, so it won't call closed() itself
+            running.remove(clientHandler);
+            clientHandler.close();
+        }
+    }
+
+}
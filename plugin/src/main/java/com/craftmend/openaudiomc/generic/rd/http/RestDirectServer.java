@@ -1,7 +1,13 @@
 package com.craftmend.openaudiomc.generic.rd.http;
 
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.Histogram;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
 import com.craftmend.openaudiomc.generic.rd.RestDirectService;
 import com.craftmend.openaudiomc.generic.rd.routes.*;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
 import fi.iki.elonen.NanoHTTPD;
 
 import java.io.IOException;
@@ -13,6 +19,8 @@ import java.util.logging.Logger;
 public class RestDirectServer extends NanoHTTPD {
 
     private final Map<String, Route> routes = new HashMap<>();
+    private final Map<String, Counter> requestCounters = new HashMap<>();
+    private final Map<String, Histogram> requestDurations = new HashMap<>();
 
     private final String verificationString;
     private final int port;
@@ -21,6 +29,7 @@ public class RestDirectServer extends NanoHTTPD {
         super(port);
         this.port = port;
         this.verificationString = verificationString;
+        setAsyncRunner(new PooledAsyncRunner(StorageKey.CDN_MAX_THREADS.getInt()));
         start(NanoHTTPD.SOCKET_READ_TIMEOUT, false);
 
         Logger.getLogger(NanoHTTPD.class.getName()).setLevel(Level.OFF);
@@ -30,10 +39,37 @@ public class RestDirectServer extends NanoHTTPD {
         routes.put("/api/audio", new AudioFileRoute(restDirectService));
         routes.put("/api/state", new StateRoute(restDirectService));
         routes.put("/api/streamermode", new TokenInvalidateRoute(restDirectService));
+
+        // unknown paths all share one label, so random requests can't create new metrics
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
+        for (String uri : routes.keySet()) {
+            registerMetrics(registry, uri);
+        }
+        registerMetrics(registry, "other");
+    }
+
+    private void registerMetrics(MetricsRegistry registry, String route) {
+        requestCounters.put(route, registry.counter("openaudiomc_restdirect_requests_total", "Handled rest direct requests", "route", route));
+        requestDurations.put(route, registry.histogram("openaudiomc_restdirect_request_duration_seconds", "Time it took to handle a rest direct request", Histogram.LATENCY_BUCKETS, "route", route));
     }
 
     @Override
     public Response serve(IHTTPSession session) {
+        long start = System.nanoTime();
+        String metricRoute = routes.containsKey(session.getUri()) ? session.getUri() : "other";
+        requestCounters.get(metricRoute).inc();
+        try {
+            Response response = handle(session);
+            // don't keep a pooled thread waiting on an idle keep-alive connection, clients only fetch one file anyway
+            response.addHeader("Connection", "close");
+            return response;
+        } finally {
+            // file responses are streamed after this, so this only covers setting them up
+            requestDurations.get(metricRoute).observeNanos(System.nanoTime() - start);
+        }
+    }
+
+    private Response handle(IHTTPSession session) {
         Route route = routes.getOrDefault(session.getUri(), new DefaultRoute());
         HttpResponse whatNow = route.onRequest(session);
 
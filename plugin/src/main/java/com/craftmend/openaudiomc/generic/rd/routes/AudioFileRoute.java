@@ -1,24 +1,25 @@
 package com.craftmend.openaudiomc.generic.rd.routes;
 
 import com.craftmend.openaudiomc.generic.rd.RestDirectService;
+import com.craftmend.openaudiomc.generic.rd.http.AudioFileCache;
 import com.craftmend.openaudiomc.generic.rd.http.ExposedResponse;
 import com.craftmend.openaudiomc.generic.rd.http.HttpResponse;
 import com.craftmend.openaudiomc.generic.rd.http.Route;
 import fi.iki.elonen.NanoHTTPD;
-import lombok.AllArgsConstructor;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.util.Map;
 
-@AllArgsConstructor
 public class AudioFileRoute extends Route {
 
+    private final RestDirectService restDirectService;
+    private final AudioFileCache fileCache = new AudioFileCache();
 
-    private RestDirectService restDirectService;
+    public AudioFileRoute(RestDirectService restDirectService) {
+        this.restDirectService = restDirectService;
+    }
 
     @Override
     public HttpResponse onRequest(NanoHTTPD.IHTTPSession session) {
@@ -42,22 +43,9 @@ public class AudioFileRoute extends Route {
             return HttpResponse.text(fileName + " is not a valid audio file", NanoHTTPD.Response.Status.BAD_REQUEST);
         }
 
-        FileInputStream fis = null;
-        try {
-            fis = new FileInputStream(audioFile);
-        } catch (FileNotFoundException e) {
-            return HttpResponse.text(fileName + " is not a valid audio file", NanoHTTPD.Response.Status.BAD_REQUEST);
-        }
-
-        String mimeType = "";
-        try {
-            mimeType = Files.probeContentType(audioFile.toPath());
-        } catch (IOException e) {
-            return HttpResponse.text("Unknown file type", NanoHTTPD.Response.Status.BAD_REQUEST);
-        }
-
         try {
-            NanoHTTPD.Response res = serveFile(session.getHeaders(), audioFile, mimeType);
+            AudioFileCache.CachedAudioFile cachedFile = fileCache.get(audioFile);
+            NanoHTTPD.Response res = serveFile(session.getHeaders(), cachedFile);
             res.addHeader("Content-Disposition", "inline; filename=\"" + audioFile.getName() + "\"");
             return HttpResponse.raw(res);
         } catch (Exception e) {
@@ -65,84 +53,58 @@ public class AudioFileRoute extends Route {
         }
     }
 
-    private NanoHTTPD.Response serveFile(Map<String, String> header, File file, String mime) {
+    private NanoHTTPD.Response serveFile(Map<String, String> header, AudioFileCache.CachedAudioFile file) throws IOException {
         NanoHTTPD.Response res;
-        try {
-            // Calculate etag
-            String etag = Integer.toHexString((file.getAbsolutePath()
-                    + file.lastModified() + "" + file.length()).hashCode());
-
-            // Support (simple) skipping:
-            long startFrom = 0;
-            long endAt = -1;
-            String range = header.get("range");
-            if (range != null) {
-                if (range.startsWith("bytes=")) {
-                    range = range.substring("bytes=".length());
-                    int minus = range.indexOf('-');
-                    try {
-                        if (minus > 0) {
-                            startFrom = Long.parseLong(range
-                                    .substring(0, minus));
-                            endAt = Long.parseLong(range.substring(minus + 1));
-                        }
-                    } catch (NumberFormatException ignored) {
-                    }
+        String etag = file.getEtag();
+        long fileLen = file.getLength();
+
+        // Support skipping, both bytes=start-[end] and bytes=-suffix
+        long startFrom = -1;
+        long endAt = -1;
+        String range = header.get("range");
+        if (range != null && range.startsWith("bytes=")) {
+            String requested = range.substring("bytes=".length());
+            int minus = requested.indexOf('-');
+            try {
+                if (minus > 0) {
+                    startFrom = Long.parseLong(requested.substring(0, minus).trim());
+                    String end = requested.substring(minus + 1).trim();
+                    endAt = end.isEmpty() ? fileLen - 1 : Long.parseLong(end);
+                } else if (minus == 0) {
+                    long suffix = Long.parseLong(requested.substring(1).trim());
+                    startFrom = Math.max(0, fileLen - suffix);
+                    endAt = fileLen - 1;
                 }
+            } catch (NumberFormatException ignored) {
+                startFrom = -1;
             }
+        }
 
-            // Change return code and add Content-Range header when skipping is
-            // requested
-            long fileLen = file.length();
-            if (range != null && startFrom >= 0) {
-                if (startFrom >= fileLen) {
-                    res = createResponse(NanoHTTPD.Response.Status.RANGE_NOT_SATISFIABLE, NanoHTTPD.MIME_PLAINTEXT, null, fileLen);
-                    res.addHeader("Content-Range", "bytes 0-0/" + fileLen);
-                    res.addHeader("ETag", etag);
-                } else {
-                    if (endAt < 0) {
-                        endAt = fileLen - 1;
-                    }
-                    long newLen = endAt - startFrom + 1;
-                    if (newLen < 0) {
-                        newLen = 0;
-                    }
-
-                    final long dataLen = newLen;
-                    FileInputStream fis = new FileInputStream(file) {
-                        @Override
-                        public int available() throws IOException {
-                            return (int) dataLen;
-                        }
-                    };
-                    fis.skip(startFrom);
-
-                    res = createResponse(NanoHTTPD.Response.Status.PARTIAL_CONTENT, mime, fis, fileLen);
-                    res.addHeader("Content-Length", "" + dataLen);
-                    res.addHeader("Content-Range", "bytes " + startFrom + "-"
-                            + endAt + "/" + fileLen);
-                    res.addHeader("ETag", etag);
-                }
+        if (startFrom >= 0) {
+            // Change return code and add Content-Range header when skipping is requested
+            endAt = Math.min(endAt, fileLen - 1);
+            if (startFrom >= fileLen || endAt < startFrom) {
+                res = createResponse(NanoHTTPD.Response.Status.RANGE_NOT_SATISFIABLE, NanoHTTPD.MIME_PLAINTEXT, null, 0);
+                res.addHeader("Content-Range", "bytes */" + fileLen);
             } else {
-                if (etag.equals(header.get("if-none-match")))
-                    res = createResponse(NanoHTTPD.Response.Status.NOT_MODIFIED, mime, null, fileLen);
-                else {
-                    res = createResponse(NanoHTTPD.Response.Status.OK, mime,
-                            new FileInputStream(file), fileLen);
-                    res.addHeader("Content-Length", "" + fileLen);
-                    res.addHeader("ETag", etag);
-                }
+                long dataLen = endAt - startFrom + 1;
+                res = createResponse(NanoHTTPD.Response.Status.PARTIAL_CONTENT, file.getMimeType(), file.open(startFrom, endAt), dataLen);
+                res.addHeader("Content-Range", "bytes " + startFrom + "-" + endAt + "/" + fileLen);
             }
-        } catch (IOException ioe) {
-            res = createResponse(NanoHTTPD.Response.Status.FORBIDDEN,
-                    NanoHTTPD.MIME_PLAINTEXT, null, 0);
+        } else if (etag.equals(header.get("if-none-match"))) {
+            res = createResponse(NanoHTTPD.Response.Status.NOT_MODIFIED, file.getMimeType(), null, 0);
+        } else {
+            InputStream content = fileLen == 0 ? null : file.open(0, fileLen - 1);
+            res = createResponse(NanoHTTPD.Response.Status.OK, file.getMimeType(), content, fileLen);
         }
 
+        res.addHeader("ETag", etag);
+        res.addHeader("Accept-Ranges", "bytes");
         return res;
     }
 
-    private NanoHTTPD.Response createResponse(NanoHTTPD.Response.Status state, String mimePlaintext, FileInputStream fis, long fileLen) {
-        return new ExposedResponse(state, mimePlaintext, fis, fileLen);
+    private NanoHTTPD.Response createResponse(NanoHTTPD.Response.Status state, String mimeType, InputStream data, long length) {
+        return new ExposedResponse(state, mimeType, data, length);
     }
 
 }
@@ -1,11 +1,16 @@
 package com.craftmend.openaudiomc.generic.redis;
 
+import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
 import com.craftmend.openaudiomc.generic.redis.packets.channels.ChannelKey;
 import com.craftmend.openaudiomc.generic.redis.packets.interfaces.OARedisPacket;
 import io.lettuce.core.pubsub.RedisPubSubAdapter;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,9 +18,12 @@ public class RedisChannelListener extends RedisPubSubAdapter<String, String> {
 
     private final Map<ChannelKey, OARedisPacket> sacreficcialPlayerPackets = new HashMap<>();
     private final Map<String, ChannelKey> channelNameMap = new HashMap<>();
+    private final Map<ChannelKey, Counter> receivedMessages = new EnumMap<>(ChannelKey.class);
 
     public RedisChannelListener() {
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
         for (ChannelKey value : ChannelKey.values()) {
+            receivedMessages.put(value, registry.counter("openaudiomc_redis_messages_total", "Redis messages send and received", "direction", "received", "channel", value.name()));
             try {
                 sacreficcialPlayerPackets.put(value, value.getPacketClass().getConstructor().newInstance());
                 channelNameMap.put(value.getRedisChannelName(), value);
@@ -30,6 +38,7 @@ public class RedisChannelListener extends RedisPubSubAdapter<String, String> {
     public void message(String channel, String message) {
         if (channelNameMap.containsKey(channel)) {
             ChannelKey key = channelNameMap.get(channel);
+            receivedMessages.get(key).inc();
             OARedisPacket handler = sacreficcialPlayerPackets.get(key);
             handler.receive(handler.deSerialize(message));
         }
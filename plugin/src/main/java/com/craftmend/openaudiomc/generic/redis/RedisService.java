@@ -8,6 +8,9 @@ import com.craftmend.openaudiomc.generic.service.Inject;
 import com.craftmend.openaudiomc.generic.service.Service;
 import com.craftmend.openaudiomc.generic.storage.interfaces.Configuration;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
 import com.craftmend.openaudiomc.generic.redis.packets.ExecuteBulkCommandsPacket;
 import com.craftmend.openaudiomc.generic.redis.packets.ExecuteCommandPacket;
 import com.craftmend.openaudiomc.generic.redis.packets.channels.ChannelKey;
@@ -23,7 +26,9 @@ import lombok.Getter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -43,6 +48,8 @@ public class RedisService extends Service {
     private boolean enabled = false;
     @Getter private final UUID serviceId = UUID.randomUUID();
     private final ConcurrentLinkedQueue<WaitingPacket> packetQue = new ConcurrentLinkedQueue<>();
+    // same labels as the received side in the RedisChannelListener
+    private final Map<ChannelKey, Counter> messagesSent = new EnumMap<>(ChannelKey.class);
 
     private final Runnable messageQueHandler = () -> {
         // combine all the commands
@@ -63,15 +70,20 @@ public class RedisService extends Service {
         // send all other packets
         for (WaitingPacket packet : packetQue) {
             asyncPub.publish(packet.getChannel().getRedisChannelName(), packet.getPacket().serialize());
+            messagesSent.get(packet.getChannel()).inc();
         }
 
         // if there are bulk packets waiting, send them
         if (commands.isEmpty()) return;
         asyncPub.publish(ChannelKey.TRIGGER_BULK_COMMANDS.getRedisChannelName(), new ExecuteBulkCommandsPacket(commands).serialize());
+        messagesSent.get(ChannelKey.TRIGGER_BULK_COMMANDS).inc();
     };
 
     public RedisService() {
-
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
+        for (ChannelKey value : ChannelKey.values()) {
+            messagesSent.put(value, registry.counter("openaudiomc_redis_messages_total", "Redis messages send and received", "direction", "sent", "channel", value.name()));
+        }
     }
 
     @Override
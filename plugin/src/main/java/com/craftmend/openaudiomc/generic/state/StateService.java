@@ -35,14 +35,20 @@ public class StateService extends Service {
         registerDetail(new VoiceDetail());
         registerDetail(new BuildDetail());
         registerDetail(new RestDirectDetail());
+        registerDetail(new PacketBatchingDetail());
+        registerDetail(new DatabaseDetail());
 
         if (OpenAudioMc.getInstance().getPlatform() == Platform.SPIGOT) {
             // minecraft specific shit
             registerDetail(new SpigotConnectedClients());
             registerDetail(new SpigotRegionDetail());
             registerDetail(new SpigotSpeakerDetail());
+            registerDetail(new SpeakerValidationDetail());
             registerDetail(new SpigotAliasDetail());
             registerDetail(new SpigotVersionDetail());
+            registerDetail(new PlayerTickDetail());
+            registerDetail(new HandlerTimingDetail());
+            registerDetail(new ObstructionDetail());
         } else {
             registerDetail(new GeneralConnectedClients());
         }
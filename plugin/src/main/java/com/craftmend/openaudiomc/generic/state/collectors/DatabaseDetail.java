@@ -0,0 +1,21 @@
+package com.craftmend.openaudiomc.generic.state.collectors;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.database.DatabaseService;
+import com.craftmend.openaudiomc.generic.database.internal.WriteBehindQueue;
+import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
+
+public class DatabaseDetail implements StateDetail {
+    @Override
+    public String title() {
+        return "Database";
+    }
+
+    @Override
+    public String value() {
+        WriteBehindQueue queue = OpenAudioMc.getService(DatabaseService.class).getWriteQueue();
+        return queue.getQueueDepth() + " queued, " + queue.getExecutedWrites() + " written ("
+                + queue.getCoalescedWrites() + " coalesced, " + queue.getFailedWrites() + " failed), last flush "
+                + queue.getLastFlushSize() + " rows in " + queue.getLastFlushMillis() + "MS (max " + queue.getMaxFlushMillis() + "MS)";
+    }
+}
@@ -0,0 +1,28 @@
+package com.craftmend.openaudiomc.generic.state.collectors;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
+import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
+import com.craftmend.openaudiomc.spigot.modules.players.enums.TickedHandler;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.HandlerTimings;
+
+public class HandlerTimingDetail implements StateDetail {
+    @Override
+    public String title() {
+        return "Handler Timings";
+    }
+
+    @Override
+    public String value() {
+        HandlerTimings timings = OpenAudioMc.getService(SpigotPlayerService.class).getHandlerTimings();
+        if (timings == null) return "Not running";
+
+        StringBuilder value = new StringBuilder(timings.isEnabled() ? "measuring" : "not measuring");
+        for (TickedHandler handler : TickedHandler.values()) {
+            HandlerTimings.Summary summary = timings.summarize(handler, null);
+            if (summary == null) continue;
+            value.append(", ").append(handler.getDisplayName()).append(" ").append(summary);
+        }
+        return value.toString();
+    }
+}
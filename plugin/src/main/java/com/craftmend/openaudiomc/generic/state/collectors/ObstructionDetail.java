@@ -0,0 +1,25 @@
+package com.craftmend.openaudiomc.generic.state.collectors;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
+import com.craftmend.openaudiomc.spigot.services.world.ObstructionService;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.ObstructionCache;
+
+public class ObstructionDetail implements StateDetail {
+    @Override
+    public String title() {
+        return "Obstructions";
+    }
+
+    @Override
+    public String value() {
+        ObstructionService service = OpenAudioMc.getService(ObstructionService.class);
+        ObstructionCache results = service.getResultCache();
+        long lookups = results.getHits() + results.getMisses();
+        long hitRate = lookups == 0 ? 0 : (results.getHits() * 100) / lookups;
+
+        return service.getQueueDepth() + " queued (budget " + service.getTickBudget() + "/tick), "
+                + service.getSnapshotCache().size() + " chunks copied, "
+                + results.size() + " cached results (" + hitRate + "% hits, " + results.getInvalidations() + " invalidated)";
+    }
+}
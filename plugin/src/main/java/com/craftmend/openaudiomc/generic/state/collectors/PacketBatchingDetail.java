@@ -0,0 +1,28 @@
+package com.craftmend.openaudiomc.generic.state.collectors;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.networking.DefaultNetworkingService;
+import com.craftmend.openaudiomc.generic.networking.interfaces.NetworkingService;
+import com.craftmend.openaudiomc.generic.networking.io.OutboundPacketQueue;
+import com.craftmend.openaudiomc.generic.networking.io.SocketIoConnector;
+import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
+
+public class PacketBatchingDetail implements StateDetail {
+    @Override
+    public String title() {
+        return "Packet Batching";
+    }
+
+    @Override
+    public String value() {
+        NetworkingService networkingService = OpenAudioMc.getService(NetworkingService.class);
+        if (!(networkingService instanceof DefaultNetworkingService)) return "Not applicable";
+
+        SocketIoConnector connector = ((DefaultNetworkingService) networkingService).getSocketIoConnector();
+        if (connector == null) return "Not applicable";
+
+        OutboundPacketQueue queue = connector.getOutboundQueue();
+        return queue.getPacketsQueued() + " packets in " + queue.getFramesSent() + " frames, saved "
+                + queue.getFramesSaved() + " frames and " + (queue.getBytesSaved() / 1024) + "KB";
+    }
+}
@@ -0,0 +1,24 @@
+package com.craftmend.openaudiomc.generic.state.collectors;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
+import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.PlayerTickEngine;
+
+public class PlayerTickDetail implements StateDetail {
+    @Override
+    public String title() {
+        return "Player Ticks";
+    }
+
+    @Override
+    public String value() {
+        PlayerTickEngine engine = OpenAudioMc.getService(SpigotPlayerService.class).getTickEngine();
+        if (engine == null) return "Not running";
+
+        return engine.getPlayerCount() + " players on " + engine.getWorkerCount() + " workers, last tick "
+                + (engine.getLastTickNanos() / 1000) + "us for " + engine.getLastTickSize() + " players (avg "
+                + (engine.getAverageTickNanos() / 1000) + "us, max " + (engine.getMaxTickNanos() / 1000) + "us, "
+                + engine.getSkippedTicks() + " skipped)";
+    }
+}
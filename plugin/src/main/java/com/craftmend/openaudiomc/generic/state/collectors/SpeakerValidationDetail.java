@@ -0,0 +1,22 @@
+package com.craftmend.openaudiomc.generic.state.collectors;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
+import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
+import com.craftmend.openaudiomc.spigot.modules.speakers.tasks.SpeakerValidator;
+
+public class SpeakerValidationDetail implements StateDetail {
+    @Override
+    public String title() {
+        return "Speaker Validation";
+    }
+
+    @Override
+    public String value() {
+        SpeakerValidator validator = OpenAudioMc.getService(SpeakerService.class).getValidator();
+        if (validator == null) return "Not running";
+
+        return validator.getValidatedLastMinute() + " validated and " + validator.getRemovedLastMinute()
+                + " removed in the last minute, " + validator.getQueuedChunks() + " chunks queued";
+    }
+}
@@ -3,6 +3,7 @@ package com.craftmend.openaudiomc.generic.state.collectors;
 import com.craftmend.openaudiomc.generic.platform.Platform;
 import com.craftmend.openaudiomc.generic.state.interfaces.StateDetail;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionLookupCache;
 import org.bukkit.ChatColor;
 
 public class SpigotRegionDetail implements StateDetail {
@@ -16,7 +17,10 @@ public class SpigotRegionDetail implements StateDetail {
         if (OpenAudioMcSpigot.getInstance().getRegionModule() == null) {
             return Platform.makeColor("RED") + "Feature Disabled";
         } else {
-            return "Loaded Audio Regions: " + ChatColor.AQUA + "" + OpenAudioMcSpigot.getInstance().getRegionModule().getRegionPropertiesMap().size();
+            RegionLookupCache cache = OpenAudioMcSpigot.getInstance().getRegionModule().getLookupCache();
+            return "Loaded Audio Regions: " + ChatColor.AQUA + "" + OpenAudioMcSpigot.getInstance().getRegionModule().getRegionPropertiesMap().size()
+                    + ChatColor.GRAY + ", cached lookups: " + ChatColor.AQUA + cache.size()
+                    + ChatColor.GRAY + " (" + ChatColor.AQUA + cache.getHits() + ChatColor.GRAY + " hits, " + ChatColor.AQUA + cache.getMisses() + ChatColor.GRAY + " misses)";
         }
     }
 }
@@ -52,6 +52,16 @@ public enum StorageKey {
     SETTINGS_VC_TOGGLE_MIC_SWAP(false, "options.voicechat-toggle-mic-on-swap-and-sneak", StorageLocation.CONFIG_FILE),
     SETTINGS_VC_USE_HOTBAR(false, "options.voicechat-send-messages-in-hotbar", StorageLocation.CONFIG_FILE),
     SETTINGS_VC_AUTOCLAIM(false, "options.voicechat-autoclaim-on-start", StorageLocation.CONFIG_FILE),
+    SETTINGS_BATCH_CLIENT_PACKETS(false, "options.batch-client-packets", StorageLocation.CONFIG_FILE),
+    SETTINGS_BATCH_CLIENT_PACKETS_INTERVAL(false, "options.batch-client-packets-interval", StorageLocation.CONFIG_FILE),
+    SETTINGS_METRICS_ENABLED(false, "options.metrics-enabled", StorageLocation.CONFIG_FILE),
+    SETTINGS_METRICS_PORT(false, "options.metrics-port", StorageLocation.CONFIG_FILE),
+    SETTINGS_OBSTRUCTION_TICK_BUDGET(false, "options.obstruction-tick-budget", StorageLocation.CONFIG_FILE),
+    SETTINGS_SPEAKER_CLUSTER_RADIUS(false, "options.speaker-cluster-radius", StorageLocation.CONFIG_FILE),
+    SETTINGS_HANDLER_TIMINGS(false, "options.handler-timings", StorageLocation.CONFIG_FILE),
+    SETTINGS_LOCATION_UPDATE_PRECISION(false, "options.location-update-precision", StorageLocation.CONFIG_FILE),
+    SETTINGS_LOCATION_UPDATE_ROTATION_STEP(false, "options.location-update-rotation-step", StorageLocation.CONFIG_FILE),
+    SETTINGS_LOCATION_UPDATE_INTERVAL(false, "options.location-update-interval", StorageLocation.CONFIG_FILE),
 
     SETTINGS_PAPI_CLIENT_CONNECTED(false, "papi.client-connected", StorageLocation.CONFIG_FILE),
     SETTINGS_PAPI_CLIENT_DISCONNECTED(false, "papi.client-disconnected", StorageLocation.CONFIG_FILE),
@@ -75,8 +85,11 @@ public enum StorageKey {
 
     CDN_PREFERRED_PORT(false, "cdn.preferred-bridge-port", StorageLocation.CONFIG_FILE),
     CDN_TIMEOUT(false, "cdn.timeout-seconds", StorageLocation.CONFIG_FILE),
+    CDN_MAX_THREADS(false, "cdn.max-threads", StorageLocation.CONFIG_FILE),
 
     LEGAL_ACCEPTED_TOS_AND_PRIVACY(false, "legal.accepted", StorageLocation.DATA_FILE),
+
+    DATABASE_SPEAKER_REGIONS(false, "database.speaker-regions", StorageLocation.DATA_FILE),
     ;
 
     @Getter
@@ -1,15 +1,21 @@
 package com.craftmend.openaudiomc.generic.utils.data;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+/**
+ * A map that keeps track of how "hot" its keys are, and only keeps the hottest ones around.
+ *
+ * Every bump adds to an exponentially decaying heat. The heat is stored on a log scale relative to
+ * the moment the map was created, so it never has to be updated as time passes, and the order between
+ * two values stays the same until one of them gets bumped again. That lets eviction use a min-heap
+ * that's only repaired lazily when a stale entry comes out on top, instead of sorting all values
+ * on every bump.
+ */
 public class ConcurrentHeatMap<T, S> {
 
     public static final ContextFactory BYTE_CONTEXT = () -> (byte) 0;
@@ -18,20 +24,33 @@ public class ConcurrentHeatMap<T, S> {
     private final int maxElements;
     private final ContextFactory contextFactory;
 
+    // decay rate per millisecond, the heat halves every half life
+    private final double decayRate;
+    private final long epoch = System.currentTimeMillis();
+    private final long sweepIntervalMillis;
+    private long nextSweepAt;
+
+    // guarded by this, may contain stale entries, see evictOverflow
+    private final PriorityQueue<HeapEntry> coldest = new PriorityQueue<>(Comparator.comparingDouble((HeapEntry entry) -> entry.heat));
+
     public ConcurrentHeatMap(int maxAgeInSeconds, int maxElements, ContextFactory contextFactory) {
+        this(maxAgeInSeconds, maxElements, maxAgeInSeconds, contextFactory);
+    }
+
+    public ConcurrentHeatMap(int maxAgeInSeconds, int maxElements, int halfLifeInSeconds, ContextFactory contextFactory) {
         this.maxAgeInSeconds = maxAgeInSeconds;
         this.maxElements = maxElements;
         this.contextFactory = contextFactory;
+        this.decayRate = Math.log(2) / (Math.max(1, halfLifeInSeconds) * 1000D);
+        this.sweepIntervalMillis = Math.max(1000, maxAgeInSeconds * 100L);
+        this.nextSweepAt = epoch + sweepIntervalMillis;
     }
 
     public void bump(T value) {
-        clean();
-        Value incremental = data.getOrDefault(value, new Value(value, (S) contextFactory.buildContext()));
-        incremental.bump();
-        data.put(value, incremental);
+        get(value).bump();
     }
 
-    public void delete(T key)  {
+    public synchronized void delete(T key)  {
         data.remove(key);
     }
 
@@ -39,8 +58,20 @@ public class ConcurrentHeatMap<T, S> {
         return data.values();
     }
 
+    /**
+     * @param value Key
+     * @return The tracked value, or a new (not yet tracked) value when it's unknown or expired.
+     *         The new value gets tracked once it gets bumped or scored.
+     */
     public Value get(T value) {
-        return data.getOrDefault(value, new Value(value, (S) contextFactory.buildContext()));
+        Value existing = data.get(value);
+        if (existing != null) {
+            if (!existing.isExpired(System.currentTimeMillis())) return existing;
+            synchronized (this) {
+                data.remove(value, existing);
+            }
+        }
+        return new Value(value, (S) contextFactory.buildContext());
     }
 
     public Map<T, Value> getMap() {
@@ -48,90 +79,179 @@ public class ConcurrentHeatMap<T, S> {
     }
 
     public List<Value> getTop(int count) {
-        int i = 0;
-        List<Value> resultSet = new ArrayList<>();
-        for (Value sortedValue : sortedValues()) {
-            if (i >= count) return resultSet;
-            resultSet.add(sortedValue);
-            i++;
-        }
-        return resultSet;
-    }
-
-    public void clean() {
-        int elements = 0;
-        List<T> removals = new ArrayList<>();
-        for (Value value : sortedValues()) {
-            if (value.getAge() > maxAgeInSeconds) {
-                removals.add(value.getValue());
+        long now = System.currentTimeMillis();
+        List<Value> values = new ArrayList<>(data.size());
+        for (Value value : data.values()) {
+            if (!value.isExpired(now)) values.add(value);
+        }
+
+        values.sort(Comparator.comparingDouble((Value value) -> value.heat).reversed());
+        return values.size() > count ? new ArrayList<>(values.subList(0, Math.max(0, count))) : values;
+    }
+
+    /**
+     * Remove everything that's too old, and evict the coldest values that don't fit
+     */
+    public synchronized void clean() {
+        sweepExpired(System.currentTimeMillis());
+        evictOverflow();
+    }
+
+    public interface ContextFactory {
+        Object buildContext();
+    }
+
+    public void forceValue(T value, Instant pingedAt, Integer score) {
+        Value forced = new Value((S) contextFactory.buildContext(), value, pingedAt, score);
+        synchronized (this) {
+            data.put(value, forced);
+            track(forced);
+        }
+    }
+
+    private synchronized void touch(Value value, int score, long pingedAt, double heat) {
+        double previousHeat = value.heat;
+        value.score = score;
+        value.pingedAt = pingedAt;
+        value.heat = heat;
+
+        if (data.put(value.value, value) != value) {
+            // new to the map, so it needs its own heap entry
+            track(value);
+        } else if (heat < previousHeat) {
+            // its entry claims it's hotter than it is now, which would make it outlive colder values
+            track(value);
+        }
+
+        if (pingedAt >= nextSweepAt) {
+            nextSweepAt = pingedAt + sweepIntervalMillis;
+            sweepExpired(pingedAt);
+        }
+    }
+
+    private void track(Value value) {
+        coldest.add(new HeapEntry(value, value.heat));
+        evictOverflow();
+
+        // dropped and replaced values leave stale entries behind, don't let those pile up
+        if (coldest.size() > (Math.max(data.size(), maxElements) * 2) + 16) {
+            coldest.clear();
+            for (Value tracked : data.values()) {
+                coldest.add(new HeapEntry(tracked, tracked.heat));
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        while (data.size() > maxElements) {
+            HeapEntry entry = coldest.poll();
+            if (entry == null) {
+                // values got added through getMap(), so the heap doesn't know them yet
+                for (Value tracked : data.values()) {
+                    coldest.add(new HeapEntry(tracked, tracked.heat));
+                }
                 continue;
             }
 
-            elements++;
-            if (elements > maxElements) {
-                removals.add(value.getValue());
+            // removed or replaced since this entry got queued
+            if (data.get(entry.value.value) != entry.value) continue;
+
+            if (entry.heat < entry.value.heat) {
+                // got bumped since it was queued, put it back with its current heat
+                coldest.add(new HeapEntry(entry.value, entry.value.heat));
+                continue;
             }
-        }
 
-        for (T removal : removals) {
-            data.remove(removal);
+            // its score got lowered since, the entry with its current heat already came out or still will
+            if (entry.heat > entry.value.heat) continue;
+
+            // every other entry has a heat that's at least this high, so this is the coldest value
+            data.remove(entry.value.value);
         }
     }
 
-    private List<Value> sortedValues() {
-        if (data.isEmpty()) return new ArrayList<>();
+    private void sweepExpired(long now) {
+        data.values().removeIf(value -> value.isExpired(now));
+    }
 
-        return new ArrayList<>(data.values())
-                .stream()
-                .sorted(
-                        Comparator
-                                .comparingInt(Value::getScore)
-                                .reversed()
-                )
-                .collect(Collectors.toList());
+    // heat of a single ping at the given time, on the log scale
+    private double heatAt(long time) {
+        return decayRate * (time - epoch);
     }
 
-    public interface ContextFactory {
-        Object buildContext();
+    private static double logAdd(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) return b;
+        if (b == Double.NEGATIVE_INFINITY) return a;
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
     }
 
-    public void forceValue(T value, Instant pingedAt, Integer score) {
-        data.put(value, new Value(
-                (S) contextFactory.buildContext(),
-                value,
-                pingedAt,
-                score
-        ));
+    private final class HeapEntry {
+        private final Value value;
+        private final double heat;
+
+        private HeapEntry(Value value, double heat) {
+            this.value = value;
+            this.heat = heat;
+        }
     }
 
-    @AllArgsConstructor
     public class Value {
         @Setter @Getter private S context;
         @Getter private final T value;
-        @Getter private Instant pingedAt = Instant.now();
-        @Getter private Integer score = 1;
+        private volatile long pingedAt = System.currentTimeMillis();
+        private volatile int score = 1;
+        // decayed score on the log scale, see the class comment
+        private volatile double heat = Double.NEGATIVE_INFINITY;
 
         public Value(T value, S context) {
             this.value = value;
             this.context = context;
         }
 
-        public Value setScore(Integer score) {
+        public Value(S context, T value, Instant pingedAt, Integer score) {
+            this.context = context;
+            this.value = value;
+            this.pingedAt = pingedAt.toEpochMilli();
             this.score = score;
-            pingedAt = Instant.now();
-            data.put(value, this);
+            this.heat = heatAt(this.pingedAt) + Math.log(Math.max(1, score));
+        }
+
+        public Value setScore(Integer score) {
+            long now = System.currentTimeMillis();
+            touch(this, score, now, heatAt(now) + Math.log(Math.max(1, score)));
             return this;
         }
 
         public Value bump() {
-            score++;
-            pingedAt = Instant.now();
-            data.put(value, this);
+            long now = System.currentTimeMillis();
+            synchronized (ConcurrentHeatMap.this) {
+                touch(this, score + 1, now, logAdd(heat, heatAt(now)));
+            }
             return this;
         }
 
+        public Integer getScore() {
+            return score;
+        }
+
+        public Instant getPingedAt() {
+            return Instant.ofEpochMilli(pingedAt);
+        }
+
+        /**
+         * @return The current decayed score, this halves every half life since the last bump
+         */
+        public double getHeat() {
+            return Math.exp(heat - heatAt(System.currentTimeMillis()));
+        }
+
         public int getAge() {
-            return (int) (Duration.between(pingedAt, Instant.now()).toMillis() / 1000);
+            return (int) ((System.currentTimeMillis() - pingedAt) / 1000);
+        }
+
+        private boolean isExpired(long now) {
+            return (now - pingedAt) / 1000 > maxAgeInSeconds;
         }
     }
 }
@@ -4,6 +4,10 @@ public enum VoiceStateChangeEvent {
 
     // pretty obvious aye
     MICROPHONE_MUTED,
-    MICROPHONE_UNMUTE
+    MICROPHONE_UNMUTE,
+
+    // not voice related, but the client can only reach us through the channels the relay knows.
+    // send when the client knows how to handle batched packets
+    CLIENT_SUPPORTS_BATCHING
 
 }
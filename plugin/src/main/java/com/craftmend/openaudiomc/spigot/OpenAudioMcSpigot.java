@@ -41,6 +41,7 @@ import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
 import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
 import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
 import com.craftmend.openaudiomc.spigot.services.threading.ExecutorService;
+import com.craftmend.openaudiomc.spigot.services.world.ObstructionService;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -100,6 +101,7 @@ public final class OpenAudioMcSpigot extends JavaPlugin implements OpenAudioInvo
                     AliasService.class,
                     ExecutorService.class,
                     ServerService.class,
+                    ObstructionService.class,
                     SpigotPlayerService.class,
                     SpeakerService.class,
                     SpigotCommandService.class,
@@ -144,6 +146,9 @@ public final class OpenAudioMcSpigot extends JavaPlugin implements OpenAudioInvo
     public void onDisable() {
         OpenAudioLogger.toConsole("Shutting down");
         OpenAudioMc.getService(PredictiveMediaService.class).onDisable();
+        OpenAudioMc.getService(SpigotPlayerService.class).onDisable();
+        OpenAudioMc.getService(ObstructionService.class).onDisable();
+        OpenAudioMc.getService(ShowService.class).onDisable();
         openAudioMc.disable();
         HandlerList.unregisterAll(this);
         OpenAudioLogger.toConsole("Stopped OpenAudioMc. Goodbye.");
@@ -43,7 +43,8 @@ public class SpigotCommandService extends Service {
                 new HueSubCommand(openAudioMcSpigot),
                 new ShowSubCommand(openAudioMcSpigot),
                 new AliasSubCommand(),
-                new VoiceSubCommand()
+                new VoiceSubCommand(),
+                new TimingsSubCommand()
                 //new PersonalSettingsSubCommand()
         );
 
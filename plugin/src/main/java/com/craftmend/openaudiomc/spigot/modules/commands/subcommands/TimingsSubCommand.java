@@ -0,0 +1,67 @@
+package com.craftmend.openaudiomc.spigot.modules.commands.subcommands;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.commands.interfaces.SubCommand;
+import com.craftmend.openaudiomc.generic.commands.objects.Argument;
+import com.craftmend.openaudiomc.generic.user.User;
+import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
+import com.craftmend.openaudiomc.spigot.modules.players.enums.TickedHandler;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.HandlerTimings;
+import org.bukkit.ChatColor;
+
+public class TimingsSubCommand extends SubCommand {
+
+    public TimingsSubCommand() {
+        super("timings");
+        registerArguments(
+                new Argument("",
+                        "Show how long updating regions, speakers, audio chunks and locations takes per player, by world"),
+                new Argument("on",
+                        "Start measuring, this is off by default"),
+                new Argument("off",
+                        "Stop measuring"),
+                new Argument("reset",
+                        "Forget all measurements")
+        );
+    }
+
+    @Override
+    public void onExecute(User sender, String[] args) {
+        HandlerTimings timings = OpenAudioMc.getService(SpigotPlayerService.class).getHandlerTimings();
+
+        if (args.length == 1) {
+            switch (args[0].toLowerCase()) {
+                case "on":
+                    timings.setEnabled(true);
+                    message(sender, ChatColor.GREEN + "Handler timings are now being measured");
+                    return;
+                case "off":
+                    timings.setEnabled(false);
+                    message(sender, ChatColor.RED + "Handler timings are no longer being measured");
+                    return;
+                case "reset":
+                    timings.reset();
+                    message(sender, ChatColor.GREEN + "Handler timings have been reset");
+                    return;
+                default:
+                    sender.makeExecuteCommand("oa help " + getCommand());
+                    return;
+            }
+        }
+
+        message(sender, "Handler timings (" + (timings.isEnabled() ? ChatColor.GREEN + "measuring" : ChatColor.RED + "not measuring, use /oa timings on") + ChatColor.RESET + ")");
+        if (timings.getWorlds().isEmpty()) {
+            message(sender, ChatColor.GRAY + "Nothing has been measured yet");
+            return;
+        }
+
+        for (String world : timings.getWorlds()) {
+            message(sender, ChatColor.AQUA + world);
+            for (TickedHandler handler : TickedHandler.values()) {
+                HandlerTimings.Summary summary = timings.summarize(handler, world);
+                if (summary == null) continue;
+                message(sender, ChatColor.GRAY + " - " + ChatColor.BLUE + handler.getDisplayName() + ChatColor.WHITE + ": " + ChatColor.GOLD + summary);
+            }
+        }
+    }
+}
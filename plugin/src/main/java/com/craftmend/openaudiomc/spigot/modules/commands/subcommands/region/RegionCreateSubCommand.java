@@ -34,6 +34,6 @@ public class RegionCreateSubCommand extends SubCommand {
         openAudioMcSpigot.getRegionModule().registerRegion(rp.getRegionName(), rp);
 
         message(sender, ChatColor.GREEN + "The WorldGuard region with the id " + args[1] + " now has the sound " + args[2]);
-        openAudioMcSpigot.getRegionModule().forceUpdateRegions();
+        openAudioMcSpigot.getRegionModule().updatePlayersIn(args[1]);
     }
 }
@@ -37,6 +37,6 @@ public class RegionDeleteSubCommand extends SubCommand {
         } else {
             message(sender, ChatColor.RED + "There's no worldguard region by the name " + targetRegion);
         }
-        openAudioMcSpigot.getRegionModule().forceUpdateRegions();
+        openAudioMcSpigot.getRegionModule().updatePlayersIn(targetRegion);
     }
 }
@@ -52,6 +52,6 @@ public class RegionTempSubCommand extends SubCommand {
         openAudioMcSpigot.getRegionModule().registerRegion(args[1], new TimedRegionProperties(args[2], duration, args[1]));
         message(sender, ChatColor.GREEN + "The WorldGuard region with the id " + args[1] + " now has the sound " + args[2]);
 
-        openAudioMcSpigot.getRegionModule().forceUpdateRegions();
+        openAudioMcSpigot.getRegionModule().updatePlayersIn(args[1]);
     }
 }
@@ -1,10 +1,11 @@
 package com.craftmend.openaudiomc.spigot.modules.commands.subcommands.speaker;
 
+import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.commands.interfaces.SubCommand;
 import com.craftmend.openaudiomc.generic.platform.OaColor;
 import com.craftmend.openaudiomc.generic.user.User;
 import com.craftmend.openaudiomc.spigot.modules.commands.subcommands.SpeakersSubCommand;
-import com.craftmend.openaudiomc.spigot.modules.speakers.tasks.SpeakerGarbageCollection;
+import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
 
 public class SpeakerGcSubCommand extends SubCommand {
 
@@ -25,9 +26,7 @@ public class SpeakerGcSubCommand extends SubCommand {
         }
 
         message(sender, "Starting garbage collector...");
-        SpeakerGarbageCollection sgc = new SpeakerGarbageCollection();
-        // run the wrapper twice to force a cache refresh at the end
-        sgc.run();
+        OpenAudioMc.getService(SpeakerService.class).getValidator().validateAll();
         message(sender, "Full garbage collection sweep finished");
     }
 
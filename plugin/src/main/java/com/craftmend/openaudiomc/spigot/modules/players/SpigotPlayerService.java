@@ -2,10 +2,12 @@ package com.craftmend.openaudiomc.spigot.modules.players;
 
 import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
+import com.craftmend.openaudiomc.generic.environment.MagicValue;
 import com.craftmend.openaudiomc.generic.networking.interfaces.NetworkingService;
 import com.craftmend.openaudiomc.generic.proxy.interfaces.UserHooks;
 import com.craftmend.openaudiomc.generic.service.Inject;
 import com.craftmend.openaudiomc.generic.service.Service;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
 import com.craftmend.openaudiomc.generic.user.User;
 import com.craftmend.openaudiomc.generic.user.adapters.SpigotUserAdapter;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
@@ -13,6 +15,8 @@ import com.craftmend.openaudiomc.spigot.modules.players.listeners.PlayerConnecti
 import com.craftmend.openaudiomc.spigot.modules.players.listeners.PlayerItemListener;
 import com.craftmend.openaudiomc.spigot.modules.players.listeners.PlayerTeleportationListener;
 import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.HandlerTimings;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.PlayerTickEngine;
 import com.craftmend.openaudiomc.spigot.services.server.ServerService;
 import com.craftmend.openaudiomc.spigot.services.server.enums.ServerVersion;
 import lombok.Getter;
@@ -34,9 +38,14 @@ public class SpigotPlayerService extends Service {
     @Getter
     private final Map<UUID, SpigotConnection> spigotConnectionMap = new HashMap<>();
     @Getter private PlayerConnectionListener playerConnectionListener;
+    @Getter private PlayerTickEngine tickEngine;
+    @Getter private HandlerTimings handlerTimings;
 
     @Override
     public void onEnable() {
+        tickEngine = new PlayerTickEngine(MagicValue.LOCATION_TRACK_INTERVAL.get(Integer.class));
+        handlerTimings = new HandlerTimings(StorageKey.SETTINGS_HANDLER_TIMINGS.getBoolean());
+
         playerConnectionListener = new PlayerConnectionListener();
         openAudioMcSpigot.getServer().getPluginManager().registerEvents(playerConnectionListener, openAudioMcSpigot);
         openAudioMcSpigot.getServer().getPluginManager().registerEvents(new PlayerTeleportationListener(), openAudioMcSpigot);
@@ -46,13 +55,20 @@ public class SpigotPlayerService extends Service {
         }
     }
 
+    @Override
+    public void onDisable() {
+        if (tickEngine != null) tickEngine.stop();
+    }
+
     /**
      * @param player registers the player
      */
     public void register(Player player) {
         User sua = OpenAudioMc.resolveDependency(UserHooks.class).byUuid(player.getUniqueId());
         ClientConnection clientConnection = OpenAudioMc.getService(NetworkingService.class).register(sua, null);
-        spigotConnectionMap.put(player.getUniqueId(), new SpigotConnection(player, clientConnection));
+        SpigotConnection spigotConnection = new SpigotConnection(player, clientConnection);
+        spigotConnectionMap.put(player.getUniqueId(), spigotConnection);
+        tickEngine.add(spigotConnection.getLocationTracker());
     }
 
     /**
@@ -95,6 +111,7 @@ public class SpigotPlayerService extends Service {
     public void remove(Player player) {
         if (spigotConnectionMap.containsKey(player.getUniqueId())) {
             SpigotConnection spigotConnection = spigotConnectionMap.get(player.getUniqueId());
+            tickEngine.remove(spigotConnection.getLocationTracker());
             spigotConnection.onDestroy();
             spigotConnectionMap.remove(player.getUniqueId());
         }
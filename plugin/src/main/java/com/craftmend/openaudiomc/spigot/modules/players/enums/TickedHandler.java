@@ -0,0 +1,16 @@
+package com.craftmend.openaudiomc.spigot.modules.players.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+public enum TickedHandler {
+
+    AUDIO_CHUNKS("audio chunks"),
+    REGIONS("regions"),
+    SPEAKERS("speakers"),
+    LOCATION_FOLLOWERS("location followers");
+
+    @Getter private final String displayName;
+
+}
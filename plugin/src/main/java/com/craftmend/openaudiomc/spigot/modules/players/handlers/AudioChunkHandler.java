@@ -4,6 +4,7 @@ import com.craftmend.openaudiomc.api.interfaces.AudioApi;
 import com.craftmend.openaudiomc.generic.networking.packets.client.media.PacketClientPreFetch;
 import com.craftmend.openaudiomc.spigot.modules.players.interfaces.ITickableHandler;
 import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import java.util.Collection;
@@ -28,14 +29,15 @@ public class AudioChunkHandler implements ITickableHandler {
 
     @Override
     public void tick() {
-        String newChunkId = audioApi.getWorldApi().getChunkId(player.getLocation());
+        Location location = spigotConnection.getLocationTracker().getLocation();
+        String newChunkId = audioApi.getWorldApi().getChunkId(location);
 
         if (!newChunkId.equals(currentAudioChunkId)) {
             currentAudioChunkId = newChunkId;
 
             if (hasPrefetchedContent) spigotConnection.getClientConnection().sendPacket(new PacketClientPreFetch(true));
 
-            Collection<String> media = audioApi.getWorldApi().getPredictedSources(player.getLocation());
+            Collection<String> media = audioApi.getWorldApi().getPredictedSources(location);
             hasPrefetchedContent = !media.isEmpty();
 
             for (String s : media) {
@@ -11,6 +11,7 @@ import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
 import com.craftmend.openaudiomc.spigot.modules.players.interfaces.ITickableHandler;
 import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
+import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
 import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.IRegion;
 import com.craftmend.openaudiomc.generic.networking.packets.client.media.PacketClientDestroyMedia;
 import lombok.AllArgsConstructor;
@@ -30,10 +31,10 @@ public class RegionHandler implements ITickableHandler {
      */
     @Override
     public void tick() {
-        if (OpenAudioMcSpigot.getInstance().getRegionModule() != null) {
+        RegionModule regionModule = OpenAudioMcSpigot.getInstance().getRegionModule();
+        if (regionModule != null) {
             //regions are enabled
-            List<IRegion> detectedRegions = OpenAudioMcSpigot.getInstance().getRegionModule()
-                    .getRegionAdapter().getAudioRegions(player.getLocation());
+            List<IRegion> detectedRegions = regionModule.getRegionAdapter().getAudioRegions(spigotConnection.getLocationTracker().getLocation());
 
             List<IRegion> enteredRegions = new ArrayList<>(detectedRegions);
             enteredRegions.removeIf(t -> containsRegion(spigotConnection.getRegions(), t));
@@ -85,6 +86,7 @@ public class RegionHandler implements ITickableHandler {
                 }
             }
 
+            regionModule.getPlayerIndex().update(spigotConnection, spigotConnection.getRegions(), detectedRegions);
             spigotConnection.setCurrentRegions(detectedRegions);
         }
     }
@@ -96,7 +98,7 @@ public class RegionHandler implements ITickableHandler {
         }
 
         spigotConnection.getClientConnection().getRtcSessionManager().getBlockReasons().remove(RtcBlockReason.IN_DISABLED_REGION);
-        spigotConnection.getRegions().clear();
+        spigotConnection.clearRegions();
     }
 
     private boolean containsRegion(List<IRegion> list, IRegion query) {
@@ -1,13 +1,20 @@
 package com.craftmend.openaudiomc.spigot.modules.players.handlers;
 
 import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
 import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacket;
+import com.craftmend.openaudiomc.generic.networking.abstracts.AbstractPacketPayload;
 import com.craftmend.openaudiomc.generic.networking.interfaces.NetworkingService;
 import com.craftmend.openaudiomc.generic.networking.packets.client.speakers.PacketClientCreateSpeaker;
 import com.craftmend.openaudiomc.generic.networking.packets.client.speakers.PacketClientRemoveSpeaker;
+import com.craftmend.openaudiomc.generic.networking.packets.client.ui.PacketClientBatch;
 import com.craftmend.openaudiomc.generic.networking.payloads.client.speakers.ClientSpeakerCreatePayload;
 import com.craftmend.openaudiomc.generic.networking.payloads.client.speakers.ClientSpeakerDestroyPayload;
 import com.craftmend.openaudiomc.generic.networking.payloads.client.speakers.objects.ClientSpeaker;
+import com.craftmend.openaudiomc.generic.networking.payloads.client.ui.ClientBatchPayload;
 import com.craftmend.openaudiomc.spigot.services.world.Vector3;
 import com.craftmend.openaudiomc.spigot.modules.players.enums.PlayerLocationFollower;
 import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
@@ -16,76 +23,147 @@ import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
 import com.craftmend.openaudiomc.spigot.modules.players.interfaces.ITickableHandler;
 import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
 import com.craftmend.openaudiomc.spigot.modules.speakers.objects.ApplicableSpeaker;
-import lombok.AllArgsConstructor;
+import com.craftmend.openaudiomc.spigot.services.world.ObstructionService;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.List;
-
-@AllArgsConstructor
+import java.util.*;
+
+/**
+ * Keeps the speakers of a client in sync with the speakers around its player.
+ *
+ * Speakers are diffed by their id against what the client already has, in a single pass over both.
+ * Every speaker that got send is stored with a hash of everything the client knows about it, so a speaker that
+ * changed type, location, source or radius gets replaced. All creations and deletions of a tick are send as one
+ * batch, and the buffers for the diff are reused between ticks. Nearby speakers that play the same thing are
+ * send as one cluster, see {@link com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerClusters}.
+ */
 public class SpeakerHandler implements ITickableHandler {
 
     private final Player player;
     private final SpigotConnection spigotConnection;
-    private final List<AbstractPacket> packetQue = new ArrayList<>();
     private final SpeakerService speakerService = OpenAudioMc.getService(SpeakerService.class);
+    private final ObstructionService obstructionService = OpenAudioMc.getService(ObstructionService.class);
+    private final Counter createPackets;
+    private final Counter removePackets;
+    private final Counter avoidedCreatePackets;
+    private final Counter avoidedRemovePackets;
+
+    // guards the current speakers of the client, so an obstructed speaker that finishes its check can't be
+    // created after the tick already removed it
+    private final Object lock = new Object();
+
+    // only used from within tick, while holding the lock
+    private final Map<UUID, Integer> sentHashes = new HashMap<>();
+    private final Set<UUID> seen = new HashSet<>();
+    private final List<ApplicableSpeaker> obstructedSpeakers = new ArrayList<>();
+    private final List<AbstractPacket> operations = new ArrayList<>();
+
+    public SpeakerHandler(Player player, SpigotConnection spigotConnection) {
+        this.player = player;
+        this.spigotConnection = spigotConnection;
+
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
+        createPackets = registry.counter("openaudiomc_speaker_packets_total", "Speaker packets send to clients", "type", "create");
+        removePackets = registry.counter("openaudiomc_speaker_packets_total", "Speaker packets send to clients", "type", "remove");
+        avoidedCreatePackets = registry.counter("openaudiomc_speaker_packets_avoided_total", "Speaker packets that didn't have to be send because their speakers were clustered", "type", "create");
+        avoidedRemovePackets = registry.counter("openaudiomc_speaker_packets_avoided_total", "Speaker packets that didn't have to be send because their speakers were clustered", "type", "remove");
+    }
 
     /**
      * update speakers based on the players location
      */
     @Override
     public void tick() {
-        List<ApplicableSpeaker> applicableSpeakers = new ArrayList<>(speakerService.getCollector().getApplicableSpeakers(player.getLocation(), true));
-        List<ApplicableSpeaker> enteredSpeakers = new ArrayList<>(applicableSpeakers);
-        enteredSpeakers.removeIf(speaker -> containsSpeaker(spigotConnection.getSpeakers(), speaker));
-        List<ApplicableSpeaker> leftSpeakers = new ArrayList<>(spigotConnection.getSpeakers());
-        leftSpeakers.removeIf(speaker -> containsSpeaker(applicableSpeakers, speaker));
-
-        enteredSpeakers.forEach(entered -> {
-            if (!isPlayingSpeaker(entered)) {
-
-                int obstructions = 0;
+        Location location = spigotConnection.getLocationTracker().getLocation();
+        Collection<ApplicableSpeaker> applicableSpeakers = speakerService.getClusters().cluster(
+                speakerService.getCollector().getApplicableSpeakers(location, true)
+        );
 
-                // calculate obstructions?
-                // yea, but only if enabled for this speaker
-                if (ExtraSpeakerOptions.PROCESS_OBSTRUCTIONS.isEnabledFor(entered.getSpeaker())) {
-                    obstructions = speakerService.getRayTracer().obstructionsBetweenLocations(player.getLocation(), entered.getLocation());
-                }
+        synchronized (lock) {
+            diff(applicableSpeakers);
+        }
 
-                // overwrite sync flag
-                if (ExtraSpeakerOptions.IGNORE_SYNCHRONIZATION.isEnabledFor(entered.getSpeaker())) {
-                    entered.getSpeaker().getMedia().setDoPickup(false);
+        for (ApplicableSpeaker obstructed : obstructedSpeakers) {
+            UUID id = obstructed.getSpeaker().getSpeakerId();
+            obstructionService.queueObstructions(location, obstructed.getLocation()).thenAccept(obstructions -> {
+                synchronized (lock) {
+                    // the player might have walked away, or the speaker might have changed while this was queued
+                    if (spigotConnection.getCurrentSpeakers().get(id) != obstructed) return;
+                    countCreate(obstructed);
+                    OpenAudioMc.getService(NetworkingService.class).send(spigotConnection.getClientConnection(), new PacketClientCreateSpeaker(
+                            new ClientSpeakerCreatePayload(toClientSpeaker(obstructed, obstructions)))
+                    );
                 }
+            });
+        }
 
-                packetQue.add(new PacketClientCreateSpeaker(
-                        new ClientSpeakerCreatePayload(toClientSpeaker(entered, obstructions)))
-                );
-            }
-        });
+        // update location if the client is listening to something
+        if (!applicableSpeakers.isEmpty() || spigotConnection.getClientConnection().getSession().getApiSpeakers() > 0) {
+            spigotConnection.getLocationFollowers().add(PlayerLocationFollower.SPEAKERS);
+        }
 
-        // send deletion packets
-        leftSpeakers.forEach(left -> {
-            ClientSpeaker clientSpeaker = toClientSpeaker(left, -1);
-            OpenAudioMc.getService(NetworkingService.class).send(spigotConnection.getClientConnection(), new PacketClientRemoveSpeaker(new ClientSpeakerDestroyPayload(clientSpeaker)));
-        });
+        if (applicableSpeakers.isEmpty()) {
+            spigotConnection.getLocationFollowers().remove(PlayerLocationFollower.SPEAKERS);
+        }
+    }
 
-        spigotConnection.setCurrentSpeakers(applicableSpeakers);
+    private void diff(Collection<ApplicableSpeaker> applicableSpeakers) {
+        Map<UUID, ApplicableSpeaker> currentSpeakers = spigotConnection.getCurrentSpeakers();
+
+        seen.clear();
+        obstructedSpeakers.clear();
+        operations.clear();
+
+        // entered and changed speakers
+        for (ApplicableSpeaker speaker : applicableSpeakers) {
+            UUID id = speaker.getSpeaker().getSpeakerId();
+            if (!seen.add(id)) continue;
+
+            int hash = hash(speaker);
+            ApplicableSpeaker previous = currentSpeakers.get(id);
+            if (previous != null) {
+                Integer sentHash = sentHashes.get(id);
+                if (sentHash != null && sentHash == hash) continue;
+                // changed since the client got it, so it needs to be replaced
+                operations.add(new PacketClientRemoveSpeaker(new ClientSpeakerDestroyPayload(toClientSpeaker(previous, -1))));
+                countRemove(previous);
+            }
 
-        // update location if the client is listening to something
-        if (!applicableSpeakers.isEmpty() || spigotConnection.getClientConnection().getSession().getApiSpeakers() > 0) {
+            currentSpeakers.put(id, speaker);
+            sentHashes.put(id, hash);
 
-            spigotConnection.getLocationFollowers().add(PlayerLocationFollower.SPEAKERS);
+            // overwrite sync flag
+            if (ExtraSpeakerOptions.IGNORE_SYNCHRONIZATION.isEnabledFor(speaker.getSpeaker())) {
+                speaker.getSpeaker().getMedia().setDoPickup(false);
+            }
 
-            for (AbstractPacket abstractPacket : packetQue) {
-                OpenAudioMc.getService(NetworkingService.class).send(spigotConnection.getClientConnection(), abstractPacket);
+            // calculate obstructions?
+            // yea, but only if enabled for this speaker, those get send once the check is done
+            if (ExtraSpeakerOptions.PROCESS_OBSTRUCTIONS.isEnabledFor(speaker.getSpeaker())) {
+                obstructedSpeakers.add(speaker);
+                continue;
             }
 
-            packetQue.clear();
+            operations.add(new PacketClientCreateSpeaker(new ClientSpeakerCreatePayload(toClientSpeaker(speaker, 0))));
+            countCreate(speaker);
         }
 
-        if (applicableSpeakers.isEmpty()) {
-            spigotConnection.getLocationFollowers().remove(PlayerLocationFollower.SPEAKERS);
+        // left speakers
+        Iterator<Map.Entry<UUID, ApplicableSpeaker>> iterator = currentSpeakers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, ApplicableSpeaker> entry = iterator.next();
+            if (seen.contains(entry.getKey())) continue;
+            operations.add(new PacketClientRemoveSpeaker(new ClientSpeakerDestroyPayload(toClientSpeaker(entry.getValue(), -1))));
+            countRemove(entry.getValue());
+            iterator.remove();
+            sentHashes.remove(entry.getKey());
         }
+
+        // the current speakers might have been cleared to force a refresh
+        if (sentHashes.size() > currentSpeakers.size()) sentHashes.keySet().retainAll(currentSpeakers.keySet());
+
+        sendOperations();
     }
 
     public void forceDeleteSpeaker(String id, SpeakerType type, String source) {
@@ -102,13 +180,45 @@ public class SpeakerHandler implements ITickableHandler {
         )));
     }
 
-    private boolean isPlayingSpeaker(ApplicableSpeaker speaker) {
-        return containsSpeaker(spigotConnection.getSpeakers(), speaker);
+    private void sendOperations() {
+        if (operations.isEmpty()) return;
+        NetworkingService networkingService = OpenAudioMc.getService(NetworkingService.class);
+        ClientConnection client = spigotConnection.getClientConnection();
+        if (operations.size() == 1 || !client.getSession().isBatchingSupported()) {
+            for (AbstractPacket operation : operations) {
+                networkingService.send(client, operation);
+            }
+        } else {
+            List<AbstractPacketPayload> payloads = new ArrayList<>(operations.size());
+            for (AbstractPacket operation : operations) {
+                payloads.add(operation.getData());
+            }
+            networkingService.send(client, new PacketClientBatch(new ClientBatchPayload(payloads)));
+        }
+        operations.clear();
+    }
+
+    private void countCreate(ApplicableSpeaker speaker) {
+        createPackets.inc();
+        avoidedCreatePackets.add(speaker.getClusterSize() - 1);
     }
 
+    private void countRemove(ApplicableSpeaker speaker) {
+        removePackets.inc();
+        avoidedRemovePackets.add(speaker.getClusterSize() - 1);
+    }
 
-    private boolean containsSpeaker(List<ApplicableSpeaker> list, ApplicableSpeaker speaker) {
-        return list.stream().anyMatch(currentSpeaker -> currentSpeaker.equals(speaker));
+    // everything the client knows about a speaker, when this changes the speaker gets replaced
+    private static int hash(ApplicableSpeaker speaker) {
+        Vector3 location = speaker.getLocation();
+        int hash = speaker.getSpeakerType().hashCode();
+        hash = 31 * hash + Double.hashCode(location.getX());
+        hash = 31 * hash + Double.hashCode(location.getY());
+        hash = 31 * hash + Double.hashCode(location.getZ());
+        hash = 31 * hash + Objects.hashCode(speaker.getSpeaker().getSource());
+        hash = 31 * hash + Objects.hashCode(speaker.getSpeaker().getRadius());
+        hash = 31 * hash + speaker.getClusterSize();
+        return hash;
     }
 
     private ClientSpeaker toClientSpeaker(ApplicableSpeaker speaker, int obstructions) {
@@ -13,10 +13,8 @@ public class PlayerTeleportationListener implements Listener {
     public void onTp(PlayerTeleportEvent event) {
         SpigotConnection spigotConnection = OpenAudioMc.getService(SpigotPlayerService.class).getClient(event.getPlayer());
         if (spigotConnection == null) return;
-        if (spigotConnection.getRegionHandler() != null) {
-            spigotConnection.getRegionHandler().tick();
-        }
-        spigotConnection.getSpeakerHandler().tick();
+        // the next tick will have the new location, the event fires before the player got moved
+        spigotConnection.getLocationTracker().forceTick();
     }
 
 }
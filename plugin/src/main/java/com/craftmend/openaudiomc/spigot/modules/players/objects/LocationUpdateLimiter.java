@@ -0,0 +1,90 @@
+package com.craftmend.openaudiomc.spigot.modules.players.objects;
+
+import lombok.Getter;
+
+/**
+ * Decides when the location of a player has to be sent to its client again.
+ *
+ * Positions and rotations get quantised to the configured precision, and only get sent when their quantised
+ * value changed and the previous update was long enough ago. An update that had to wait stays pending until
+ * it can be sent. Everything is kept as primitives, so nothing gets allocated unless an update gets sent.
+ *
+ * It isn't thread safe, it's only used from the tick engine thread of its player.
+ */
+public class LocationUpdateLimiter {
+
+    private final int positionSteps;
+    private final int rotationStep;
+    private final long minIntervalNanos;
+
+    private long quantisedX, quantisedY, quantisedZ;
+    @Getter private int pitch, yaw;
+    private boolean sentAny = false;
+    private long lastSentNanos;
+    @Getter private boolean pending = false;
+
+    /**
+     * @param positionSteps  Steps per block that positions get rounded to, 10 rounds to a tenth of a block
+     * @param rotationStep   Degrees that the pitch and yaw get rounded to
+     * @param minIntervalMs  Minimum time between two updates
+     */
+    public LocationUpdateLimiter(int positionSteps, int rotationStep, int minIntervalMs) {
+        this.positionSteps = Math.max(1, positionSteps);
+        this.rotationStep = Math.max(1, rotationStep);
+        this.minIntervalNanos = Math.max(0, minIntervalMs) * 1_000_000L;
+    }
+
+    /**
+     * @param now Current time from {@link System#nanoTime()}
+     * @return If the location changed enough that it has to be sent now, the quantised values can be read from the getters
+     */
+    public boolean update(double x, double y, double z, float pitch, float yaw, long now) {
+        long newX = Math.round(x * positionSteps);
+        long newY = Math.round(y * positionSteps);
+        long newZ = Math.round(z * positionSteps);
+        int newPitch = Math.round(pitch / rotationStep) * rotationStep;
+        int newYaw = Math.round(yaw / rotationStep) * rotationStep;
+
+        if (sentAny && newX == quantisedX && newY == quantisedY && newZ == quantisedZ && newPitch == this.pitch && newYaw == this.yaw) {
+            // back to what the client already has
+            pending = false;
+            return false;
+        }
+
+        if (sentAny && now - lastSentNanos < minIntervalNanos) {
+            pending = true;
+            return false;
+        }
+
+        quantisedX = newX;
+        quantisedY = newY;
+        quantisedZ = newZ;
+        this.pitch = newPitch;
+        this.yaw = newYaw;
+        sentAny = true;
+        lastSentNanos = now;
+        pending = false;
+        return true;
+    }
+
+    /**
+     * Forget what got sent, so the next update always goes through
+     */
+    public void reset() {
+        sentAny = false;
+        pending = false;
+    }
+
+    public double getX() {
+        return quantisedX / (double) positionSteps;
+    }
+
+    public double getY() {
+        return quantisedY / (double) positionSteps;
+    }
+
+    public double getZ() {
+        return quantisedZ / (double) positionSteps;
+    }
+
+}
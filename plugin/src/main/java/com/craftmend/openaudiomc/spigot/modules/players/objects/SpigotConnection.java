@@ -1,35 +1,39 @@
 package com.craftmend.openaudiomc.spigot.modules.players.objects;
 
 import com.craftmend.openaudiomc.OpenAudioMc;
-import com.craftmend.openaudiomc.generic.environment.MagicValue;
 import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
 import com.craftmend.openaudiomc.generic.networking.interfaces.NetworkingService;
 import com.craftmend.openaudiomc.generic.networking.packets.client.speakers.PacketClientUpdateLocation;
 import com.craftmend.openaudiomc.generic.networking.payloads.client.speakers.ClientPlayerLocationPayload;
 import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
 import com.craftmend.openaudiomc.generic.media.objects.Media;
+import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
 import com.craftmend.openaudiomc.spigot.modules.players.enums.PlayerLocationFollower;
+import com.craftmend.openaudiomc.spigot.modules.players.enums.TickedHandler;
 import com.craftmend.openaudiomc.spigot.modules.players.events.ClientDisconnectEvent;
 import com.craftmend.openaudiomc.spigot.modules.players.handlers.AudioChunkHandler;
 import com.craftmend.openaudiomc.spigot.modules.players.handlers.InitializeTrains;
 import com.craftmend.openaudiomc.spigot.modules.players.handlers.RegionHandler;
 import com.craftmend.openaudiomc.spigot.modules.players.handlers.SpeakerHandler;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.HandlerTimings;
+import com.craftmend.openaudiomc.spigot.modules.players.tick.LocationTracker;
 import com.craftmend.openaudiomc.spigot.modules.players.events.ClientConnectEvent;
+import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
 import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.IRegion;
 import com.craftmend.openaudiomc.spigot.modules.speakers.objects.ApplicableSpeaker;
 
 import com.craftmend.openaudiomc.spigot.modules.speakers.objects.SpeakerSettings;
-import com.craftmend.openaudiomc.spigot.services.utils.DataWatcher;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SpigotConnection {
 
@@ -40,16 +44,13 @@ public class SpigotConnection {
     @Getter
     @Setter
     private List<IRegion> currentRegions = new ArrayList<>();
-    @Setter
-    private List<ApplicableSpeaker> currentSpeakers = new ArrayList<>();
+    // by speaker id, obstruction checks read this from other threads
+    @Getter
+    private final Map<UUID, ApplicableSpeaker> currentSpeakers = new ConcurrentHashMap<>();
 
-    // data watcher that watches for changes in the location, every 2 ticks.
+    // watches for changes in the location, ticked by the player tick engine
     @Getter
-    private final DataWatcher<Location> locationDataWatcher = new DataWatcher<>(
-            OpenAudioMcSpigot.getInstance(),
-            false,
-            MagicValue.LOCATION_TRACK_INTERVAL.get(Integer.class)
-    );
+    private final LocationTracker locationTracker;
 
     // Speaker and region handles. Region handler can be null if the feature is disabled
     @Getter private final SpeakerHandler speakerHandler;
@@ -57,6 +58,14 @@ public class SpigotConnection {
     @Getter private final AudioChunkHandler audioChunkHandler;
     @Getter private final Set<PlayerLocationFollower> locationFollowers = new HashSet<>();
     @Getter private final Player bukkitPlayer;
+    private final HandlerTimings timings = OpenAudioMc.getService(SpigotPlayerService.class).getHandlerTimings();
+    // set when the client (re)connected, the next tick forgets what the client had before evaluating the player
+    private volatile boolean connectResetPending = false;
+    private final LocationUpdateLimiter locationUpdates = new LocationUpdateLimiter(
+            StorageKey.SETTINGS_LOCATION_UPDATE_PRECISION.getInt(),
+            StorageKey.SETTINGS_LOCATION_UPDATE_ROTATION_STEP.getInt(),
+            StorageKey.SETTINGS_LOCATION_UPDATE_INTERVAL.getInt()
+    );
 
     //plugin data
     @Setter
@@ -69,6 +78,7 @@ public class SpigotConnection {
     public SpigotConnection(Player player, ClientConnection clientConnection) {
         this.clientConnection = clientConnection;
         this.bukkitPlayer = player;
+        this.locationTracker = new LocationTracker(player);
         // if the region system is enabled, then load the handler
         if (OpenAudioMcSpigot.getInstance().getRegionModule() != null)
             this.regionHandler = new RegionHandler(player, this);
@@ -77,34 +87,55 @@ public class SpigotConnection {
         this.audioChunkHandler = new AudioChunkHandler(player, this);
 
         // code that fires when the location has been changed
-        locationDataWatcher.setTask(updatedLocation -> {
+        locationTracker.setCallback(updatedLocation -> {
             // if the client is not connected, then dont do shit, they wont hear it anyway
             if (!this.clientConnection.isConnected()) return;
             if (!player.isOnline()) return; // how?.. what?..
 
+            if (connectResetPending) {
+                connectResetPending = false;
+                audioChunkHandler.reset();
+                locationUpdates.reset();
+                clearRegions();
+                currentSpeakers.clear();
+            }
+
+            World world = updatedLocation.getWorld();
+            long start = timings.start();
             this.audioChunkHandler.tick();
+            start = timings.record(TickedHandler.AUDIO_CHUNKS, world, start);
 
             // tick the regions, if the regions are enabled
-            if (this.regionHandler != null) this.regionHandler.tick();
+            if (this.regionHandler != null) {
+                this.regionHandler.tick();
+                start = timings.record(TickedHandler.REGIONS, world, start);
+            }
 
             // tick the speakers to force them to update
             this.speakerHandler.tick();
+            start = timings.record(TickedHandler.SPEAKERS, world, start);
 
             // update location if wanted
-            tickLocationFollowers();
+            tickLocationFollowers(updatedLocation);
+            timings.record(TickedHandler.LOCATION_FOLLOWERS, world, start);
         });
 
-        // the feeder, how the data watcher gets its new fed data
-        locationDataWatcher.setFeeder(player::getLocation);
+        // the player only moved within a block or looked around, that only matters to whatever follows its location
+        locationTracker.setMoveCallback(updatedLocation -> {
+            if (!this.clientConnection.isConnected()) return;
+            if (!player.isOnline()) return;
+            long start = timings.start();
+            tickLocationFollowers(updatedLocation);
+            timings.record(TickedHandler.LOCATION_FOLLOWERS, updatedLocation.getWorld(), start);
+        });
 
         // set handlers
         clientConnection.addOnConnectHandler(() -> {
-            audioChunkHandler.reset();
-            currentRegions.clear();
-            currentSpeakers.clear();
+            // the handlers and the location limiter belong to the tick engine thread of this player, which resets them
+            connectResetPending = true;
 
             if (player.isOnline()) {
-                locationDataWatcher.getCallback().accept(player.getLocation());
+                locationTracker.forceTick();
                 Bukkit.getScheduler().runTask(OpenAudioMcSpigot.getInstance(), () -> Bukkit.getServer().getPluginManager().callEvent(new ClientConnectEvent(player, this)));
             }
         });
@@ -118,18 +149,22 @@ public class SpigotConnection {
         });
     }
 
-    private void tickLocationFollowers() {
+    private void tickLocationFollowers(Location location) {
         if (!locationFollowers.isEmpty()) {
-            Location location = bukkitPlayer.getLocation();
-            ClientPlayerLocationPayload locationPayload = new ClientPlayerLocationPayload(
-                    round(location.getX(), 1),
-                    round(location.getY(), 1),
-                    round(location.getZ(), 1),
-                    (int) location.getPitch(),
-                    (int) location.getYaw()
-            );
-
-            OpenAudioMc.getService(NetworkingService.class).send(getClientConnection(), new PacketClientUpdateLocation(locationPayload));
+            if (locationUpdates.update(location.getX(), location.getY(), location.getZ(), location.getPitch(), location.getYaw(), System.nanoTime())) {
+                ClientPlayerLocationPayload locationPayload = new ClientPlayerLocationPayload(
+                        locationUpdates.getX(),
+                        locationUpdates.getY(),
+                        locationUpdates.getZ(),
+                        locationUpdates.getPitch(),
+                        locationUpdates.getYaw()
+                );
+
+                OpenAudioMc.getService(NetworkingService.class).send(getClientConnection(), new PacketClientUpdateLocation(locationPayload));
+            } else if (locationUpdates.isPending()) {
+                // sent too recently, try again next tick even if the player stopped moving
+                locationTracker.forceMoveTick();
+            }
 
             if (locationFollowers.contains(PlayerLocationFollower.PROXIMITY_VOICE_CHAT)) {
                 clientConnection.getRtcSessionManager().onLocationTick(location);
@@ -141,9 +176,16 @@ public class SpigotConnection {
      * Called before the Client object is destroyed
      */
     public void onDestroy() {
-        // shutdown the data watcher
-        this.locationDataWatcher.stop();
         this.currentSpeakers.clear();
+        clearRegions();
+    }
+
+    /**
+     * Forget the regions of the player, without telling the client
+     */
+    public void clearRegions() {
+        RegionModule regionModule = OpenAudioMcSpigot.getInstance().getRegionModule();
+        if (regionModule != null) regionModule.getPlayerIndex().removePlayer(this, currentRegions);
         this.currentRegions.clear();
     }
 
@@ -157,8 +199,8 @@ public class SpigotConnection {
     /**
      * @return speakers in range of the player
      */
-    public List<ApplicableSpeaker> getSpeakers() {
-        return currentSpeakers;
+    public Collection<ApplicableSpeaker> getSpeakers() {
+        return currentSpeakers.values();
     }
 
     /**
@@ -167,12 +209,4 @@ public class SpigotConnection {
     public void playMedia(Media media) {
         clientConnection.sendMedia(media);
     }
-
-    private double round(double value, int places) {
-        if (places < 0) throw new IllegalArgumentException();
-
-        BigDecimal bd = BigDecimal.valueOf(value);
-        bd = bd.setScale(places, RoundingMode.HALF_UP);
-        return bd.doubleValue();
-    }
 }
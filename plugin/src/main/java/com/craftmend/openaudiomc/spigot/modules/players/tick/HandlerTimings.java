@@ -0,0 +1,126 @@
+package com.craftmend.openaudiomc.spigot.modules.players.tick;
+
+import com.craftmend.openaudiomc.spigot.modules.players.enums.TickedHandler;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling timings of the handlers that run when a player gets ticked, per handler and per world.
+ *
+ * Sampling is off by default. While it's off, measuring is a single volatile read per handler, so the
+ * instrumented code can stay in place.
+ */
+public class HandlerTimings {
+
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private static final int WINDOW_SIZE = 1024;
+
+    @Getter @Setter private volatile boolean enabled;
+    private final Map<TickedHandler, Map<String, TimingWindow>> windows = new EnumMap<>(TickedHandler.class);
+
+    public HandlerTimings(boolean enabled) {
+        this.enabled = enabled;
+        for (TickedHandler handler : TickedHandler.values()) {
+            windows.put(handler, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * @return Start of a measurement, or {@link #NOT_SAMPLED} when timings are disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * Record how long a handler took since the start of a measurement
+     *
+     * @param handler Handler that ran
+     * @param world   World the player is in
+     * @param start   Start of the measurement
+     * @return Start for the next handler
+     */
+    public long record(TickedHandler handler, World world, long start) {
+        if (start == NOT_SAMPLED) return NOT_SAMPLED;
+        long now = System.nanoTime();
+        String worldName = world == null ? "unknown" : world.getName();
+        windows.get(handler).computeIfAbsent(worldName, name -> new TimingWindow(WINDOW_SIZE)).add(now - start);
+        return now;
+    }
+
+    public void reset() {
+        for (Map<String, TimingWindow> worlds : windows.values()) {
+            worlds.clear();
+        }
+    }
+
+    /**
+     * @return Names of the worlds that have timings, sorted
+     */
+    public List<String> getWorlds() {
+        Set<String> worlds = new TreeSet<>();
+        for (Map<String, TimingWindow> perWorld : windows.values()) {
+            worlds.addAll(perWorld.keySet());
+        }
+        return new ArrayList<>(worlds);
+    }
+
+    /**
+     * @param handler Handler to summarize
+     * @param world   World to summarize, or null to combine all worlds
+     * @return Percentiles of the recent samples, or null when there aren't any
+     */
+    public Summary summarize(TickedHandler handler, String world) {
+        List<long[]> parts = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String, TimingWindow> entry : windows.get(handler).entrySet()) {
+            if (world != null && !world.equals(entry.getKey())) continue;
+            parts.add(entry.getValue().sorted());
+            total += entry.getValue().getTotal();
+        }
+
+        int length = 0;
+        for (long[] part : parts) length += part.length;
+        if (length == 0) return null;
+
+        long[] merged = new long[length];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(merged);
+
+        return new Summary(
+                total,
+                TimingWindow.percentile(merged, 0.5),
+                TimingWindow.percentile(merged, 0.95),
+                TimingWindow.percentile(merged, 0.99)
+        );
+    }
+
+    @Getter
+    public static class Summary {
+        private final long samples;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+
+        private Summary(long samples, long p50Nanos, long p95Nanos, long p99Nanos) {
+            this.samples = samples;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "p50 " + (p50Nanos / 1000) + "us, p95 " + (p95Nanos / 1000) + "us, p99 " + (p99Nanos / 1000) + "us (" + samples + " samples)";
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.craftmend.openaudiomc.spigot.modules.players.tick;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the last known location of a player, and decides how much of it has to be evaluated again.
+ * Ticking is driven by the {@link PlayerTickEngine}, which reads the location from the positions it copied on
+ * the main thread.
+ *
+ * Regions, speakers and audio chunks only change per block, so everything around the player only gets evaluated
+ * when it moved to another block or world, or when a tick got forced because something around it changed.
+ * Moving within a block or looking around only fires the move callback, and players that didn't move at all
+ * don't do anything.
+ */
+public class LocationTracker {
+
+    // moving faster than this gets a player ticked every tick, instead of once per track interval
+    private static final double FAST_BLOCKS_PER_TICK = 0.5;
+    private static final double NANOS_PER_TICK = 50_000_000D;
+
+    @Getter private final Player player;
+    // evaluates everything around the player
+    @Getter @Setter private Consumer<Location> callback;
+    // for when the player only moved within its block or looked around
+    @Getter @Setter private Consumer<Location> moveCallback;
+    private final PlayerPosition position = new PlayerPosition();
+    private final PlayerPosition lastPosition = new PlayerPosition();
+    private volatile Location location;
+    private volatile boolean forced = false;
+    private volatile boolean moveForced = false;
+    @Getter private volatile boolean fastMover = false;
+    private long lastTickNanos = 0;
+
+    // shard and position slot this tracker is assigned to, managed by the engine
+    int shard = -1;
+    int slot = -1;
+
+    public LocationTracker(Player player) {
+        this.player = player;
+    }
+
+    Evaluation tick(PositionBuffer positions) {
+        if (callback == null) return Evaluation.SKIPPED;
+        // not captured yet, the player just got added
+        if (!positions.read(slot, player, position)) return Evaluation.SKIPPED;
+
+        boolean known = lastPosition.isKnown();
+        boolean moved = known && !position.isSameAs(lastPosition);
+        boolean otherBlock = known && position.isOtherBlockThan(lastPosition);
+        updateSpeed(known);
+        if (moved || location == null) location = position.toLocation();
+        lastPosition.copy(position);
+
+        if (forced || otherBlock) {
+            forced = false;
+            moveForced = false;
+            callback.accept(location);
+            return Evaluation.PERFORMED;
+        }
+
+        if (moved || moveForced) {
+            moveForced = false;
+            if (moveCallback != null) moveCallback.accept(location);
+            return Evaluation.MOVED;
+        }
+        return Evaluation.SKIPPED;
+    }
+
+    private void updateSpeed(boolean known) {
+        long now = System.nanoTime();
+        if (known && lastTickNanos != 0 && position.getWorld() == lastPosition.getWorld()) {
+            double ticks = Math.max(1, (now - lastTickNanos) / NANOS_PER_TICK);
+            double maxDistance = FAST_BLOCKS_PER_TICK * ticks;
+            fastMover = position.distanceSquared(lastPosition) > maxDistance * maxDistance;
+        } else {
+            fastMover = false;
+        }
+        lastTickNanos = now;
+    }
+
+    /**
+     * The location of the player as of the last tick, shared by everything that handles that tick.
+     * It shouldn't be modified.
+     *
+     * @return Last ticked location, or the live location if the player didn't get ticked yet
+     */
+    public Location getLocation() {
+        Location current = location;
+        return current == null ? player.getLocation() : current;
+    }
+
+    /**
+     * Make sure that everything around the player gets evaluated on the next tick, even if the player didn't move
+     */
+    public void forceTick() {
+        this.forced = true;
+    }
+
+    /**
+     * Make sure that the move callback fires on the next tick, even if the player didn't move
+     */
+    public void forceMoveTick() {
+        this.moveForced = true;
+    }
+
+    enum Evaluation {
+        // everything around the player got evaluated
+        PERFORMED,
+        // only the move callback fired
+        MOVED,
+        // nothing changed
+        SKIPPED
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.craftmend.openaudiomc.spigot.modules.players.tick;
+
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Position of a player as copied by the {@link PositionBuffer}, reused between ticks so reading it doesn't allocate
+ */
+@Getter
+public class PlayerPosition {
+
+    private World world;
+    private double x, y, z;
+    private float yaw, pitch;
+
+    void set(World world, double x, double y, double z, float yaw, float pitch) {
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    void copy(PlayerPosition other) {
+        set(other.world, other.x, other.y, other.z, other.yaw, other.pitch);
+    }
+
+    public boolean isKnown() {
+        return world != null;
+    }
+
+    /**
+     * @return If both positions are the same place and rotation, like {@link Location#equals(Object)} would
+     */
+    public boolean isSameAs(PlayerPosition other) {
+        return world == other.world
+                && Double.doubleToLongBits(x) == Double.doubleToLongBits(other.x)
+                && Double.doubleToLongBits(y) == Double.doubleToLongBits(other.y)
+                && Double.doubleToLongBits(z) == Double.doubleToLongBits(other.z)
+                && Float.floatToIntBits(yaw) == Float.floatToIntBits(other.yaw)
+                && Float.floatToIntBits(pitch) == Float.floatToIntBits(other.pitch);
+    }
+
+    /**
+     * @return If the other position is in another world or block
+     */
+    public boolean isOtherBlockThan(PlayerPosition other) {
+        return world != other.world
+                || floor(x) != floor(other.x)
+                || floor(y) != floor(other.y)
+                || floor(z) != floor(other.z);
+    }
+
+    public double distanceSquared(PlayerPosition other) {
+        double dx = x - other.x;
+        double dy = y - other.y;
+        double dz = z - other.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int floor(double value) {
+        int floor = (int) value;
+        return value < floor ? floor - 1 : floor;
+    }
+
+    public Location toLocation() {
+        return new Location(world, x, y, z, yaw, pitch);
+    }
+
+}
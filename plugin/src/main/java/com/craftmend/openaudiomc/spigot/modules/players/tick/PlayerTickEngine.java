@@ -0,0 +1,208 @@
+package com.craftmend.openaudiomc.spigot.modules.players.tick;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.Histogram;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
+import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the location ticks of all players from a single scheduler task.
+ *
+ * Players get spread over one shard per server tick of the track interval, so with an interval of
+ * two ticks every server tick handles half of the players. The players of a shard get split in fixed
+ * size batches, which run on a small worker pool instead of on a scheduler task per player. Their
+ * positions get copied on the main thread every tick, see {@link PositionBuffer}.
+ *
+ * Players that move faster than a rollercoaster get ticked every tick until they slow down again, regardless
+ * of their shard, so they don't skip over regions and speakers.
+ */
+public class PlayerTickEngine {
+
+    private static final int BATCH_SIZE = 32;
+
+    private final List<Set<LocationTracker>> shards = new ArrayList<>();
+    private final Set<LocationTracker> fastMovers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private final AtomicBoolean ticking = new AtomicBoolean(false);
+    private final int task;
+    private final int captureTask;
+    @Getter private final PositionBuffer positions = new PositionBuffer();
+    private int currentShard = 0;
+
+    @Getter private final int workerCount;
+    @Getter private volatile long lastTickNanos = 0;
+    @Getter private volatile long maxTickNanos = 0;
+    @Getter private volatile int lastTickSize = 0;
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong totalTickNanos = new AtomicLong();
+    private final AtomicLong skippedTicks = new AtomicLong();
+    private final Histogram tickDuration;
+    private final Counter skippedTickCounter;
+    private final Counter performedEvaluations;
+    private final Counter movedEvaluations;
+    private final Counter skippedEvaluations;
+
+    public PlayerTickEngine(int interval) {
+        for (int i = 0; i < Math.max(1, interval); i++) {
+            shards.add(ConcurrentHashMap.newKeySet());
+        }
+
+        this.workerCount = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "OpenAudioMc-PlayerTicker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
+        this.tickDuration = registry.histogram("openaudiomc_player_tick_duration_seconds", "Time it took to tick a shard of players", Histogram.LATENCY_BUCKETS);
+        this.skippedTickCounter = registry.counter("openaudiomc_player_ticks_skipped_total", "Ticks that got skipped because the previous one was still running");
+        registry.gauge("openaudiomc_player_tick_players", "Players that get location ticks", this::getPlayerCount);
+        registry.gauge("openaudiomc_player_tick_fast_movers", "Players that get ticked every tick because they move fast", fastMovers::size);
+        String evaluationHelp = "Player ticks, by if everything around the player got evaluated, only its location got updated or it got skipped";
+        this.performedEvaluations = registry.counter("openaudiomc_player_evaluations_total", evaluationHelp, "result", "performed");
+        this.movedEvaluations = registry.counter("openaudiomc_player_evaluations_total", evaluationHelp, "result", "location_only");
+        this.skippedEvaluations = registry.counter("openaudiomc_player_evaluations_total", evaluationHelp, "result", "skipped");
+
+        TaskService taskService = OpenAudioMc.resolveDependency(TaskService.class);
+        this.captureTask = taskService.scheduleSyncRepeatingTask(positions::capture, 1, 1);
+        this.task = taskService.scheduleAsyncRepeatingTask(this::tick, 1, 1);
+    }
+
+    /**
+     * Start ticking a player, it'll be assigned to the shard with the least players
+     *
+     * @param tracker Tracker to tick
+     */
+    public synchronized void add(LocationTracker tracker) {
+        if (tracker.shard != -1) return;
+        int target = 0;
+        for (int i = 1; i < shards.size(); i++) {
+            if (shards.get(i).size() < shards.get(target).size()) target = i;
+        }
+        tracker.shard = target;
+        tracker.slot = positions.allocate(tracker.getPlayer());
+        shards.get(target).add(tracker);
+    }
+
+    public synchronized void remove(LocationTracker tracker) {
+        if (tracker.shard == -1) return;
+        shards.get(tracker.shard).remove(tracker);
+        fastMovers.remove(tracker);
+        positions.free(tracker.slot);
+        tracker.shard = -1;
+        tracker.slot = -1;
+    }
+
+    private void tick() {
+        // the previous tick is still running, we'd only pile up work by starting another one
+        if (!ticking.compareAndSet(false, true)) {
+            skippedTicks.incrementAndGet();
+            skippedTickCounter.inc();
+            return;
+        }
+
+        try {
+            long start = System.nanoTime();
+            int shardIndex = currentShard;
+            currentShard = (currentShard + 1) % shards.size();
+
+            List<LocationTracker> players = new ArrayList<>(shards.get(shardIndex));
+            for (LocationTracker fastMover : fastMovers) {
+                if (fastMover.shard == -1) {
+                    // got removed while it was being ticked
+                    fastMovers.remove(fastMover);
+                } else if (fastMover.shard != shardIndex) {
+                    players.add(fastMover);
+                }
+            }
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < players.size(); from += BATCH_SIZE) {
+                List<LocationTracker> batch = players.subList(from, Math.min(players.size(), from + BATCH_SIZE));
+                batches.add(CompletableFuture.runAsync(() -> runBatch(batch), workers));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+            long took = System.nanoTime() - start;
+            lastTickNanos = took;
+            lastTickSize = players.size();
+            if (took > maxTickNanos) maxTickNanos = took;
+            ticks.incrementAndGet();
+            totalTickNanos.addAndGet(took);
+            tickDuration.observeNanos(took);
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    private void runBatch(List<LocationTracker> batch) {
+        for (LocationTracker tracker : batch) {
+            try {
+                switch (tracker.tick(positions)) {
+                    case PERFORMED:
+                        performedEvaluations.inc();
+                        break;
+                    case MOVED:
+                        movedEvaluations.inc();
+                        break;
+                    default:
+                        skippedEvaluations.inc();
+                }
+
+                if (tracker.isFastMover()) {
+                    if (tracker.shard != -1) fastMovers.add(tracker);
+                } else {
+                    fastMovers.remove(tracker);
+                }
+            } catch (Exception e) {
+                // one broken player shouldn't stop the rest of the batch
+                OpenAudioLogger.toConsole("Failed to tick " + tracker.getPlayer().getName());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void stop() {
+        OpenAudioMc.resolveDependency(TaskService.class).cancelRepeatingTask(task);
+        OpenAudioMc.resolveDependency(TaskService.class).cancelRepeatingTask(captureTask);
+        workers.shutdownNow();
+        for (Set<LocationTracker> shard : shards) {
+            shard.clear();
+        }
+        fastMovers.clear();
+    }
+
+    public int getPlayerCount() {
+        int count = 0;
+        for (Set<LocationTracker> shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    public long getAverageTickNanos() {
+        long count = ticks.get();
+        return count == 0 ? 0 : totalTickNanos.get() / count;
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks.get();
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.craftmend.openaudiomc.spigot.modules.players.tick;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Positions of all ticked players, copied on the main thread once per tick so the player ticks on the worker
+ * threads don't have to read live entities.
+ *
+ * Every player gets a slot in two frames of primitive arrays. Positions get written into one frame while the
+ * other one is being read, after which they swap. Readers don't lock, they validate their read against the
+ * frame it came from and retry on the other frame when it got written in the meantime. Readers that keep
+ * losing that race take the read lock, instead of spinning.
+ */
+public class PositionBuffer {
+
+    // lock free attempts before a read waits for the capture to finish
+    private static final int OPTIMISTIC_READS = 4;
+
+    // guarded by this, and only ever written from the main thread
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private Player[] players = new Player[16];
+    private int usedSlots = 0;
+    private Frame back = new Frame(16);
+
+    private volatile Frame front = new Frame(16);
+
+    /**
+     * @return Slot of the player, to read its position with
+     */
+    public synchronized int allocate(Player player) {
+        int slot = freeSlots.isEmpty() ? usedSlots++ : freeSlots.pop();
+        if (slot >= players.length) players = Arrays.copyOf(players, players.length * 2);
+        players[slot] = player;
+        return slot;
+    }
+
+    public synchronized void free(int slot) {
+        players[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Copy the positions of all players into the back frame and make it the front, has to run on the main thread
+     */
+    public synchronized void capture() {
+        Frame frame = back.capacity() < players.length ? new Frame(players.length) : back;
+
+        long stamp = frame.lock.writeLock();
+        try {
+            for (int slot = 0; slot < usedSlots; slot++) {
+                Player player = players[slot];
+                frame.players[slot] = player;
+                if (player == null || !player.isOnline()) {
+                    frame.worlds[slot] = null;
+                    continue;
+                }
+
+                player.getLocation(scratch);
+                frame.worlds[slot] = scratch.getWorld();
+                frame.x[slot] = scratch.getX();
+                frame.y[slot] = scratch.getY();
+                frame.z[slot] = scratch.getZ();
+                frame.yaw[slot] = scratch.getYaw();
+                frame.pitch[slot] = scratch.getPitch();
+            }
+        } finally {
+            frame.lock.unlockWrite(stamp);
+        }
+
+        back = front;
+        front = frame;
+    }
+
+    /**
+     * Read the last captured position of a player, safe to call from any thread
+     *
+     * @param slot   Slot of the player
+     * @param player Player the slot was allocated for, slots get reused by other players
+     * @param into   Position to copy it into
+     * @return If the player has a captured position
+     */
+    public boolean read(int slot, Player player, PlayerPosition into) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+            Frame frame = front;
+            long stamp = frame.lock.tryOptimisticRead();
+            // the capture already moved past this frame and is writing it again
+            if (stamp == 0) continue;
+            if (slot < 0 || slot >= frame.capacity()) return false;
+
+            Player owner = frame.players[slot];
+            World world = frame.worlds[slot];
+            double x = frame.x[slot];
+            double y = frame.y[slot];
+            double z = frame.z[slot];
+            float yaw = frame.yaw[slot];
+            float pitch = frame.pitch[slot];
+
+            if (!frame.lock.validate(stamp)) continue;
+            if (owner != player || world == null) return false;
+            into.set(world, x, y, z, yaw, pitch);
+            return true;
+        }
+
+        // a capture keeps getting in the way, wait for it instead of spinning. it only holds the lock
+        // while copying the positions, and we only hold it for a single slot
+        Frame frame = front;
+        long stamp = frame.lock.readLock();
+        try {
+            if (slot < 0 || slot >= frame.capacity()) return false;
+            World world = frame.worlds[slot];
+            if (frame.players[slot] != player || world == null) return false;
+            into.set(world, frame.x[slot], frame.y[slot], frame.z[slot], frame.yaw[slot], frame.pitch[slot]);
+            return true;
+        } finally {
+            frame.lock.unlockRead(stamp);
+        }
+    }
+
+    private static class Frame {
+        private final StampedLock lock = new StampedLock();
+        private final Player[] players;
+        private final World[] worlds;
+        private final double[] x, y, z;
+        private final float[] yaw, pitch;
+
+        private Frame(int capacity) {
+            players = new Player[capacity];
+            worlds = new World[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            z = new double[capacity];
+            yaw = new float[capacity];
+            pitch = new float[capacity];
+        }
+
+        private int capacity() {
+            return worlds.length;
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.craftmend.openaudiomc.spigot.modules.players.tick;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent durations of something, to take percentiles of
+ */
+public class TimingWindow {
+
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+    private long total = 0;
+
+    public TimingWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void add(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+        total++;
+    }
+
+    /**
+     * @return The samples in the window, sorted from fast to slow
+     */
+    public synchronized long[] sorted() {
+        long[] copy = Arrays.copyOf(samples, size);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * @return Amount of samples that were ever added, including the ones that no longer fit in the window
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * @param sorted   Sorted samples
+     * @param fraction Percentile between 0 and 1
+     * @return The nearest ranked sample, or 0 when there are none
+     */
+    public static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+}
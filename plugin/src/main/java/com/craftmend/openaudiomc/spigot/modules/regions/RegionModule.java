@@ -4,6 +4,8 @@ import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.database.DatabaseService;
 import com.craftmend.openaudiomc.generic.media.MediaService;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
 import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
 import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
 import com.craftmend.openaudiomc.spigot.modules.regions.adapters.LegacyRegionAdapter;
@@ -11,10 +13,16 @@ import com.craftmend.openaudiomc.spigot.modules.regions.adapters.ModernRegionAda
 import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.AbstractRegionAdapter;
 import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionMedia;
 import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionProperties;
+import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionShape;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.AudioRegionIndex;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionExpiryQueue;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionLookupCache;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionPlayerIndex;
 import com.craftmend.openaudiomc.spigot.services.server.ServerService;
 import com.craftmend.openaudiomc.spigot.services.server.enums.ServerVersion;
 
 import lombok.Getter;
+import org.bukkit.Location;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -25,6 +33,13 @@ public class RegionModule {
     private final Map<String, RegionProperties> regionPropertiesMap = new HashMap<>();
     private final Map<String, RegionMedia> regionMediaMap = new HashMap<>();
     @Getter private AbstractRegionAdapter regionAdapter;
+    @Getter private final RegionLookupCache lookupCache = new RegionLookupCache(5000, 16384);
+    @Getter private final AudioRegionIndex audioRegionIndex = new AudioRegionIndex();
+    @Getter private final RegionPlayerIndex playerIndex = new RegionPlayerIndex();
+    @Getter private final RegionExpiryQueue expiryQueue = new RegionExpiryQueue();
+    private final boolean usePriority = OpenAudioMc.getInstance().getConfiguration().getBoolean(StorageKey.SETTINGS_USE_WG_PRIORITY);
+    private volatile boolean audioIndexSupported = false;
+    private boolean loaded = false;
 
     public RegionModule(@Nullable AbstractRegionAdapter customAdapter) {
         OpenAudioLogger.toConsole("Turns out you have WorldGuard installed! enabling regions and the region tasks..");
@@ -61,20 +76,103 @@ public class RegionModule {
         });
 
         this.regionAdapter.postLoad();
+        loaded = true;
+        refreshAudioRegions();
+
+        // other plugins can change regions through the worldguard api without us knowing
+        OpenAudioMc.resolveDependency(TaskService.class).scheduleSyncRepeatingTask(this::refreshAudioRegions, 20 * 60, 20 * 60);
+
+        // all temporary regions expire from this one task
+        OpenAudioMc.resolveDependency(TaskService.class).scheduleSyncRepeatingTask(() -> expiryQueue.expire(System.currentTimeMillis()), 1, 1);
     }
 
     public void registerRegion(String id, RegionProperties propperties) {
         regionPropertiesMap.put(id, propperties);
+        if (loaded) refreshAudioRegion(id);
+        lookupCache.invalidate();
     }
 
     public void removeRegion(String id) {
         regionPropertiesMap.remove(id);
+        audioRegionIndex.update(id, Collections.emptyList());
+        lookupCache.invalidate();
+    }
+
+    /**
+     * Look up the shapes of all regions with audio again, after regions or worlds changed
+     */
+    public void refreshAudioRegions() {
+        // look everything up before touching the index, so lookups never see a half refreshed state
+        Map<String, List<RegionShape>> shapesByRegion = new HashMap<>();
+        boolean supported = true;
+        for (String id : new ArrayList<>(regionPropertiesMap.keySet())) {
+            List<RegionShape> shapes = regionAdapter.getRegionShapes(id);
+            if (shapes == null) {
+                supported = false;
+                break;
+            }
+            shapesByRegion.put(id, shapes);
+        }
+
+        if (supported) audioRegionIndex.replace(shapesByRegion);
+        audioIndexSupported = supported;
+        lookupCache.invalidate();
+    }
+
+    /**
+     * The index only knows where regions are, so it can't be used when worldguard priorities have to be compared
+     * with regions that don't have audio, or when the global region has audio.
+     *
+     * @return If audio regions can be looked up from the audio region index
+     */
+    public boolean isAudioIndexUsable() {
+        return audioIndexSupported && !usePriority && !regionPropertiesMap.containsKey("__global__");
+    }
+
+    private void refreshAudioRegion(String id) {
+        List<RegionShape> shapes = regionAdapter.getRegionShapes(id);
+        if (shapes == null) {
+            // the adapter can't tell us, keep asking it for regions at locations instead
+            audioIndexSupported = false;
+            return;
+        }
+        audioRegionIndex.update(id, shapes);
+    }
+
+    /**
+     * Make the players that are affected by a change to a region look up their regions again, on their next tick.
+     * Those are the players that were in it, and when it (still) has audio, the players that are standing in it.
+     * Has to be called from the main thread.
+     *
+     * @param id Region that got created, changed or removed
+     */
+    public void updatePlayersIn(String id) {
+        Set<SpigotConnection> affected = new HashSet<>(playerIndex.getPlayersIn(id));
+
+        if (regionPropertiesMap.containsKey(id)) {
+            if (audioIndexSupported) {
+                List<RegionShape> shapes = audioRegionIndex.getShapes(id);
+                for (SpigotConnection client : OpenAudioMc.getService(SpigotPlayerService.class).getClients()) {
+                    if (isInside(client.getBukkitPlayer().getLocation(), shapes)) affected.add(client);
+                }
+            } else {
+                // we don't know where the region is, so everyone could have walked into it
+                affected.addAll(OpenAudioMc.getService(SpigotPlayerService.class).getClients());
+            }
+        }
+
+        for (SpigotConnection client : affected) {
+            client.getLocationTracker().forceTick();
+        }
     }
 
-    public void forceUpdateRegions() {
-        for (SpigotConnection client : OpenAudioMc.getService(SpigotPlayerService.class).getClients()) {
-            if (client.getRegionHandler() != null) client.getRegionHandler().tick();
+    private boolean isInside(Location location, List<RegionShape> shapes) {
+        if (location.getWorld() == null) return false;
+        for (RegionShape shape : shapes) {
+            if (shape.getWorld().equals(location.getWorld().getName())
+                    && shape.contains(location.getBlockX(), location.getBlockY(), location.getBlockZ())) return true;
         }
+        return false;
     }
 
     public RegionMedia getRegionMedia(String source, int volume, int fadeTimeMs) {
@@ -87,5 +185,7 @@ public class RegionModule {
     public void removeRegionMedia(String id, String source) {
         regionMediaMap.remove(source);
         regionPropertiesMap.remove(id);
+        audioRegionIndex.update(id, Collections.emptyList());
+        lookupCache.invalidate();
     }
 }
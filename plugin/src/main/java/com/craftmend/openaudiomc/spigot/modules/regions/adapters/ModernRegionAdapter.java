@@ -5,7 +5,9 @@ import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
 import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
 import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.AbstractRegionAdapter;
 import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.ApiRegion;
+import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionShape;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
 import com.sk89q.worldguard.protection.managers.RegionManager;
@@ -16,6 +18,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -78,4 +82,35 @@ public class ModernRegionAdapter extends AbstractRegionAdapter {
     public void postLoad() {
         booted = true;
     }
+
+    @Override
+    public List<RegionShape> getRegionShapes(String name) {
+        try {
+            List<RegionShape> shapes = new ArrayList<>();
+            RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+            for (World world : Bukkit.getWorlds()) {
+                RegionManager manager = container.get(BukkitAdapter.adapt(world));
+                if (manager == null) continue;
+                ProtectedRegion region = manager.getRegion(name);
+                if (region != null) shapes.add(toShape(world.getName(), region));
+            }
+            return shapes;
+        } catch (Exception | LinkageError e) {
+            // a worldguard build we don't know, keep asking it for the regions at locations instead
+            return null;
+        }
+    }
+
+    /**
+     * Worldguard 7 uses the newer worldedit vectors for its bounds. Polygons and other shapes are only partially
+     * filled within their bounds, so those get checked by worldguard itself, which only checks the points of the region.
+     */
+    private RegionShape toShape(String world, ProtectedRegion region) {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        return new RegionShape(region.getId(), world, region.getPriority(),
+                min.getBlockX(), min.getBlockY(), min.getBlockZ(),
+                max.getBlockX(), max.getBlockY(), max.getBlockZ(),
+                region::contains);
+    }
 }
@@ -1,6 +1,7 @@
 package com.craftmend.openaudiomc.spigot.modules.regions.interfaces;
 
 import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
+import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionShape;
 import org.bukkit.Location;
 
 import java.util.*;
@@ -60,4 +61,16 @@ public abstract class AbstractRegionAdapter extends RegionAdapterBase {
     }
 
     public abstract void postLoad();
+
+    /**
+     * Optional, find the shapes of a region in every world it exists in. This lets OpenAudioMc keep its own index
+     * of regions with audio, so it doesn't have to ask for every region at a location and filter those.
+     * Adapters that return null get asked for the regions at a location instead.
+     *
+     * @param name A region name (lowercase)
+     * @return The shapes of the region, empty when it doesn't exist
+     */
+    public List<RegionShape> getRegionShapes(String name) {
+        return null;
+    }
 }
@@ -21,9 +21,32 @@ public abstract class RegionAdapterBase {
     }
 
     public List<IRegion> getAudioRegions(Location location) {
+        return regionModule.getLookupCache().get(
+                location.getWorld().getName(),
+                location.getBlockX(),
+                location.getBlockY(),
+                location.getBlockZ(),
+                () -> resolveAudioRegions(location)
+        );
+    }
+
+    private List<IRegion> resolveAudioRegions(Location location) {
+        Collection<? extends ApiRegion> candidates;
+        if (regionModule.isAudioIndexUsable()) {
+            // only the regions with audio, without asking the region plugin
+            candidates = regionModule.getAudioRegionIndex().query(
+                    location.getWorld().getName(),
+                    location.getBlockX(),
+                    location.getBlockY(),
+                    location.getBlockZ()
+            );
+        } else {
+            candidates = selfInjected.getRegionsAtLocation(location);
+        }
+
         List<IRegion> regions = new ArrayList<>();
         int prio = 0;
-        for (ApiRegion r : selfInjected.getRegionsAtLocation(location)) {
+        for (ApiRegion r : candidates) {
             if (regionModule.getRegionPropertiesMap().get(r.getName()) == null) continue;
             if (r.getPriority() > prio) {
                 prio = r.getPriority();
@@ -0,0 +1,66 @@
+package com.craftmend.openaudiomc.spigot.modules.regions.listeners;
+
+import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
+import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * WorldGuard doesn't fire events when regions get created, redefined or removed, so we watch
+ * for its commands instead and look up the audio regions again once they've been handled.
+ */
+public class WorldGuardCommandListener implements Listener {
+
+    private static final Set<String> REGION_COMMANDS = new HashSet<>(Arrays.asList(
+            "rg", "region", "regions", "wg", "worldguard"
+    ));
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        refresh();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        refresh();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        handle(event.getMessage().startsWith("/") ? event.getMessage().substring(1) : event.getMessage());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        handle(event.getCommand().startsWith("/") ? event.getCommand().substring(1) : event.getCommand());
+    }
+
+    private void handle(String command) {
+        String label = command.split(" ", 2)[0].toLowerCase(Locale.ROOT);
+        if (label.startsWith("worldguard:")) label = label.substring("worldguard:".length());
+        if (!REGION_COMMANDS.contains(label)) return;
+
+        // the command itself only runs after this event, so refresh on the next tick
+        refresh();
+    }
+
+    private void refresh() {
+        // worlds are only gone once their unload event is over, so this waits a tick too
+        Bukkit.getScheduler().runTask(OpenAudioMcSpigot.getInstance(), () -> {
+            RegionModule regionModule = OpenAudioMcSpigot.getInstance().getRegionModule();
+            if (regionModule != null) regionModule.refreshAudioRegions();
+        });
+    }
+
+}
@@ -22,7 +22,7 @@ public class RegionProperties extends DataStore {
 
     public void updateMedia(String regionName) {
         OpenAudioMcSpigot.getInstance().getRegionModule().removeRegionMedia(regionName, source);
-        OpenAudioMcSpigot.getInstance().getRegionModule().getRegionPropertiesMap().put(regionName, this);
+        OpenAudioMcSpigot.getInstance().getRegionModule().registerRegion(regionName, this);
     }
 
     public Media getMedia() {
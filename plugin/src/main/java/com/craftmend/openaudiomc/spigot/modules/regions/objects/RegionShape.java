@@ -0,0 +1,40 @@
+package com.craftmend.openaudiomc.spigot.modules.regions.objects;
+
+import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.ApiRegion;
+import lombok.Getter;
+
+/**
+ * Bounds and shape of a region in a single world, used by the {@link com.craftmend.openaudiomc.spigot.modules.regions.utils.AudioRegionIndex}
+ */
+public class RegionShape implements ApiRegion {
+
+    @Getter private final String name;
+    @Getter private final String world;
+    @Getter private final int priority;
+    @Getter private final int minX, minY, minZ;
+    @Getter private final int maxX, maxY, maxZ;
+    private final BlockTest blockTest;
+
+    public RegionShape(String name, String world, int priority, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockTest blockTest) {
+        this.name = name;
+        this.world = world;
+        this.priority = priority;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.blockTest = blockTest;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) return false;
+        return blockTest.contains(x, y, z);
+    }
+
+    public interface BlockTest {
+        boolean contains(int x, int y, int z);
+    }
+
+}
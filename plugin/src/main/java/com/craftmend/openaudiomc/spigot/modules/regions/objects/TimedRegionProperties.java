@@ -1,14 +1,13 @@
 package com.craftmend.openaudiomc.spigot.modules.regions.objects;
 
-import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.media.objects.Media;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
-import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
-import org.bukkit.Bukkit;
+import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionExpiryQueue;
 
 public class TimedRegionProperties extends RegionProperties {
 
-    private int task = -1;
+    private RegionExpiryQueue.Expiry expiry;
     private String id;
     private Media media;
 
@@ -20,26 +19,22 @@ public class TimedRegionProperties extends RegionProperties {
         super(source, volume, fadeTimeMs, true, regionName);
         this.id = id;
 
-        this.task = Bukkit.getScheduler().scheduleAsyncDelayedTask(OpenAudioMcSpigot.getInstance(), () -> {
-            OpenAudioMcSpigot.getInstance().getRegionModule().removeRegion(this.id);
-            forceUpdateClients();
-        }, 20 * timeInSeconds);
+        RegionModule regionModule = OpenAudioMcSpigot.getInstance().getRegionModule();
+        this.expiry = regionModule.getExpiryQueue().schedule(System.currentTimeMillis() + (timeInSeconds * 1000L), () -> {
+            // it might have been replaced in the meantime
+            if (regionModule.getRegionPropertiesMap().get(this.id) != this) return;
+            regionModule.removeRegion(this.id);
+            regionModule.updatePlayersIn(this.id);
+        });
 
         this.media = new RegionMedia(source, volume, fadeTimeMs);
         this.media.setLoop(false);
-        forceUpdateClients();
-    }
-
-    private void forceUpdateClients() {
-        OpenAudioMc.getService(SpigotPlayerService.class).getClients()
-                .stream()
-                .filter(client -> client.getRegions().stream().anyMatch(region -> region.getId().equals(id)))
-                .forEach(client -> client.getLocationDataWatcher().forceTicK());
     }
 
     public void destroy() {
-        Bukkit.getScheduler().cancelTask(task);
-        forceUpdateClients();
+        RegionModule regionModule = OpenAudioMcSpigot.getInstance().getRegionModule();
+        regionModule.getExpiryQueue().cancel(expiry);
+        regionModule.updatePlayersIn(id);
     }
 
     @Override
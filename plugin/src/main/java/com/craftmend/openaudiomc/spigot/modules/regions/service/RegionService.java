@@ -2,6 +2,7 @@ package com.craftmend.openaudiomc.spigot.modules.regions.service;
 
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
 import com.craftmend.openaudiomc.spigot.modules.regions.RegionModule;
+import com.craftmend.openaudiomc.spigot.modules.regions.listeners.WorldGuardCommandListener;
 import com.craftmend.openaudiomc.spigot.services.dependency.DependencyHandler;
 import lombok.AllArgsConstructor;
 import org.bukkit.plugin.Plugin;
@@ -14,5 +15,6 @@ public class RegionService implements DependencyHandler {
     @Override
     public void onLoad(String pluginName, Plugin plugin) {
         spigot.setRegionModule(new RegionModule(null));
+        spigot.registerEvents(new WorldGuardCommandListener());
     }
 }
@@ -0,0 +1,142 @@
+package com.craftmend.openaudiomc.spigot.modules.regions.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionShape;
+
+import java.util.*;
+
+/**
+ * Keeps the bounds of only the regions that have audio, so looking up the audio regions at a location
+ * doesn't depend on how many other regions the server has.
+ *
+ * Every world has an interval tree over the x axis of its audio regions, the other axes and the exact shape are
+ * checked for the regions whose x range contains the location. Regions get updated one by one when their
+ * properties or shape change, which only rebuilds the trees of the worlds that region is in. Trees are immutable
+ * once published, so lookups can happen from any thread.
+ */
+public class AudioRegionIndex {
+
+    // guarded by this
+    private final Map<String, List<RegionShape>> shapesByRegion = new HashMap<>();
+    private volatile Map<String, IntervalTree> worlds = Collections.emptyMap();
+
+    /**
+     * Replace the shapes of a region
+     *
+     * @param name   Region name
+     * @param shapes The shapes of the region in every world it exists in, empty to remove it
+     */
+    public synchronized void update(String name, List<RegionShape> shapes) {
+        List<RegionShape> previous = shapes.isEmpty() ? shapesByRegion.remove(name) : shapesByRegion.put(name, new ArrayList<>(shapes));
+
+        Set<String> changedWorlds = new HashSet<>();
+        if (previous != null) previous.forEach(shape -> changedWorlds.add(shape.getWorld()));
+        shapes.forEach(shape -> changedWorlds.add(shape.getWorld()));
+        if (changedWorlds.isEmpty()) return;
+
+        Map<String, IntervalTree> updated = new HashMap<>(worlds);
+        for (String world : changedWorlds) {
+            List<RegionShape> inWorld = new ArrayList<>();
+            for (List<RegionShape> regionShapes : shapesByRegion.values()) {
+                for (RegionShape shape : regionShapes) {
+                    if (shape.getWorld().equals(world)) inWorld.add(shape);
+                }
+            }
+            if (inWorld.isEmpty()) {
+                updated.remove(world);
+            } else {
+                updated.put(world, new IntervalTree(inWorld));
+            }
+        }
+        worlds = updated;
+    }
+
+    /**
+     * Replace all regions at once, lookups keep using the old trees until the new ones are built
+     *
+     * @param regions Shapes of every region, by region name
+     */
+    public synchronized void replace(Map<String, List<RegionShape>> regions) {
+        shapesByRegion.clear();
+        Map<String, List<RegionShape>> shapesByWorld = new HashMap<>();
+        regions.forEach((name, shapes) -> {
+            if (shapes.isEmpty()) return;
+            shapesByRegion.put(name, new ArrayList<>(shapes));
+            for (RegionShape shape : shapes) {
+                shapesByWorld.computeIfAbsent(shape.getWorld(), world -> new ArrayList<>()).add(shape);
+            }
+        });
+
+        Map<String, IntervalTree> updated = new HashMap<>();
+        shapesByWorld.forEach((world, shapes) -> updated.put(world, new IntervalTree(shapes)));
+        worlds = updated;
+    }
+
+    public synchronized void clear() {
+        shapesByRegion.clear();
+        worlds = Collections.emptyMap();
+    }
+
+    /**
+     * @return The audio regions that contain the block, in no particular order
+     */
+    public List<RegionShape> query(String world, int x, int y, int z) {
+        List<RegionShape> found = new ArrayList<>();
+        IntervalTree tree = worlds.get(world);
+        if (tree != null) tree.query(0, tree.shapes.length, x, y, z, found);
+        return found;
+    }
+
+    /**
+     * @return The shapes of a region, empty when it isn't indexed
+     */
+    public synchronized List<RegionShape> getShapes(String name) {
+        List<RegionShape> shapes = shapesByRegion.get(name);
+        return shapes == null ? Collections.emptyList() : new ArrayList<>(shapes);
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (List<RegionShape> shapes : shapesByRegion.values()) {
+            size += shapes.size();
+        }
+        return size;
+    }
+
+    /**
+     * Shapes sorted by their min x, stored as an implicit balanced tree where the middle of every range is its root.
+     * Every node knows the highest max x in its subtree, so whole subtrees that end before the location get skipped.
+     */
+    private static class IntervalTree {
+        private final RegionShape[] shapes;
+        private final int[] subtreeMaxX;
+
+        private IntervalTree(List<RegionShape> unsorted) {
+            shapes = unsorted.toArray(new RegionShape[0]);
+            Arrays.sort(shapes, Comparator.comparingInt(RegionShape::getMinX));
+            subtreeMaxX = new int[shapes.length];
+            build(0, shapes.length);
+        }
+
+        private int build(int from, int to) {
+            if (from >= to) return Integer.MIN_VALUE;
+            int mid = (from + to) >>> 1;
+            int max = Math.max(shapes[mid].getMaxX(), Math.max(build(from, mid), build(mid + 1, to)));
+            subtreeMaxX[mid] = max;
+            return max;
+        }
+
+        private void query(int from, int to, int x, int y, int z, List<RegionShape> found) {
+            if (from >= to) return;
+            int mid = (from + to) >>> 1;
+            // nothing in this subtree reaches the location
+            if (subtreeMaxX[mid] < x) return;
+
+            query(from, mid, x, y, z, found);
+            // everything right of here starts after the location
+            if (shapes[mid].getMinX() > x) return;
+            if (shapes[mid].contains(x, y, z)) found.add(shapes[mid]);
+            query(mid + 1, to, x, y, z, found);
+        }
+    }
+
+}
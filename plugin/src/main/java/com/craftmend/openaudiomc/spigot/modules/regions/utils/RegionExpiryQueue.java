@@ -0,0 +1,68 @@
+package com.craftmend.openaudiomc.spigot.modules.regions.utils;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Expires temporary regions from a single queue, ordered by when they expire, so the region module only needs
+ * one task to handle all of them instead of every temporary region scheduling its own.
+ */
+public class RegionExpiryQueue {
+
+    private final PriorityQueue<Expiry> queue = new PriorityQueue<>(Comparator.comparingLong(Expiry::getExpiresAt));
+
+    /**
+     * @param expiresAt Epoch millis at which it should expire
+     * @param onExpire  Ran when it expires, from the thread that calls {@link #expire(long)}
+     * @return Entry that can be cancelled
+     */
+    public synchronized Expiry schedule(long expiresAt, Runnable onExpire) {
+        Expiry expiry = new Expiry(expiresAt, onExpire);
+        queue.add(expiry);
+        return expiry;
+    }
+
+    public synchronized void cancel(Expiry expiry) {
+        queue.remove(expiry);
+    }
+
+    /**
+     * Run everything that expired at or before the given time
+     *
+     * @param now Epoch millis
+     * @return Amount of expired entries
+     */
+    public int expire(long now) {
+        List<Expiry> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!queue.isEmpty() && queue.peek().getExpiresAt() <= now) {
+                expired.add(queue.poll());
+            }
+        }
+
+        // outside of the lock, because these tend to schedule or cancel other entries
+        for (Expiry expiry : expired) {
+            expiry.onExpire.run();
+        }
+        return expired.size();
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public static class Expiry {
+        @Getter private final long expiresAt;
+        private final Runnable onExpire;
+
+        private Expiry(long expiresAt, Runnable onExpire) {
+            this.expiresAt = expiresAt;
+            this.onExpire = onExpire;
+        }
+    }
+
+}
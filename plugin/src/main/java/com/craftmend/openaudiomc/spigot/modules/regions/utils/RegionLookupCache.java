@@ -0,0 +1,96 @@
+package com.craftmend.openaudiomc.spigot.modules.regions.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.IRegion;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches resolved audio regions per world and block position.
+ *
+ * Players tend to stand on the same handful of blocks for a long time, and every region tick
+ * would otherwise run a full WorldGuard query for that same block again. Entries get dropped when
+ * regions or their properties change, and expire after a short while regardless, because WorldGuard
+ * doesn't tell us about regions that get changed through its api by other plugins.
+ */
+public class RegionLookupCache {
+
+    private final long expireAfterMillis;
+    private final int maxEntriesPerWorld;
+    private final Map<String, Map<Long, CachedRegions>> worlds = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RegionLookupCache(long expireAfterMillis, int maxEntriesPerWorld) {
+        this.expireAfterMillis = expireAfterMillis;
+        this.maxEntriesPerWorld = maxEntriesPerWorld;
+    }
+
+    /**
+     * Get the audio regions at a block, or resolve and cache them when they aren't known yet
+     *
+     * @param world    World name
+     * @param x        Block X
+     * @param y        Block Y
+     * @param z        Block Z
+     * @param resolver Resolves the regions when there's no valid cache entry
+     * @return A copy of the regions, so callers can modify it freely
+     */
+    public List<IRegion> get(String world, int x, int y, int z, Supplier<List<IRegion>> resolver) {
+        Map<Long, CachedRegions> cells = worlds.computeIfAbsent(world, w -> new ConcurrentHashMap<>());
+        long key = blockKey(x, y, z);
+        long now = System.currentTimeMillis();
+
+        CachedRegions cached = cells.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            hits.incrementAndGet();
+            return new ArrayList<>(cached.regions);
+        }
+
+        misses.incrementAndGet();
+        List<IRegion> regions = resolver.get();
+
+        // wandering players fill this up over time, just start over instead of tracking usage
+        if (cells.size() >= maxEntriesPerWorld) cells.clear();
+        cells.put(key, new CachedRegions(new ArrayList<>(regions), now + expireAfterMillis));
+        return new ArrayList<>(regions);
+    }
+
+    public void invalidate() {
+        worlds.clear();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Long, CachedRegions> cells : worlds.values()) {
+            size += cells.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    // same layout as minecraft's packed block positions, 26 bits for x and z and 12 for y
+    private static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    @AllArgsConstructor
+    private static class CachedRegions {
+        private final List<IRegion> regions;
+        private final long expiresAt;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.craftmend.openaudiomc.spigot.modules.regions.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
+import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.IRegion;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Knows which players are in which audio region, as last detected by their region handler.
+ *
+ * This way a region that changes or expires only has to update the players that are in it, instead of making
+ * every player on the server look up its regions again.
+ */
+public class RegionPlayerIndex {
+
+    private final Map<String, Set<SpigotConnection>> playersByRegion = new ConcurrentHashMap<>();
+
+    /**
+     * Move a player from the regions it was in to the regions it's in now
+     *
+     * @param connection Player
+     * @param previous   Regions the player was in
+     * @param current    Regions the player is in now
+     */
+    public void update(SpigotConnection connection, Collection<IRegion> previous, Collection<IRegion> current) {
+        Set<String> currentIds = new HashSet<>();
+        for (IRegion region : current) {
+            currentIds.add(region.getId());
+        }
+
+        for (IRegion region : previous) {
+            if (!currentIds.contains(region.getId())) remove(connection, region.getId());
+        }
+
+        for (String id : currentIds) {
+            playersByRegion.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+    }
+
+    /**
+     * Forget a player, for when it left or its regions got reset
+     *
+     * @param connection Player
+     * @param regions    Regions the player was in
+     */
+    public void removePlayer(SpigotConnection connection, Collection<IRegion> regions) {
+        for (IRegion region : regions) {
+            remove(connection, region.getId());
+        }
+    }
+
+    /**
+     * @return A copy of the players that are in a region
+     */
+    public Set<SpigotConnection> getPlayersIn(String region) {
+        Set<SpigotConnection> players = playersByRegion.get(region);
+        if (players == null) return Collections.emptySet();
+        return new HashSet<>(players);
+    }
+
+    private void remove(SpigotConnection connection, String region) {
+        playersByRegion.computeIfPresent(region, (key, players) -> {
+            players.remove(connection);
+            return players.isEmpty() ? null : players;
+        });
+    }
+
+}
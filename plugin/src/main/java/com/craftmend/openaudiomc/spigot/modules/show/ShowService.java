@@ -4,11 +4,13 @@ import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.service.Inject;
 import com.craftmend.openaudiomc.generic.service.Service;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
+import com.craftmend.openaudiomc.spigot.modules.show.engine.ShowScheduler;
 import com.craftmend.openaudiomc.spigot.modules.show.interfaces.ShowRunnable;
 import com.craftmend.openaudiomc.spigot.modules.show.objects.Show;
 import com.craftmend.openaudiomc.spigot.modules.show.runnables.ActionBarRunnable;
 import com.craftmend.openaudiomc.spigot.modules.show.runnables.ChatRunnable;
 import com.craftmend.openaudiomc.spigot.modules.show.runnables.CommandRunnable;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.bukkit.World;
 
@@ -26,6 +28,7 @@ public class ShowService extends Service {
 
     private final Map<String, Class<?>> taskTypes = new HashMap<>();
     private final Map<String, Show> showCache = new HashMap<>();
+    @Getter private final ShowScheduler scheduler = new ShowScheduler();
 
     @Override
     public void onEnable() {
@@ -35,6 +38,12 @@ public class ShowService extends Service {
         taskTypes.put("actionbar", ActionBarRunnable.class);
     }
 
+    @Override
+    public void onDisable() {
+        // stops the scheduler threads, and any show that's still running
+        scheduler.shutdown();
+    }
+
     public void addTask(String name, Class<?> executor) {
         taskTypes.put(name.toLowerCase(), executor);
     }
@@ -0,0 +1,92 @@
+package com.craftmend.openaudiomc.spigot.modules.show.engine;
+
+import com.craftmend.openaudiomc.spigot.modules.show.objects.ShowCue;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A single run of a show, registered with the {@link ShowScheduler}.
+ *
+ * Cues are sorted by their timestamp once, and a cursor points at the next one that's due. Show time
+ * is always calculated from the start time minus the time spent paused, so late wake-ups never push
+ * back the cues that come after them.
+ */
+public class ShowRun {
+
+    private final ShowCue[] cues;
+    @Getter private final long endTime;
+    private final Consumer<ShowRun> onFinish;
+
+    // everything below is guarded by the scheduler lock
+    private final long startedAt = System.nanoTime();
+    private long pausedAt = -1;
+    private long pausedFor = 0;
+    int cursor = 0;
+    boolean executing = false;
+    boolean cancelled = false;
+    @Getter private volatile int executedCues = 0;
+
+    ShowRun(Collection<ShowCue> cues, long endTime, Consumer<ShowRun> onFinish) {
+        List<ShowCue> sorted = new ArrayList<>(cues);
+        sorted.sort(Comparator.comparingLong(ShowCue::getTimestamp));
+        this.cues = sorted.toArray(new ShowCue[0]);
+        this.endTime = endTime;
+        this.onFinish = onFinish;
+    }
+
+    /**
+     * @return Show time in milliseconds, excluding the time spent paused
+     */
+    public synchronized long getElapsedMillis() {
+        return elapsedMillis(System.nanoTime());
+    }
+
+    public synchronized boolean isPaused() {
+        return pausedAt != -1;
+    }
+
+    synchronized long elapsedMillis(long now) {
+        long end = pausedAt == -1 ? now : pausedAt;
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt - pausedFor);
+    }
+
+    synchronized void pause(long now) {
+        if (pausedAt == -1) pausedAt = now;
+    }
+
+    synchronized void resume(long now) {
+        if (pausedAt == -1) return;
+        pausedFor += now - pausedAt;
+        pausedAt = -1;
+    }
+
+    /**
+     * @return Show time of the next thing that needs to happen, being the next cue or the end of the show
+     */
+    long nextDueTime() {
+        return cursor < cues.length ? cues[cursor].getTimestamp() : endTime;
+    }
+
+    boolean hasRemainingCues() {
+        return cursor < cues.length;
+    }
+
+    ShowCue cueAt(int index) {
+        return cues[index];
+    }
+
+    void markExecuted() {
+        executedCues++;
+    }
+
+    void finish() {
+        onFinish.accept(this);
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.craftmend.openaudiomc.spigot.modules.show.engine;
+
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.spigot.modules.show.objects.ShowCue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the cues of all active shows from a single dispatcher thread and a small fixed worker pool.
+ *
+ * The dispatcher sleeps until the earliest cue of any running show is due, hands the due cues of a show
+ * to a worker as one batch, and goes back to sleep. Cues of the same show always run in order, because a
+ * show doesn't get a new batch until its previous one finished. Starting, pausing, resuming or stopping
+ * a show only wakes the dispatcher up, nothing has to be rescheduled.
+ */
+public class ShowScheduler {
+
+    private static final int WORKER_THREADS = 2;
+
+    private final Object lock = new Object();
+    private final List<ShowRun> runs = new ArrayList<>();
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public ShowScheduler() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "OpenAudioMc-ShowWorker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.dispatcher = new Thread(this::dispatch, "OpenAudioMc-ShowScheduler");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Start running a set of cues
+     *
+     * @param cues     Cues to run, in any order
+     * @param endTime  Show time at which the run is done
+     * @param onFinish Called when the run reached its end time, but not when it got stopped
+     * @return The run, used to pause, resume or stop it
+     */
+    public ShowRun start(Collection<ShowCue> cues, long endTime, Consumer<ShowRun> onFinish) {
+        ShowRun run = new ShowRun(cues, endTime, onFinish);
+        synchronized (lock) {
+            runs.add(run);
+            lock.notifyAll();
+        }
+        return run;
+    }
+
+    public void pause(ShowRun run) {
+        synchronized (lock) {
+            run.pause(System.nanoTime());
+            lock.notifyAll();
+        }
+    }
+
+    public void resume(ShowRun run) {
+        synchronized (lock) {
+            run.resume(System.nanoTime());
+            lock.notifyAll();
+        }
+    }
+
+    public void stop(ShowRun run) {
+        synchronized (lock) {
+            run.cancelled = true;
+            runs.remove(run);
+            lock.notifyAll();
+        }
+    }
+
+    public int getActiveRuns() {
+        synchronized (lock) {
+            return runs.size();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        synchronized (lock) {
+            runs.clear();
+            lock.notifyAll();
+        }
+        workers.shutdownNow();
+    }
+
+    private void dispatch() {
+        synchronized (lock) {
+            while (running) {
+                long now = System.nanoTime();
+                long sleepMillis = Long.MAX_VALUE;
+
+                Iterator<ShowRun> iterator = runs.iterator();
+                while (iterator.hasNext()) {
+                    ShowRun run = iterator.next();
+                    // paused runs get woken up by resume, busy ones by their worker
+                    if (run.isPaused() || run.executing) continue;
+
+                    long elapsed = run.elapsedMillis(now);
+                    int from = run.cursor;
+                    while (run.hasRemainingCues() && run.cueAt(run.cursor).getTimestamp() <= elapsed) {
+                        run.cursor++;
+                    }
+
+                    if (run.cursor > from) {
+                        run.executing = true;
+                        int to = run.cursor;
+                        workers.execute(() -> executeBatch(run, from, to));
+                        continue;
+                    }
+
+                    if (!run.hasRemainingCues() && elapsed >= run.getEndTime()) {
+                        iterator.remove();
+                        workers.execute(run::finish);
+                        continue;
+                    }
+
+                    sleepMillis = Math.min(sleepMillis, Math.max(1, run.nextDueTime() - elapsed));
+                }
+
+                try {
+                    if (sleepMillis == Long.MAX_VALUE) {
+                        lock.wait();
+                    } else {
+                        lock.wait(sleepMillis);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void executeBatch(ShowRun run, int from, int to) {
+        try {
+            for (int i = from; i < to; i++) {
+                synchronized (lock) {
+                    if (run.cancelled || !running) return;
+                }
+                ShowCue cue = run.cueAt(i);
+                try {
+                    run.markExecuted();
+                    cue.getTask().run();
+                } catch (Exception e) {
+                    OpenAudioLogger.toConsole("A show cue failed to execute (" + cue.getId() + ")");
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                run.executing = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+}
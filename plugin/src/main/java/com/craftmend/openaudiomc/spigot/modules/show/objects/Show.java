@@ -3,6 +3,9 @@ package com.craftmend.openaudiomc.spigot.modules.show.objects;
 import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
+import com.craftmend.openaudiomc.spigot.modules.show.ShowService;
+import com.craftmend.openaudiomc.spigot.modules.show.engine.ShowRun;
+import com.craftmend.openaudiomc.spigot.modules.show.engine.ShowScheduler;
 import com.craftmend.openaudiomc.spigot.modules.show.interfaces.ShowRunnable;
 import lombok.Getter;
 
@@ -12,22 +15,16 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 
 public class Show {
 
     @Getter private final String showName;
     @Getter private final Set<ShowCue> cueList = new HashSet<>();
-    private transient ScheduledExecutorService showTimer = null;
-    private transient Instant startedAt = null;
+    private transient volatile ShowRun currentRun = null;
+    private transient ShowRun lastRun = null;
     @Getter private transient boolean isLooping = false;
-    @Getter private transient int eventsProcessed = 0;
     @Getter private Long lastTaskTime = 1L;
 
     public Show(String showName) {
@@ -56,7 +53,15 @@ public class Show {
     }
 
     public boolean isRunning() {
-        return showTimer != null;
+        return currentRun != null;
+    }
+
+    public boolean isPaused() {
+        return currentRun != null && currentRun.isPaused();
+    }
+
+    public int getEventsProcessed() {
+        return lastRun == null ? 0 : lastRun.getExecutedCues();
     }
 
     public void start() {
@@ -68,47 +73,41 @@ public class Show {
         start(true);
     }
 
-    public void start(boolean fromLoop) {
+    public synchronized void start(boolean fromLoop) {
         if (isRunning()) return;
         lastTaskTime = 1L;
-        eventsProcessed = 0;
-
-        showTimer = Executors.newScheduledThreadPool(1);
-
-        for (ShowCue cue : cueList) {
-            showTimer.schedule(() ->{
-                eventsProcessed++;
-                cue.getTask().run();
-            }, cue.getTimestamp(), TimeUnit.MILLISECONDS);
-        }
-
         updateLastTime();
 
-        // schedule a task every second for progress
-        int seconds = Math.toIntExact(lastTaskTime / 1000);
-        IntStream.range(1, seconds).forEach(i -> {
-            showTimer.schedule(() -> {
-                //
-            }, i * 1000, TimeUnit.MILLISECONDS);
+        // finishes one tick after the last cue
+        ShowRun run = getScheduler().start(cueList, lastTaskTime + 50, finished -> {
+            synchronized (this) {
+                // the run might have been stopped and replaced in the meantime
+                if (currentRun != finished) return;
+                currentRun = null;
+            }
+            if (isLooping) start(true);
         });
+        currentRun = run;
+        lastRun = run;
+    }
 
-        // one tick after it ended
-        showTimer.schedule(() -> {
-            stop();
-            if (isLooping) start(true);
-        }, lastTaskTime + 50, TimeUnit.MILLISECONDS);
-        startedAt = Instant.now();
+    public synchronized void pause() {
+        if (currentRun != null) getScheduler().pause(currentRun);
+    }
+
+    public synchronized void resume() {
+        if (currentRun != null) getScheduler().resume(currentRun);
     }
 
     public String currentFrameAsString() {
-        Long millis = Duration.between(startedAt, Instant.now()).toMillis();
+        long millis = getElapsedMillis();
         return String.format("%02d:%02d:%02d", TimeUnit.MILLISECONDS.toHours(millis),
                 TimeUnit.MILLISECONDS.toMinutes(millis) - TimeUnit.HOURS.toMinutes(TimeUnit.MILLISECONDS.toHours(millis)),
                 TimeUnit.MILLISECONDS.toSeconds(millis) - TimeUnit.MINUTES.toSeconds(TimeUnit.MILLISECONDS.toMinutes(millis)));
     }
 
     public String getTimeRemainingAsString() {
-        Long millis = getLastTaskTime() - Duration.between(startedAt, Instant.now()).toMillis();
+        long millis = getLastTaskTime() - getElapsedMillis();
         return String.format("%02d:%02d:%02d", TimeUnit.MILLISECONDS.toHours(millis),
                 TimeUnit.MILLISECONDS.toMinutes(millis) - TimeUnit.HOURS.toMinutes(TimeUnit.MILLISECONDS.toHours(millis)),
                 TimeUnit.MILLISECONDS.toSeconds(millis) - TimeUnit.MINUTES.toSeconds(TimeUnit.MILLISECONDS.toMinutes(millis)));
@@ -124,9 +123,19 @@ public class Show {
         isLooping = false;
     }
 
-    public void stop() {
-        showTimer.shutdownNow();
-        showTimer = null;
+    public synchronized void stop() {
+        if (currentRun == null) return;
+        getScheduler().stop(currentRun);
+        currentRun = null;
+    }
+
+    private long getElapsedMillis() {
+        ShowRun run = currentRun;
+        return run == null ? 0 : run.getElapsedMillis();
+    }
+
+    private ShowScheduler getScheduler() {
+        return OpenAudioMc.getService(ShowService.class).getScheduler();
     }
 
     public Show save() {
@@ -19,16 +19,16 @@ public class SpeakerCollector {
     private SpeakerService speakerService;
 
     public Collection<ApplicableSpeaker> getApplicableSpeakers(Location location, boolean safe) {
-        List<Speaker> applicableSpeakers = new ArrayList<>(speakerService.getSpeakerMap().values());
         Collection<ApplicableSpeaker> speakers = new ArrayList<>();
-
-        applicableSpeakers.removeIf(speaker -> {
-            if (speaker == null) return true;
-            if (speaker.getLocation() == null && !safe) return true;
-            if (!speaker.getLocation().getWorld().equals(location.getWorld().getName())) return true;
-            if (speaker.getLocation().toBukkit().distance(location) > speaker.getRadius()) return true;
-            return false;
-        });
+        if (location.getWorld() == null) return speakers;
+
+        // only visits the chunks within the max speaker radius, instead of every speaker on the server
+        List<Speaker> applicableSpeakers = speakerService.getSpeakerIndex().query(
+                location.getWorld().getName(),
+                location.getX(),
+                location.getY(),
+                location.getZ()
+        );
 
         applicableSpeakers.forEach(speaker -> {
             speakers.add(new ApplicableSpeaker(
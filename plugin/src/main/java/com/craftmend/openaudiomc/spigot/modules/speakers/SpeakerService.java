@@ -4,19 +4,30 @@ import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.database.DatabaseService;
 import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
 import com.craftmend.openaudiomc.generic.media.MediaService;
+import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
 import com.craftmend.openaudiomc.generic.service.Inject;
 import com.craftmend.openaudiomc.generic.service.Service;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
+import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
+import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
 import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.interfaces.SpeakerRegionHost;
 import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
 import com.craftmend.openaudiomc.spigot.services.world.interfaces.IRayTracer;
 import com.craftmend.openaudiomc.spigot.modules.speakers.listeners.SpeakerSelectListener;
 import com.craftmend.openaudiomc.spigot.modules.speakers.objects.*;
-import com.craftmend.openaudiomc.spigot.modules.speakers.tasks.SpeakerGarbageCollection;
-import com.craftmend.openaudiomc.spigot.services.world.tracing.EstimatedRayTracer;
+import com.craftmend.openaudiomc.spigot.modules.speakers.tasks.SpeakerValidator;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerClusters;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerIndex;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegionLoader;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegistry;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.VoxelRayTracer;
 import com.craftmend.openaudiomc.spigot.services.server.ServerService;
 import com.craftmend.openaudiomc.spigot.services.server.enums.ServerVersion;
 import com.craftmend.openaudiomc.spigot.modules.speakers.listeners.SpeakerCreateListener;
 import com.craftmend.openaudiomc.spigot.modules.speakers.listeners.SpeakerDestroyListener;
+import com.craftmend.openaudiomc.spigot.modules.speakers.listeners.SpeakerRegionListener;
+import com.craftmend.openaudiomc.spigot.modules.speakers.listeners.SpeakerValidationListener;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,23 +36,23 @@ import org.bukkit.*;
 import java.util.*;
 
 @NoArgsConstructor
-public class SpeakerService extends Service {
+public class SpeakerService extends Service implements SpeakerRegionHost {
 
     @Inject
     private OpenAudioMcSpigot openAudioMcSpigot;
 
-    @Inject
-    private DatabaseService databaseService;
-
     @Getter private SpeakerCollector collector;
 
     public static final SpeakerType DEFAULT_SPEAKER_TYPE = SpeakerType.SPEAKER_3D;
-    @Getter private final Map<MappedLocation, Speaker> speakerMap = new HashMap<>();
-    private final Map<String, SpeakerMedia> speakerMediaMap = new HashMap<>();
+    @Getter private final SpeakerRegistry registry = new SpeakerRegistry();
+    @Getter private final SpeakerIndex speakerIndex = new SpeakerIndex();
     @Getter private Material playerSkullItem;
     @Getter private Material playerSkullBlock;
     @Getter private ServerVersion version;
-    private final EstimatedRayTracer estimatedRayTracer = new EstimatedRayTracer();
+    @Getter private SpeakerValidator validator;
+    @Getter private SpeakerRegionLoader regionLoader;
+    @Getter private SpeakerClusters clusters;
+    private final VoxelRayTracer rayTracer = new VoxelRayTracer();
 
     @Override
     public void onEnable() {
@@ -52,26 +63,26 @@ public class SpeakerService extends Service {
         );
 
         collector = new SpeakerCollector(this);
+        clusters = new SpeakerClusters(speakerIndex, () -> registry.getSnapshot().getVersion(), StorageKey.SETTINGS_SPEAKER_CLUSTER_RADIUS.getInt());
 
         initializeVersion();
 
-        // load all apeakers
-        for (Speaker speaker : databaseService.getRepository(Speaker.class).values()) {
-            registerSpeaker(speaker);
-        }
+        // check speakers as their chunks load, instead of sweeping all of them
+        validator = new SpeakerValidator(this);
+        openAudioMcSpigot.registerEvents(new SpeakerValidationListener(this));
 
-        // setup garbage system
-        new SpeakerGarbageCollection(this);
+        // load speakers per region as their chunks load, instead of loading all of them
+        TaskService taskService = OpenAudioMc.resolveDependency(TaskService.class);
+        regionLoader = new SpeakerRegionLoader(this, taskService::runAsync, taskService::runSync);
+        openAudioMcSpigot.registerEvents(new SpeakerRegionListener(regionLoader));
+        regionLoader.loadLoadedChunks();
 
         // reset with new addon
-        OpenAudioMc.getService(MediaService.class).getResetTriggers().add(() -> {
-            speakerMediaMap.clear();
-        });
+        OpenAudioMc.getService(MediaService.class).getResetTriggers().add(registry::clearMedia);
     }
 
     public IRayTracer getRayTracer() {
-        // provide a default ray tracer, just use the simple one for now
-        return estimatedRayTracer;
+        return rayTracer;
     }
 
     private void initializeVersion() {
@@ -100,25 +111,133 @@ public class SpeakerService extends Service {
     }
 
     public Speaker registerSpeaker(Speaker speaker) {
-        if (speaker.getLocation() == null) {
-            OpenAudioLogger.toConsole("WARNING! Registering speaker with nil location " + speaker.getSpeakerId());
-        }
-        speakerMap.put(speaker.getLocation(), speaker);
+        registerSpeakers(Collections.singletonList(speaker));
         return speaker;
     }
 
+    /**
+     * Register a batch of speakers, readers will see all of them appear at once
+     */
+    public void registerSpeakers(Collection<Speaker> speakers) {
+        if (speakers.isEmpty()) return;
+        for (Speaker speaker : speakers) {
+            if (speaker.getLocation() == null) {
+                OpenAudioLogger.toConsole("WARNING! Registering speaker with nil location " + speaker.getSpeakerId());
+            }
+        }
+
+        List<Speaker> replaced = registry.putAll(speakers);
+        for (Speaker previous : replaced) {
+            speakerIndex.remove(previous);
+            regionLoader.untrack(previous);
+        }
+        for (Speaker speaker : speakers) {
+            speakerIndex.add(speaker);
+            regionLoader.track(speaker);
+        }
+        // the index changed after the registry did, don't let clusters that were build in between stick around
+        registry.markChanged();
+        updatePlayersNear(speakers);
+        updatePlayersNear(replaced);
+    }
+
+    @Override
+    public Collection<Speaker> queryRegion(String region) {
+        return OpenAudioMc.getService(DatabaseService.class)
+                .getRepository(Speaker.class)
+                .valuesWhere("region", region);
+    }
+
+    @Override
+    public void registerLoadedSpeakers(Collection<Speaker> speakers) {
+        registerSpeakers(speakers);
+        for (Speaker speaker : speakers) {
+            MappedLocation location = speaker.getLocation();
+            validator.queueChunk(location.getWorld(), location.getX() >> 4, location.getZ() >> 4);
+        }
+    }
+
+    /**
+     * @return A read only view of all loaded speakers, which won't change while it's being used
+     */
+    public Map<MappedLocation, Speaker> getSpeakerMap() {
+        return registry.getSnapshot().getSpeakers();
+    }
+
+    @Override
     public Speaker getSpeaker(MappedLocation location) {
-        return speakerMap.get(location);
+        return registry.getSnapshot().getSpeaker(location);
     }
 
     public SpeakerMedia getMedia(String source) {
-        if (speakerMediaMap.containsKey(source)) return speakerMediaMap.get(source);
-        SpeakerMedia speakerMedia = new SpeakerMedia(source);
-        speakerMediaMap.put(source, speakerMedia);
-        return speakerMedia;
+        return registry.getMedia(source, SpeakerMedia::new);
+    }
+
+    public void updateRadius(Speaker speaker, int radius) {
+        // players in the old radius might not hear it anymore
+        updatePlayersNear(Collections.singletonList(speaker));
+        speaker.setRadius(radius);
+        speakerIndex.updateRadius(speaker);
+        registry.markChanged();
+        updatePlayersNear(Collections.singletonList(speaker));
+    }
+
+    /**
+     * Let clusters know a speaker changed its type or options
+     */
+    public void markChanged() {
+        registry.markChanged();
     }
 
     public void unlistSpeaker(MappedLocation location) {
-        speakerMap.remove(location);
+        unlistSpeakers(Collections.singletonList(location));
+    }
+
+    @Override
+    public void unlistSpeakers(Collection<MappedLocation> locations) {
+        List<Speaker> removed = registry.removeAll(locations);
+        if (removed.isEmpty()) return;
+        for (Speaker speaker : removed) {
+            speakerIndex.remove(speaker);
+            regionLoader.untrack(speaker);
+        }
+        registry.markChanged();
+        updatePlayersNear(removed);
+    }
+
+    /**
+     * Players only evaluate their speakers when they move to another block, so the ones that are within
+     * range of changed speakers get their next tick forced
+     */
+    private void updatePlayersNear(Collection<Speaker> speakers) {
+        // per world, the bounds of where these speakers can be heard
+        Map<String, int[]> bounds = new HashMap<>();
+        for (Speaker speaker : speakers) {
+            MappedLocation location = speaker.getLocation();
+            if (location == null) continue;
+            int radius = speaker.getRadius() == null ? 0 : speaker.getRadius();
+            int[] worldBounds = bounds.computeIfAbsent(location.getWorld(), world -> new int[]{
+                    Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                    Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE
+            });
+            worldBounds[0] = Math.min(worldBounds[0], location.getX() - radius);
+            worldBounds[1] = Math.min(worldBounds[1], location.getY() - radius);
+            worldBounds[2] = Math.min(worldBounds[2], location.getZ() - radius);
+            worldBounds[3] = Math.max(worldBounds[3], location.getX() + radius);
+            worldBounds[4] = Math.max(worldBounds[4], location.getY() + radius);
+            worldBounds[5] = Math.max(worldBounds[5], location.getZ() + radius);
+        }
+        if (bounds.isEmpty()) return;
+
+        for (SpigotConnection client : OpenAudioMc.getService(SpigotPlayerService.class).getClients()) {
+            Location location = client.getLocationTracker().getLocation();
+            if (location.getWorld() == null) continue;
+            int[] worldBounds = bounds.get(location.getWorld().getName());
+            if (worldBounds == null) continue;
+            if (location.getBlockX() >= worldBounds[0] && location.getBlockY() >= worldBounds[1] && location.getBlockZ() >= worldBounds[2]
+                    && location.getBlockX() <= worldBounds[3] && location.getBlockY() <= worldBounds[4] && location.getBlockZ() <= worldBounds[5]) {
+                client.getLocationTracker().forceTick();
+            }
+        }
     }
 }
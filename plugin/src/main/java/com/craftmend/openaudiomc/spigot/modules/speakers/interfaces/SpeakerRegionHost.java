@@ -0,0 +1,24 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.interfaces;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+
+import java.util.Collection;
+
+/**
+ * What the {@link com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegionLoader} loads speakers from,
+ * and registers them with
+ */
+public interface SpeakerRegionHost {
+
+    // every stored speaker in a region, called from an async thread
+    Collection<Speaker> queryRegion(String region);
+
+    Speaker getSpeaker(MappedLocation location);
+
+    // register speakers that got loaded from storage
+    void registerLoadedSpeakers(Collection<Speaker> speakers);
+
+    void unlistSpeakers(Collection<MappedLocation> locations);
+
+}
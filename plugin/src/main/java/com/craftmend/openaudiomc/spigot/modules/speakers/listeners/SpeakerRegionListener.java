@@ -0,0 +1,32 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.listeners;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegionLoader;
+import lombok.AllArgsConstructor;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+@AllArgsConstructor
+public class SpeakerRegionListener implements Listener {
+
+    private final SpeakerRegionLoader regionLoader;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        regionLoader.onChunkLoad(event.getWorld().getName(), event.getChunk().getX(), event.getChunk().getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        regionLoader.onChunkUnload(event.getWorld().getName(), event.getChunk().getX(), event.getChunk().getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        regionLoader.onWorldUnload(event.getWorld().getName());
+    }
+
+}
@@ -5,6 +5,7 @@ import com.craftmend.openaudiomc.generic.database.DatabaseService;
 import com.craftmend.openaudiomc.generic.environment.MagicValue;
 import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
 import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
+import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
 import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
 import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
 import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
@@ -69,6 +70,7 @@ public class SpeakerMenu extends Menu {
                     } else {
                         speaker.getExtraOptions().add(setting);
                     }
+                    OpenAudioMc.getService(SpeakerService.class).markChanged();
 
                     OpenAudioMc.getService(DatabaseService.class)
                             .getRepository(Speaker.class)
@@ -114,6 +116,7 @@ public class SpeakerMenu extends Menu {
         // maybe remove in the future? don't think its used anywhere.
         item.onClick((clicker, clickedItem) -> {
             speaker.setSpeakerType(nextSelectableMode);
+            OpenAudioMc.getService(SpeakerService.class).markChanged();
             new SpeakerMenu(speaker).openFor(clicker);
 
             // trigger re-render for everyone in the area
@@ -159,7 +162,7 @@ public class SpeakerMenu extends Menu {
                 )
                 .onClick((player, item) -> {
                     if (distance == speaker.getRadius()) return;
-                    speaker.setRadius(distance);
+                    OpenAudioMc.getService(SpeakerService.class).updateRadius(speaker, distance);
                     OpenAudioMc.getService(DatabaseService.class)
                             .getRepository(Speaker.class)
                             .save(speaker);
@@ -2,16 +2,27 @@ package com.craftmend.openaudiomc.spigot.modules.speakers.objects;
 
 import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
 import com.craftmend.openaudiomc.spigot.services.world.Vector3;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 
 @Data
-@AllArgsConstructor
 public class ApplicableSpeaker {
 
     private Speaker speaker;
     private SpeakerType speakerType;
     private Vector3 location;
+    // amount of placed speakers this one stands in for, more than one when it's a cluster
+    private int clusterSize = 1;
+
+    public ApplicableSpeaker(Speaker speaker, SpeakerType speakerType, Vector3 location) {
+        this.speaker = speaker;
+        this.speakerType = speakerType;
+        this.location = location;
+    }
+
+    public ApplicableSpeaker(Speaker speaker, SpeakerType speakerType, Vector3 location, int clusterSize) {
+        this(speaker, speakerType, location);
+        this.clusterSize = clusterSize;
+    }
 
     @Override
     public boolean equals(Object otherSpeaker) {
@@ -5,6 +5,7 @@ import com.craftmend.openaudiomc.generic.database.internal.DataStore;
 import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
 import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
 import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegionLoader;
 import com.craftmend.storm.api.markers.Column;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -37,6 +38,9 @@ public class Speaker extends DataStore {
     )
     @Getter private Set<ExtraSpeakerOptions> extraOptions = new HashSet<>();
 
+    // world and region file of the speaker, so speakers can be loaded per region
+    @Column @Getter private String region;
+
     @Getter @Setter private Boolean validated = false;
 
 
@@ -47,6 +51,12 @@ public class Speaker extends DataStore {
         this.location = location;
         this.speakerType = speakerType;
         this.extraOptions = options;
+        updateRegion();
+    }
+
+    public void updateRegion() {
+        if (location == null || location.getWorld() == null) return;
+        this.region = SpeakerRegionLoader.regionKey(location.getWorld(), location.getX() >> 4, location.getZ() >> 4);
     }
 
     public SpeakerMedia getMedia() {
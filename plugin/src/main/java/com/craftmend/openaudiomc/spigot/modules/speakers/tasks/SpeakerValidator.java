@@ -0,0 +1,177 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.tasks;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.database.DatabaseService;
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
+import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
+import com.craftmend.openaudiomc.generic.storage.enums.GcStrategy;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
+import com.craftmend.openaudiomc.spigot.modules.speakers.SpeakerService;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerUtils;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks if speakers still have their skull, chunk by chunk.
+ *
+ * Chunks get queued when they load or when something happens to a speaker block, and are checked on the
+ * main thread during the next ticks, a limited amount of speakers per tick. A chunk that doesn't fit in a tick
+ * gets picked up again where it stopped during the next one. Speakers that passed don't get
+ * checked again until something happens to their block, so a chunk without changes costs an index lookup.
+ */
+public class SpeakerValidator {
+
+    private static final int SPEAKERS_PER_TICK = 250;
+
+    private final SpeakerService speakerService;
+    // only touched from the main thread
+    private final Set<ChunkRef> queuedChunks = new LinkedHashSet<>();
+
+    private final AtomicInteger validatedThisMinute = new AtomicInteger();
+    private final AtomicInteger removedThisMinute = new AtomicInteger();
+    @Getter private volatile int validatedLastMinute = 0;
+    @Getter private volatile int removedLastMinute = 0;
+    private final Counter validatedCounter;
+    private final Counter removedCounter;
+
+    public SpeakerValidator(SpeakerService speakerService) {
+        this.speakerService = speakerService;
+
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
+        validatedCounter = registry.counter("openaudiomc_speakers_validated_total", "Speakers that got checked for their skull");
+        removedCounter = registry.counter("openaudiomc_speakers_removed_total", "Speakers that got removed because their skull was gone");
+
+        TaskService taskService = OpenAudioMc.resolveDependency(TaskService.class);
+        taskService.scheduleSyncRepeatingTask(this::processQueue, 1, 1);
+        taskService.scheduleAsyncRepeatingTask(() -> {
+            removedLastMinute = removedThisMinute.getAndSet(0);
+            validatedLastMinute = validatedThisMinute.getAndSet(0);
+            if (removedLastMinute != 0) {
+                OpenAudioLogger.toConsole("The speaker validator found and processed " + removedLastMinute + " broken speakers");
+            }
+        }, 20 * 60, 20 * 60);
+    }
+
+    /**
+     * Check the speakers in a chunk during one of the next ticks, has to be called from the main thread
+     */
+    public void queueChunk(String world, int chunkX, int chunkZ) {
+        queuedChunks.add(new ChunkRef(world, chunkX, chunkZ));
+    }
+
+    /**
+     * Check a speaker again, because something happened to its block. Has to be called from the main thread
+     */
+    public void invalidate(Speaker speaker) {
+        speaker.setValidated(false);
+        MappedLocation location = speaker.getLocation();
+        queueChunk(location.getWorld(), location.getX() >> 4, location.getZ() >> 4);
+    }
+
+    /**
+     * Check every single speaker in the database right now, loading their chunks if needed.
+     * This can load an insane amount of chunks, so it's only used when explicitly asked for.
+     */
+    public void validateAll() {
+        Collection<Speaker> speakers = OpenAudioMc.getService(DatabaseService.class).getRepository(Speaker.class).values();
+        for (Speaker speaker : speakers) {
+            MappedLocation location = speaker.getLocation();
+            if (!hasValidWorld(speaker)) {
+                OpenAudioLogger.toConsole("Speaker " + speaker.getSpeakerId() + " doesn't have a valid location or world, so it's being removed");
+                remove(speaker);
+                continue;
+            }
+
+            World world = Bukkit.getWorld(location.getWorld());
+            if (!world.isChunkLoaded(location.getX() >> 4, location.getZ() >> 4)) {
+                OpenAudioLogger.toConsole("Loading chunk " + (location.getX() >> 4) + ", " + (location.getZ() >> 4) + " for a forced speaker check...");
+                if (!world.loadChunk(location.getX() >> 4, location.getZ() >> 4, false)) {
+                    OpenAudioLogger.toConsole("Failed to load chunk! please try again later...");
+                    continue;
+                }
+            }
+
+            // its region might be loaded already, in which case that's the copy that should be marked
+            Speaker loaded = speakerService.getSpeaker(location);
+            validate(loaded == null ? speaker : loaded);
+        }
+    }
+
+    public int getQueuedChunks() {
+        return queuedChunks.size();
+    }
+
+    private void processQueue() {
+        int budget = SPEAKERS_PER_TICK;
+        Iterator<ChunkRef> iterator = queuedChunks.iterator();
+        while (budget > 0 && iterator.hasNext()) {
+            ChunkRef chunk = iterator.next();
+
+            World world = Bukkit.getWorld(chunk.world);
+            // it'll be queued again when it loads
+            if (world == null || !world.isChunkLoaded(chunk.x, chunk.z)) {
+                iterator.remove();
+                continue;
+            }
+
+            for (Speaker speaker : speakerService.getSpeakerIndex().getSpeakersInChunk(chunk.world, chunk.x, chunk.z)) {
+                // out of budget halfway through, the chunk stays queued and the next tick skips what passed already
+                if (budget <= 0) return;
+                if (speaker.getValidated()) continue;
+                validate(speaker);
+                budget--;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void validate(Speaker speaker) {
+        validatedThisMinute.incrementAndGet();
+        validatedCounter.inc();
+        if (!SpeakerUtils.isSpeakerSkull(speaker.getLocation().getBlock())) {
+            remove(speaker);
+        } else {
+            speaker.setValidated(true);
+        }
+    }
+
+    private boolean hasValidWorld(Speaker speaker) {
+        MappedLocation location = speaker.getLocation();
+        return location != null && location.getWorld() != null && Bukkit.getWorld(location.getWorld()) != null;
+    }
+
+    private void remove(Speaker speaker) {
+        GcStrategy strategy = GcStrategy.valueOf(StorageKey.SETTINGS_GC_STRATEGY.getString());
+        if (strategy == GcStrategy.DELETE) {
+            OpenAudioMc.getService(DatabaseService.class)
+                    .getRepository(Speaker.class)
+                    .delete(speaker);
+        }
+        if (speaker.getLocation() != null) speakerService.unlistSpeaker(speaker.getLocation());
+        removedThisMinute.incrementAndGet();
+        removedCounter.inc();
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class ChunkRef {
+        private final String world;
+        private final int x;
+        private final int z;
+    }
+
+}
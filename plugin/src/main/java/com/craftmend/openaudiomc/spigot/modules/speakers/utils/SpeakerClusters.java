@@ -0,0 +1,174 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.ApplicableSpeaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.services.world.Vector3;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Merges speakers that play the same source with the same settings, and are close to each other, into one speaker
+ * for the client.
+ *
+ * Speakers get grouped by a grid with cells of the cluster radius, so a cluster never depends on where the player
+ * is standing and doesn't change as they walk around. A cluster gets send as a speaker in the center of its
+ * members, with a radius that covers all of them, and an id based on its cell so it stays the same player to player.
+ * Clusters are built when they're first needed, and thrown away when any speaker changes.
+ * Speakers that process obstructions are never merged, because their obstructions depend on their exact location.
+ */
+public class SpeakerClusters {
+
+    private final SpeakerIndex speakerIndex;
+    private final LongSupplier versionSupplier;
+    private final int clusterRadius;
+    private volatile ClusterCache cache;
+
+    /**
+     * @param speakerIndex    Index to find speakers in a cell
+     * @param versionSupplier Version of the speaker registry, clusters get rebuild when it changes
+     * @param clusterRadius   Size of a cluster cell in blocks, 0 or lower disables clustering
+     */
+    public SpeakerClusters(SpeakerIndex speakerIndex, LongSupplier versionSupplier, int clusterRadius) {
+        this.speakerIndex = speakerIndex;
+        this.versionSupplier = versionSupplier;
+        this.clusterRadius = clusterRadius;
+        this.cache = new ClusterCache(versionSupplier.getAsLong());
+    }
+
+    public boolean isEnabled() {
+        return clusterRadius > 0;
+    }
+
+    /**
+     * Replace speakers that are part of a cluster with their cluster
+     *
+     * @param speakers Speakers in range of a player
+     * @return Speakers and clusters in range, every cluster only once
+     */
+    public Collection<ApplicableSpeaker> cluster(Collection<ApplicableSpeaker> speakers) {
+        if (!isEnabled() || speakers.size() < 2) return speakers;
+
+        ClusterCache current = currentCache();
+        List<ApplicableSpeaker> clustered = new ArrayList<>(speakers.size());
+        Set<ClusterKey> added = new HashSet<>();
+        for (ApplicableSpeaker speaker : speakers) {
+            ClusterKey key = keyOf(speaker.getSpeaker());
+            if (key == null) {
+                clustered.add(speaker);
+                continue;
+            }
+
+            Optional<ApplicableSpeaker> cluster = current.clusters.computeIfAbsent(key, this::buildCluster);
+            if (!cluster.isPresent()) {
+                // alone in its cell
+                clustered.add(speaker);
+            } else if (added.add(key)) {
+                clustered.add(cluster.get());
+            }
+        }
+        return clustered;
+    }
+
+    private ClusterCache currentCache() {
+        ClusterCache current = cache;
+        long version = versionSupplier.getAsLong();
+        if (current.version != version) {
+            current = new ClusterCache(version);
+            cache = current;
+        }
+        return current;
+    }
+
+    private ClusterKey keyOf(Speaker speaker) {
+        MappedLocation location = speaker.getLocation();
+        if (location == null || speaker.getSource() == null || speaker.getRadius() == null) return null;
+        if (ExtraSpeakerOptions.PROCESS_OBSTRUCTIONS.isEnabledFor(speaker)) return null;
+        return new ClusterKey(
+                location.getWorld(),
+                speaker.getSource(),
+                speaker.getSpeakerType().name(),
+                new TreeSet<>(speaker.getExtraOptions()).toString(),
+                Math.floorDiv(location.getX(), clusterRadius),
+                Math.floorDiv(location.getY(), clusterRadius),
+                Math.floorDiv(location.getZ(), clusterRadius)
+        );
+    }
+
+    private Optional<ApplicableSpeaker> buildCluster(ClusterKey key) {
+        List<Speaker> members = new ArrayList<>();
+        int minChunkX = (key.cellX * clusterRadius) >> 4;
+        int maxChunkX = ((key.cellX + 1) * clusterRadius - 1) >> 4;
+        int minChunkZ = (key.cellZ * clusterRadius) >> 4;
+        int maxChunkZ = ((key.cellZ + 1) * clusterRadius - 1) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                for (Speaker speaker : speakerIndex.getSpeakersInChunk(key.world, chunkX, chunkZ)) {
+                    if (key.equals(keyOf(speaker))) members.add(speaker);
+                }
+            }
+        }
+        if (members.size() < 2) return Optional.empty();
+
+        double x = 0, y = 0, z = 0;
+        for (Speaker member : members) {
+            x += member.getLocation().getX();
+            y += member.getLocation().getY();
+            z += member.getLocation().getZ();
+        }
+        Vector3 center = new Vector3(x / members.size(), y / members.size(), z / members.size());
+
+        // big enough to reach everywhere any of the members could be heard
+        double radius = 0;
+        for (Speaker member : members) {
+            MappedLocation location = member.getLocation();
+            double dx = location.getX() - center.getX();
+            double dy = location.getY() - center.getY();
+            double dz = location.getZ() - center.getZ();
+            radius = Math.max(radius, member.getRadius() + Math.sqrt(dx * dx + dy * dy + dz * dz));
+        }
+
+        Speaker first = members.get(0);
+        Speaker emitter = new Speaker(
+                first.getSource(),
+                UUID.nameUUIDFromBytes(key.id().getBytes(StandardCharsets.UTF_8)),
+                (int) Math.ceil(radius),
+                new MappedLocation((int) Math.floor(center.getX()), (int) Math.floor(center.getY()), (int) Math.floor(center.getZ()), key.world),
+                first.getSpeakerType(),
+                first.getExtraOptions().isEmpty() ? EnumSet.noneOf(ExtraSpeakerOptions.class) : EnumSet.copyOf(first.getExtraOptions())
+        );
+        return Optional.of(new ApplicableSpeaker(emitter, emitter.getSpeakerType(), center, members.size()));
+    }
+
+    private static class ClusterCache {
+        private final long version;
+        private final Map<ClusterKey, Optional<ApplicableSpeaker>> clusters = new ConcurrentHashMap<>();
+
+        private ClusterCache(long version) {
+            this.version = version;
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class ClusterKey {
+        private final String world;
+        private final String source;
+        private final String type;
+        private final String options;
+        private final int cellX;
+        private final int cellY;
+        private final int cellZ;
+
+        private String id() {
+            return world + ":" + source + ":" + type + ":" + options + ":" + cellX + ":" + cellY + ":" + cellZ;
+        }
+    }
+
+}
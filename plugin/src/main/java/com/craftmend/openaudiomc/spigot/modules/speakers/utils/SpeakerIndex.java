@@ -0,0 +1,123 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-world chunk grid of all registered speakers.
+ * Speakers get bucketed by the chunk they're placed in, so a lookup only has to visit
+ * the chunks that fall within the largest known speaker radius around the query point,
+ * instead of going through every speaker on the server.
+ */
+public class SpeakerIndex {
+
+    private static final int CELL_SHIFT = 4;
+
+    private final Map<String, Map<Long, Set<Speaker>>> worlds = new ConcurrentHashMap<>();
+
+    // only ever grows, a stale (too large) value is safe and just means a few extra cells get visited
+    @Getter private volatile int maxRadius = 0;
+
+    public void add(Speaker speaker) {
+        MappedLocation location = speaker.getLocation();
+        if (location == null || location.getWorld() == null) return;
+
+        worlds.computeIfAbsent(location.getWorld(), w -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cellKey(location.getX() >> CELL_SHIFT, location.getZ() >> CELL_SHIFT), k -> ConcurrentHashMap.newKeySet())
+                .add(speaker);
+
+        updateRadius(speaker);
+    }
+
+    public void remove(Speaker speaker) {
+        MappedLocation location = speaker.getLocation();
+        if (location == null || location.getWorld() == null) return;
+
+        Map<Long, Set<Speaker>> cells = worlds.get(location.getWorld());
+        if (cells == null) return;
+
+        long key = cellKey(location.getX() >> CELL_SHIFT, location.getZ() >> CELL_SHIFT);
+        Set<Speaker> cell = cells.get(key);
+        if (cell == null) return;
+        cell.remove(speaker);
+        if (cell.isEmpty()) cells.remove(key, cell);
+    }
+
+    public void updateRadius(Speaker speaker) {
+        Integer radius = speaker.getRadius();
+        if (radius != null && radius > maxRadius) {
+            synchronized (this) {
+                if (radius > maxRadius) maxRadius = radius;
+            }
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+        maxRadius = 0;
+    }
+
+    /**
+     * Find all speakers in a world whose radius covers the given point
+     *
+     * @param world World name
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     * @param z     Z coordinate
+     * @return Speakers in range, in no particular order
+     */
+    public List<Speaker> query(String world, double x, double y, double z) {
+        List<Speaker> found = new ArrayList<>();
+        Map<Long, Set<Speaker>> cells = worlds.get(world);
+        if (cells == null || cells.isEmpty()) return found;
+
+        int range = maxRadius;
+        int minCellX = ((int) Math.floor(x - range)) >> CELL_SHIFT;
+        int maxCellX = ((int) Math.floor(x + range)) >> CELL_SHIFT;
+        int minCellZ = ((int) Math.floor(z - range)) >> CELL_SHIFT;
+        int maxCellZ = ((int) Math.floor(z + range)) >> CELL_SHIFT;
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Set<Speaker> cell = cells.get(cellKey(cellX, cellZ));
+                if (cell == null) continue;
+                for (Speaker speaker : cell) {
+                    if (isInRange(speaker, x, y, z)) found.add(speaker);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * @return All speakers that are placed in a chunk, as a copy
+     */
+    public List<Speaker> getSpeakersInChunk(String world, int chunkX, int chunkZ) {
+        Map<Long, Set<Speaker>> cells = worlds.get(world);
+        if (cells == null) return new ArrayList<>();
+        Set<Speaker> cell = cells.get(cellKey(chunkX, chunkZ));
+        return cell == null ? new ArrayList<>() : new ArrayList<>(cell);
+    }
+
+    public static boolean isInRange(Speaker speaker, double x, double y, double z) {
+        MappedLocation location = speaker.getLocation();
+        double dx = location.getX() - x;
+        double dy = location.getY() - y;
+        double dz = location.getZ() - z;
+        // same math as Location#distance, so results don't shift on the edge of the radius
+        return Math.sqrt(dx * dx + dy * dy + dz * dz) <= speaker.getRadius();
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+}
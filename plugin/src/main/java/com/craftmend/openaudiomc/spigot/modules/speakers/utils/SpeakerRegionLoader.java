@@ -0,0 +1,149 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.interfaces.SpeakerRegionHost;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads speakers per region file (32x32 chunks) while that region has loaded chunks, instead of loading every
+ * speaker on startup. Speakers in worlds that aren't loaded never leave the database.
+ *
+ * Regions are queried from an async thread when their first chunk loads, and their speakers get unlisted again
+ * when their last chunk unloads. Everything in here, except the query itself, happens on the main thread.
+ */
+public class SpeakerRegionLoader {
+
+    private final SpeakerRegionHost host;
+    private final Executor async;
+    private final Executor sync;
+    private final Map<String, Integer> loadedChunks = new HashMap<>();
+    // speakers per loaded region, replaced by a new set every time a region loads again
+    private final Map<String, Set<Speaker>> loadedRegions = new HashMap<>();
+
+    /**
+     * @param host  Where speakers get loaded from and registered with
+     * @param async Runs the region queries
+     * @param sync  Runs everything else, the thread that calls this loader
+     */
+    public SpeakerRegionLoader(SpeakerRegionHost host, Executor async, Executor sync) {
+        this.host = host;
+        this.async = async;
+        this.sync = sync;
+    }
+
+    /**
+     * @return Key of the region file that contains the given chunk, as stored in the speaker region column
+     */
+    public static String regionKey(String world, int chunkX, int chunkZ) {
+        return world + ":" + (chunkX >> 5) + ":" + (chunkZ >> 5);
+    }
+
+    /**
+     * Load the regions of all chunks that were loaded before we were
+     */
+    public void loadLoadedChunks() {
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                onChunkLoad(world.getName(), chunk.getX(), chunk.getZ());
+            }
+        }
+    }
+
+    public void onChunkLoad(String world, int chunkX, int chunkZ) {
+        String region = regionKey(world, chunkX, chunkZ);
+        int chunks = loadedChunks.merge(region, 1, Integer::sum);
+        if (chunks != 1) return;
+
+        Set<Speaker> speakers = new HashSet<>();
+        loadedRegions.put(region, speakers);
+
+        async.execute(() -> {
+            Collection<Speaker> found = host.queryRegion(region);
+            sync.execute(() -> onRegionQueried(region, speakers, found));
+        });
+    }
+
+    public void onChunkUnload(String world, int chunkX, int chunkZ) {
+        String region = regionKey(world, chunkX, chunkZ);
+        Integer chunks = loadedChunks.get(region);
+        if (chunks == null) return;
+        if (chunks > 1) {
+            loadedChunks.put(region, chunks - 1);
+            return;
+        }
+        loadedChunks.remove(region);
+        unloadRegion(region);
+    }
+
+    public void onWorldUnload(String world) {
+        String prefix = world + ":";
+        Iterator<String> regions = loadedChunks.keySet().iterator();
+        List<String> unloaded = new ArrayList<>();
+        while (regions.hasNext()) {
+            String region = regions.next();
+            if (!region.startsWith(prefix)) continue;
+            regions.remove();
+            unloaded.add(region);
+        }
+        unloaded.forEach(this::unloadRegion);
+    }
+
+    /**
+     * Keep track of a speaker that got registered, so it gets unlisted together with its region
+     */
+    public void track(Speaker speaker) {
+        if (speaker.getRegion() == null) return;
+        Set<Speaker> speakers = loadedRegions.get(speaker.getRegion());
+        if (speakers != null) speakers.add(speaker);
+    }
+
+    public void untrack(Speaker speaker) {
+        if (speaker.getRegion() == null) return;
+        Set<Speaker> speakers = loadedRegions.get(speaker.getRegion());
+        if (speakers != null) speakers.remove(speaker);
+    }
+
+    public int getLoadedRegions() {
+        return loadedRegions.size();
+    }
+
+    private void onRegionQueried(String region, Set<Speaker> speakers, Collection<Speaker> found) {
+        // the region got unloaded (and maybe loaded again) while we were waiting
+        if (loadedRegions.get(region) != speakers) return;
+
+        List<Speaker> loaded = new ArrayList<>();
+        for (Speaker speaker : found) {
+            MappedLocation location = speaker.getLocation();
+            if (location == null) continue;
+            // placed while the region was loading, that one is newer
+            if (host.getSpeaker(location) != null) continue;
+            loaded.add(speaker);
+        }
+
+        if (!loaded.isEmpty()) host.registerLoadedSpeakers(loaded);
+    }
+
+    private void unloadRegion(String region) {
+        Set<Speaker> speakers = loadedRegions.remove(region);
+        if (speakers == null) return;
+        List<MappedLocation> locations = new ArrayList<>();
+        for (Speaker speaker : speakers) {
+            locations.add(speaker.getLocation());
+        }
+        host.unlistSpeakers(locations);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.craftmend.openaudiomc.spigot.modules.speakers.utils;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.SpeakerMedia;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Copy-on-write registry of all loaded speakers and their media.
+ *
+ * Readers take the current {@link Snapshot}, which never changes after it got published, so they can iterate it
+ * from any thread without locking or copying. Writers are serialized, build a new snapshot with their changes
+ * and publish it in one volatile write, so readers either see all of a change or none of it. Writes copy the
+ * speaker map, so bulk changes (like a region loading) should go through the methods that take a collection.
+ */
+public class SpeakerRegistry {
+
+    @Getter private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * @return The speakers that got replaced, because another speaker was registered at their location
+     */
+    public synchronized List<Speaker> putAll(Collection<Speaker> speakers) {
+        List<Speaker> replaced = new ArrayList<>();
+        if (speakers.isEmpty()) return replaced;
+
+        Map<MappedLocation, Speaker> copy = new HashMap<>(snapshot.speakers);
+        for (Speaker speaker : speakers) {
+            Speaker previous = copy.put(speaker.getLocation(), speaker);
+            if (previous != null && previous != speaker) replaced.add(previous);
+        }
+        publish(copy, snapshot.media);
+        return replaced;
+    }
+
+    /**
+     * @return The speakers that got removed
+     */
+    public synchronized List<Speaker> removeAll(Collection<MappedLocation> locations) {
+        List<Speaker> removed = new ArrayList<>();
+        Map<MappedLocation, Speaker> copy = null;
+        for (MappedLocation location : locations) {
+            if (!snapshot.speakers.containsKey(location)) continue;
+            if (copy == null) copy = new HashMap<>(snapshot.speakers);
+            Speaker speaker = copy.remove(location);
+            if (speaker != null) removed.add(speaker);
+        }
+        if (copy != null) publish(copy, snapshot.media);
+        return removed;
+    }
+
+    /**
+     * Get the shared media for a source, creating it when it's the first speaker playing it
+     */
+    public SpeakerMedia getMedia(String source, Function<String, SpeakerMedia> factory) {
+        SpeakerMedia media = snapshot.media.get(source);
+        if (media != null) return media;
+
+        synchronized (this) {
+            media = snapshot.media.get(source);
+            if (media != null) return media;
+            media = factory.apply(source);
+            Map<String, SpeakerMedia> copy = new HashMap<>(snapshot.media);
+            copy.put(source, media);
+            publish(snapshot.speakers, copy);
+            return media;
+        }
+    }
+
+    /**
+     * Publish a new version without changes, for when a speaker itself got changed
+     */
+    public synchronized void markChanged() {
+        publish(snapshot.speakers, snapshot.media);
+    }
+
+    public synchronized void clearMedia() {
+        publish(snapshot.speakers, Collections.emptyMap());
+    }
+
+    private void publish(Map<MappedLocation, Speaker> speakers, Map<String, SpeakerMedia> media) {
+        snapshot = new Snapshot(snapshot.version + 1, speakers, media);
+    }
+
+    public static class Snapshot {
+
+        @Getter private final long version;
+        // never modified once published
+        private final Map<MappedLocation, Speaker> speakers;
+        private final Map<String, SpeakerMedia> media;
+
+        private Snapshot(long version, Map<MappedLocation, Speaker> speakers, Map<String, SpeakerMedia> media) {
+            this.version = version;
+            this.speakers = speakers;
+            this.media = media;
+        }
+
+        public Speaker getSpeaker(MappedLocation location) {
+            return speakers.get(location);
+        }
+
+        /**
+         * @return All speakers in this snapshot, read only
+         */
+        public Map<MappedLocation, Speaker> getSpeakers() {
+            return Collections.unmodifiableMap(speakers);
+        }
+
+        public SpeakerMedia getMedia(String source) {
+            return media.get(source);
+        }
+
+        public int size() {
+            return speakers.size();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.craftmend.openaudiomc.spigot.modules.voicechat.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial hash that buckets values per world in square cells of a fixed size.
+ *
+ * With the cell size set to the voice radius, everything within that radius of a point is guaranteed
+ * to live in the 3x3 block of cells around it, so a neighbour search never has to go through
+ * players that are further away than one cell.
+ *
+ * This class is NOT thread safe, and is meant to be rebuilt for every proximity tick.
+ */
+public class ProximityGrid<T> {
+
+    private final int cellSize;
+    private final Map<String, Map<Long, List<T>>> worlds = new HashMap<>();
+
+    public ProximityGrid(int cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+    }
+
+    public void insert(String world, double x, double z, T value) {
+        worlds.computeIfAbsent(world, w -> new HashMap<>())
+                .computeIfAbsent(cellKey(cell(x), cell(z)), k -> new ArrayList<>())
+                .add(value);
+    }
+
+    /**
+     * Get all values in the cell of the given point and the eight cells around it
+     *
+     * @param world World name
+     * @param x     X coordinate
+     * @param z     Z coordinate
+     * @return Possible neighbours, which still need a precise distance check
+     */
+    public List<T> getNeighbours(String world, double x, double z) {
+        Map<Long, List<T>> cells = worlds.get(world);
+        if (cells == null) return Collections.emptyList();
+
+        List<T> neighbours = new ArrayList<>();
+        int cellX = cell(x);
+        int cellZ = cell(z);
+        for (int offsetX = -1; offsetX <= 1; offsetX++) {
+            for (int offsetZ = -1; offsetZ <= 1; offsetZ++) {
+                List<T> values = cells.get(cellKey(cellX + offsetX, cellZ + offsetZ));
+                if (values != null) neighbours.addAll(values);
+            }
+        }
+        return neighbours;
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+}
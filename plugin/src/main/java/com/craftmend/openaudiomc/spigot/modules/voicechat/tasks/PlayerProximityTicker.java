@@ -13,20 +13,23 @@ import com.craftmend.openaudiomc.generic.networking.packets.client.voice.PacketC
 import com.craftmend.openaudiomc.generic.networking.payloads.client.voice.ClientVoiceDropPayload;
 import com.craftmend.openaudiomc.generic.utils.data.Filter;
 import com.craftmend.openaudiomc.spigot.modules.voicechat.filters.PeerFilter;
-import lombok.Setter;
+import com.craftmend.openaudiomc.spigot.modules.voicechat.filters.ProximityGrid;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public class PlayerProximityTicker implements Runnable {
 
-    @Setter
     private Filter<ClientConnection, Player> filter;
+    // only the default filter is known to never link players that are further apart than the max distance
+    private boolean gridApplicable;
+    private final int maxDistance;
 
     public PlayerProximityTicker(int maxDistance, PeerFilter peerFilter) {
-        this.filter = peerFilter;
+        this.maxDistance = maxDistance;
+        setFilter(peerFilter);
         this.filter.updateProperty("d", maxDistance);
 
         AudioApi.getInstance().getEventDriver().on(SystemReloadEvent.class).setHandler(e -> {
@@ -34,6 +37,18 @@ public class PlayerProximityTicker implements Runnable {
         });
     }
 
+    /**
+     * Replace the filter that decides which players can hear each other. Filters other than the default
+     * {@link PeerFilter} can have any range, so those get to see every other player instead of only the ones nearby.
+     */
+    public void setFilter(Filter<ClientConnection, Player> filter) {
+        this.filter = filter;
+        this.gridApplicable = filter.getClass() == PeerFilter.class;
+    }
+
+    /**
+     * Extra filters can only narrow down the peers of the filter, so they don't change its range
+     */
     public void addFilter(Filter<ClientConnection, Player> extraFilter) {
         this.filter.addChild(extraFilter);
     }
@@ -43,20 +58,19 @@ public class PlayerProximityTicker implements Runnable {
         // pre tick
         AudioApi.getInstance().getEventDriver().fire(new VoiceChatPeerTickEvent(TickEventType.BEFORE_TICK));
 
-        for (ClientConnection client : OpenAudioMc.getService(NetworkingService.class).getClients()) {
+        NetworkingService networkingService = OpenAudioMc.getService(NetworkingService.class);
+        Map<ClientConnection, Set<ClientConnection>> applicablePeers = findApplicablePeers(networkingService.getClients());
+
+        for (ClientConnection client : networkingService.getClients()) {
             // am I valid? no? do nothing.
             if (!client.getRtcSessionManager().isReady()) continue;
 
-            Player player = (Player) client.getUser().getOriginal();
-
             // find clients in this world, in radius and that are connected with RTC
-            Set<ClientConnection> applicableClients = filter.wrap(
-                    OpenAudioMc.getService(NetworkingService.class).getClients().stream(),
-                    player
-            ).collect(Collectors.toSet());
-
-            // clear the applicable players if i'm disabled myself
-            if (!client.getRtcSessionManager().getBlockReasons().isEmpty()) applicableClients.clear();
+            Set<ClientConnection> applicableClients = applicablePeers.getOrDefault(client, Collections.emptySet());
+            Set<UUID> applicableIds = new HashSet<>();
+            for (ClientConnection peer : applicableClients) {
+                applicableIds.add(peer.getOwner().getUniqueId());
+            }
 
             // find players that we don't have yet
             applicableClients
@@ -71,11 +85,11 @@ public class PlayerProximityTicker implements Runnable {
             for (UUID uuid : client.getRtcSessionManager().getSubscriptions()
                     .stream()
                     .filter(p -> p != client.getOwner().getUniqueId())
-                    .filter(uuid -> !applicableClients.stream().anyMatch(apc -> apc.getOwner().getUniqueId() == uuid))
+                    .filter(uuid -> !applicableIds.contains(uuid))
                     .collect(Collectors.toSet())) {
 
                 // unsubscribe these
-                ClientConnection peer = OpenAudioMc.getService(NetworkingService.class).getClient(uuid);
+                ClientConnection peer = networkingService.getClient(uuid);
 
                 client.sendPacket(new PacketClientDropVoiceStream(new ClientVoiceDropPayload(peer.getRtcSessionManager().getStreamKey())));
                 peer.sendPacket(new PacketClientDropVoiceStream(new ClientVoiceDropPayload(client.getRtcSessionManager().getStreamKey())));
@@ -93,4 +107,61 @@ public class PlayerProximityTicker implements Runnable {
 
         AudioApi.getInstance().getEventDriver().fire(new VoiceChatPeerTickEvent(TickEventType.AFTER_TICK));
     }
+
+    /**
+     * Bucket every client that could take part in voice chat in a grid with the voice radius as cell size,
+     * and only run the filter over clients in neighbouring cells. A custom filter might link players that are
+     * further apart, so that gets every other client instead.
+     *
+     * Links are mutual, so every pair only gets evaluated once (from the client that came first)
+     * and the result is applied to both sides.
+     *
+     * @param clients All connected clients
+     * @return Applicable peers per client, clients without peers are left out
+     */
+    private Map<ClientConnection, Set<ClientConnection>> findApplicablePeers(Collection<ClientConnection> clients) {
+        ProximityGrid<ClientConnection> grid = new ProximityGrid<>(maxDistance);
+        List<ClientConnection> inOrder = new ArrayList<>();
+        Map<ClientConnection, Integer> order = new IdentityHashMap<>();
+        Map<ClientConnection, Location> locations = new IdentityHashMap<>();
+
+        for (ClientConnection client : clients) {
+            // blocked clients can't hear or be heard, so they don't need to be in the grid at all
+            if (!client.getRtcSessionManager().isReady()) continue;
+            if (!client.getRtcSessionManager().getBlockReasons().isEmpty()) continue;
+
+            Player player = (Player) client.getUser().getOriginal();
+            Location location = player.getLocation();
+            if (location.getWorld() == null) continue;
+
+            order.put(client, order.size());
+            inOrder.add(client);
+            locations.put(client, location);
+            grid.insert(location.getWorld().getName(), location.getX(), location.getZ(), client);
+        }
+
+        Map<ClientConnection, Set<ClientConnection>> applicablePeers = new IdentityHashMap<>();
+        for (Map.Entry<ClientConnection, Location> entry : locations.entrySet()) {
+            ClientConnection client = entry.getKey();
+            Location location = entry.getValue();
+            int index = order.get(client);
+
+            List<ClientConnection> candidates;
+            if (gridApplicable) {
+                candidates = grid.getNeighbours(location.getWorld().getName(), location.getX(), location.getZ());
+                candidates.removeIf(candidate -> order.get(candidate) <= index);
+            } else {
+                candidates = inOrder.subList(index + 1, inOrder.size());
+            }
+            if (candidates.isEmpty()) continue;
+
+            filter.wrap(candidates.stream(), (Player) client.getUser().getOriginal())
+                    .forEach(peer -> {
+                        applicablePeers.computeIfAbsent(client, c -> new HashSet<>()).add(peer);
+                        applicablePeers.computeIfAbsent(peer, c -> new HashSet<>()).add(client);
+                    });
+        }
+
+        return applicablePeers;
+    }
 }
@@ -0,0 +1,213 @@
+package com.craftmend.openaudiomc.spigot.services.world;
+
+import com.craftmend.openaudiomc.OpenAudioMc;
+import com.craftmend.openaudiomc.generic.logging.OpenAudioLogger;
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.MetricsService;
+import com.craftmend.openaudiomc.generic.platform.interfaces.TaskService;
+import com.craftmend.openaudiomc.generic.service.Inject;
+import com.craftmend.openaudiomc.generic.service.Service;
+import com.craftmend.openaudiomc.generic.storage.enums.StorageKey;
+import com.craftmend.openaudiomc.spigot.OpenAudioMcSpigot;
+import com.craftmend.openaudiomc.spigot.services.server.ServerService;
+import com.craftmend.openaudiomc.spigot.services.server.enums.ServerVersion;
+import com.craftmend.openaudiomc.spigot.services.world.listeners.ChunkSnapshotListener;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.ChunkSnapshotCache;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.ObstructionCache;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.SnapshotSolidity;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.VoxelRayTracer;
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers obstruction checks from copies of the world, instead of reading live blocks from async threads.
+ *
+ * Checks can either be done right away, or queued. Queued checks for all players get handled together on
+ * a small worker pool, with a limit on how many get handled per tick so a crowd of players can't take over
+ * the workers. A queued check that ran into chunks that weren't copied yet gets retried once those are
+ * available, so it doesn't report a wall as air. Results are cached until a block changes in one of the
+ * chunks they went through, so players that don't move don't cause any new traces.
+ */
+public class ObstructionService extends Service {
+
+    private static final int SNAPSHOTS_PER_TICK = 16;
+    private static final int BATCH_SIZE = 64;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_CACHED_RESULTS = 65536;
+
+    @Inject
+    private OpenAudioMcSpigot openAudioMcSpigot;
+
+    @Getter private final ChunkSnapshotCache snapshotCache = new ChunkSnapshotCache();
+    @Getter private final ObstructionCache resultCache = new ObstructionCache(snapshotCache, MAX_CACHED_RESULTS);
+    private final Queue<ObstructionQuery> queries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean processing = new AtomicBoolean(false);
+    private ExecutorService workers;
+    private boolean useSnapshots;
+    @Getter private int tickBudget;
+    private int snapshotTask;
+    private int queryTask;
+
+    private Counter processedQueries;
+    private Counter deferredQueries;
+
+    @Override
+    public void onEnable() {
+        // legacy servers don't have material based chunk snapshots, so they keep reading the world
+        useSnapshots = OpenAudioMc.getService(ServerService.class).getVersion() == ServerVersion.MODERN;
+        tickBudget = Math.max(1, StorageKey.SETTINGS_OBSTRUCTION_TICK_BUDGET.getInt());
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "OpenAudioMc-Obstructions-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        MetricsRegistry registry = OpenAudioMc.getService(MetricsService.class).getRegistry();
+        processedQueries = registry.counter("openaudiomc_obstruction_queries_total", "Queued obstruction checks that got handled");
+        deferredQueries = registry.counter("openaudiomc_obstruction_queries_deferred_total", "Queued obstruction checks that had to wait for the tick budget or missing chunks");
+        registry.gauge("openaudiomc_obstruction_queue_depth", "Queued obstruction checks", queries::size);
+        registry.gauge("openaudiomc_obstruction_cached_chunks", "Chunks copied for obstruction checks", snapshotCache::size);
+        registry.gauge("openaudiomc_obstruction_cached_results", "Cached obstruction results", resultCache::size);
+
+        TaskService taskService = OpenAudioMc.resolveDependency(TaskService.class);
+        if (useSnapshots) {
+            openAudioMcSpigot.registerEvents(new ChunkSnapshotListener(snapshotCache));
+            snapshotTask = taskService.scheduleSyncRepeatingTask(() -> snapshotCache.takeSnapshots(SNAPSHOTS_PER_TICK, workers), 1, 1);
+        }
+        queryTask = taskService.scheduleAsyncRepeatingTask(this::processQueries, 1, 1);
+    }
+
+    @Override
+    public void onDisable() {
+        TaskService taskService = OpenAudioMc.resolveDependency(TaskService.class);
+        if (useSnapshots) taskService.cancelRepeatingTask(snapshotTask);
+        taskService.cancelRepeatingTask(queryTask);
+        workers.shutdownNow();
+        queries.clear();
+    }
+
+    /**
+     * Count the obstructions between two locations right away. Chunks that weren't copied yet count as air.
+     * Safe to call from any thread.
+     */
+    public int obstructionsBetween(Location start, Vector3 end) {
+        if (!useSnapshots) return new VoxelRayTracer().obstructionsBetweenLocations(start, end);
+        ObstructionQuery query = new ObstructionQuery(start.getWorld(), start.getX(), start.getY(), start.getZ(), end);
+        Integer cached = resultCache.get(query.key);
+        if (cached != null) return cached;
+
+        SnapshotSolidity solidity = new SnapshotSolidity(snapshotCache, query.world.getName());
+        int obstructions = trace(query, solidity);
+        resultCache.put(query.key, obstructions, solidity);
+        return obstructions;
+    }
+
+    /**
+     * Queue an obstruction check, to be handled together with all other checks during the next tick(s)
+     *
+     * @return Future that completes with the amount of obstructions, right away when the result is cached
+     *         and on one of the obstruction workers otherwise
+     */
+    public CompletableFuture<Integer> queueObstructions(Location start, Vector3 end) {
+        ObstructionQuery query = new ObstructionQuery(start.getWorld(), start.getX(), start.getY(), start.getZ(), end);
+        if (useSnapshots) {
+            Integer cached = resultCache.get(query.key);
+            if (cached != null) return CompletableFuture.completedFuture(cached);
+        }
+        queries.add(query);
+        return query.result;
+    }
+
+    public int getQueueDepth() {
+        return queries.size();
+    }
+
+    private void processQueries() {
+        // the previous batch is still running, it'll pick up what's left next time
+        if (queries.isEmpty() || !processing.compareAndSet(false, true)) return;
+
+        List<ObstructionQuery> taken = new ArrayList<>();
+        ObstructionQuery next;
+        while (taken.size() < tickBudget && (next = queries.poll()) != null) {
+            taken.add(next);
+        }
+        if (!queries.isEmpty()) deferredQueries.add(queries.size());
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < taken.size(); from += BATCH_SIZE) {
+            List<ObstructionQuery> batch = taken.subList(from, Math.min(taken.size(), from + BATCH_SIZE));
+            batches.add(CompletableFuture.runAsync(() -> runBatch(batch), workers));
+        }
+
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> processing.set(false));
+    }
+
+    private void runBatch(List<ObstructionQuery> batch) {
+        for (ObstructionQuery query : batch) {
+            try {
+                int obstructions;
+                if (useSnapshots) {
+                    SnapshotSolidity solidity = new SnapshotSolidity(snapshotCache, query.world.getName());
+                    obstructions = trace(query, solidity);
+                    if (solidity.isMissingChunks() && ++query.attempts < MAX_ATTEMPTS) {
+                        // the chunks got requested, try again once they're copied
+                        deferredQueries.inc();
+                        queries.add(query);
+                        continue;
+                    }
+                    resultCache.put(query.key, obstructions, solidity);
+                } else {
+                    obstructions = new VoxelRayTracer().obstructionsBetweenLocations(
+                            new Location(query.world, query.fromX, query.fromY, query.fromZ), query.to);
+                }
+                processedQueries.inc();
+                query.result.complete(obstructions);
+            } catch (Exception e) {
+                OpenAudioLogger.toConsole("Failed to check obstructions");
+                e.printStackTrace();
+                query.result.complete(0);
+            }
+        }
+    }
+
+    private int trace(ObstructionQuery query, SnapshotSolidity solidity) {
+        return VoxelRayTracer.countObstructions(
+                query.fromX, query.fromY, query.fromZ,
+                query.to.getX(), query.to.getY(), query.to.getZ(),
+                solidity
+        );
+    }
+
+    private static class ObstructionQuery {
+        private final World world;
+        private final double fromX, fromY, fromZ;
+        private final Vector3 to;
+        private final ObstructionCache.Key key;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private int attempts = 0;
+
+        private ObstructionQuery(World world, double fromX, double fromY, double fromZ, Vector3 to) {
+            this.world = world;
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.fromZ = fromZ;
+            this.to = to;
+            this.key = ObstructionCache.key(world.getName(), fromX, fromY, fromZ, to.getX(), to.getY(), to.getZ());
+        }
+    }
+
+}
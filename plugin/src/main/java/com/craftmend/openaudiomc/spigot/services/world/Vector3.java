@@ -1,6 +1,9 @@
 package com.craftmend.openaudiomc.spigot.services.world;
 
+import com.craftmend.openaudiomc.OpenAudioMc;
 import com.craftmend.openaudiomc.generic.client.objects.ClientConnection;
+import com.craftmend.openaudiomc.spigot.modules.players.SpigotPlayerService;
+import com.craftmend.openaudiomc.spigot.modules.players.objects.SpigotConnection;
 import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -23,6 +26,9 @@ public class Vector3 implements Serializable {
     private double z = 0;
 
     public static Vector3 from(ClientConnection peer) {
+        // use the location from the last player tick when we have it, this tends to get called from async threads
+        SpigotConnection spigotConnection = OpenAudioMc.getService(SpigotPlayerService.class).getClient(peer.getOwner().getUniqueId());
+        if (spigotConnection != null) return from(spigotConnection.getLocationTracker().getLocation());
         Player player = (Player) peer.getUser().getOriginal();
         return from(player.getLocation());
     }
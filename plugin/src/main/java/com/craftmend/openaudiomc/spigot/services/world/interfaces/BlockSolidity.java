@@ -0,0 +1,8 @@
+package com.craftmend.openaudiomc.spigot.services.world.interfaces;
+
+public interface BlockSolidity {
+
+    // whether the block at the given position blocks sound
+    boolean isSolid(int x, int y, int z);
+
+}
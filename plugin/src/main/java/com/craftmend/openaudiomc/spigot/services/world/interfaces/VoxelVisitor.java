@@ -0,0 +1,8 @@
+package com.craftmend.openaudiomc.spigot.services.world.interfaces;
+
+public interface VoxelVisitor {
+
+    // called for every block a ray passes through, in order
+    void visit(int x, int y, int z);
+
+}
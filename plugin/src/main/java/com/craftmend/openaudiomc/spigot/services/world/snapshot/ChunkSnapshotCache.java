@@ -0,0 +1,189 @@
+package com.craftmend.openaudiomc.spigot.services.world.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps solid block copies of the chunks that obstruction checks need.
+ *
+ * Chunks are only copied once something asks for them, and copied again when blocks in them change.
+ * Not every change fires a block event (worldedit, commands and plugins setting blocks don't), so chunks
+ * that are still being used also get copied again once their copy is older than {@link #MAX_AGE_TICKS}.
+ * Taking the snapshot has to happen on the main thread, so that's limited to a few chunks per tick,
+ * and turning it into a {@link SolidChunk} happens on a worker. Until a chunk is copied again, readers
+ * keep seeing its previous state. Every copy is a new {@link SolidChunk}, so anything derived from a
+ * chunk can tell if it's outdated by comparing its version with the current one.
+ */
+public class ChunkSnapshotCache {
+
+    private static final Method MIN_HEIGHT = findMinHeight();
+    // copies that get used are refreshed after this many ticks, even if nothing told us they changed
+    private static final long MAX_AGE_TICKS = 20 * 10;
+
+    private final Map<String, Map<Long, CachedChunk>> worlds = new ConcurrentHashMap<>();
+    private final Set<ChunkRef> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong snapshotsTaken = new AtomicLong();
+    // taken on the main thread when a snapshot is taken, conversions can finish out of order
+    private final AtomicLong snapshotSequence = new AtomicLong();
+    // counts calls to takeSnapshots, so reads can check the age of a copy without asking for the time
+    private volatile long currentTick = 0;
+
+    /**
+     * @return The cached chunk, or null when it isn't copied (yet)
+     */
+    public SolidChunk get(String world, int chunkX, int chunkZ) {
+        return get(world, chunkKey(chunkX, chunkZ));
+    }
+
+    public SolidChunk get(String world, long chunkKey) {
+        Map<Long, CachedChunk> chunks = worlds.get(world);
+        if (chunks == null) return null;
+        CachedChunk cached = chunks.get(chunkKey);
+        if (cached == null) return null;
+
+        if (currentTick - cached.takenAtTick > MAX_AGE_TICKS && !cached.refreshRequested) {
+            // keep using this copy until the new one is there
+            cached.refreshRequested = true;
+            request(world, (int) (chunkKey >> 32), (int) chunkKey);
+        }
+        return cached.chunk;
+    }
+
+    /**
+     * Ask for a chunk to be copied during one of the next ticks
+     */
+    public void request(String world, int chunkX, int chunkZ) {
+        pending.add(new ChunkRef(world, chunkX, chunkZ));
+    }
+
+    /**
+     * Copy a chunk again if it's cached, because something in it changed
+     */
+    public void invalidate(String world, int chunkX, int chunkZ) {
+        if (get(world, chunkX, chunkZ) != null) request(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Store a copy of a chunk that was made some other way, it replaces the cached one like a new snapshot would
+     */
+    public void put(String world, int chunkX, int chunkZ, SolidChunk chunk) {
+        store(world, chunkKey(chunkX, chunkZ), new CachedChunk(chunk, snapshotSequence.incrementAndGet(), currentTick));
+    }
+
+    public void remove(String world, int chunkX, int chunkZ) {
+        Map<Long, CachedChunk> chunks = worlds.get(world);
+        if (chunks != null) chunks.remove(chunkKey(chunkX, chunkZ));
+    }
+
+    public void removeWorld(String world) {
+        worlds.remove(world);
+    }
+
+    /**
+     * Take snapshots of requested chunks, has to be called from the main thread
+     *
+     * @param budget    Maximum amount of chunks to copy
+     * @param converter Executor that turns the snapshots into solid chunks
+     */
+    public void takeSnapshots(int budget, Executor converter) {
+        long tick = ++currentTick;
+        Iterator<ChunkRef> iterator = pending.iterator();
+        while (budget > 0 && iterator.hasNext()) {
+            ChunkRef ref = iterator.next();
+            iterator.remove();
+
+            World world = Bukkit.getWorld(ref.world);
+            // don't load chunks just to check obstructions, unloaded chunks are treated as air
+            if (world == null || !world.isChunkLoaded(ref.x, ref.z)) continue;
+
+            ChunkSnapshot snapshot = world.getChunkAt(ref.x, ref.z).getChunkSnapshot(false, false, false);
+            long sequence = snapshotSequence.incrementAndGet();
+            int minHeight = getMinHeight(world);
+            int maxHeight = world.getMaxHeight();
+            converter.execute(() -> store(ref.world, chunkKey(ref.x, ref.z),
+                    new CachedChunk(SolidChunk.from(snapshot, minHeight, maxHeight), sequence, tick)));
+            snapshotsTaken.incrementAndGet();
+            budget--;
+        }
+    }
+
+    private void store(String world, long chunkKey, CachedChunk copy) {
+        // an older snapshot of the same chunk that finished converting later must not replace this one
+        worlds.computeIfAbsent(world, w -> new ConcurrentHashMap<>()).compute(chunkKey,
+                (key, current) -> current != null && current.sequence > copy.sequence ? current : copy);
+    }
+
+    /**
+     * Worlds only go below y 0 since 1.18, the api we build against doesn't know about that yet
+     */
+    private static int getMinHeight(World world) {
+        if (MIN_HEIGHT == null) return 0;
+        try {
+            return (int) MIN_HEIGHT.invoke(world);
+        } catch (ReflectiveOperationException e) {
+            return 0;
+        }
+    }
+
+    private static Method findMinHeight() {
+        try {
+            return World.class.getMethod("getMinHeight");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Long, CachedChunk> chunks : worlds.values()) {
+            size += chunks.size();
+        }
+        return size;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getSnapshotsTaken() {
+        return snapshotsTaken.get();
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static class CachedChunk {
+        private final SolidChunk chunk;
+        private final long sequence;
+        private final long takenAtTick;
+        // only a hint to not request it every read, requesting it twice does no harm
+        private volatile boolean refreshRequested = false;
+
+        private CachedChunk(SolidChunk chunk, long sequence, long takenAtTick) {
+            this.chunk = chunk;
+            this.sequence = sequence;
+            this.takenAtTick = takenAtTick;
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class ChunkRef {
+        private final String world;
+        private final int x;
+        private final int z;
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.craftmend.openaudiomc.spigot.services.world.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches obstruction counts between two points, rounded to half a block.
+ *
+ * A result stays valid for as long as the chunks its ray went through weren't copied again. Chunks only
+ * get copied again when a block in them changes, so players standing around a speaker or each other keep
+ * getting the cached result until someone moves or builds something in between. Results only remember
+ * the version of the copies they used, so replaced copies don't stay in memory because of them.
+ */
+public class ObstructionCache {
+
+    private static final int STEPS_PER_BLOCK = 2;
+
+    private final ChunkSnapshotCache snapshots;
+    private final int maxEntries;
+    private final Map<Key, CachedObstruction> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ObstructionCache(ChunkSnapshotCache snapshots, int maxEntries) {
+        this.snapshots = snapshots;
+        this.maxEntries = maxEntries;
+    }
+
+    public static Key key(String world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        return new Key(world,
+                quantise(fromX), quantise(fromY), quantise(fromZ),
+                quantise(toX), quantise(toY), quantise(toZ)
+        );
+    }
+
+    /**
+     * @return The cached obstruction count, or null when it isn't known or one of its chunks changed
+     */
+    public Integer get(Key key) {
+        CachedObstruction cached = entries.get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        for (int i = 0; i < cached.chunkKeys.length; i++) {
+            SolidChunk current = snapshots.get(key.world, cached.chunkKeys[i]);
+            if (current == null || current.getVersion() != cached.chunkVersions[i]) {
+                entries.remove(key, cached);
+                invalidations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        hits.incrementAndGet();
+        return cached.obstructions;
+    }
+
+    /**
+     * Store the result of a trace, unless it ran into chunks that weren't copied yet
+     */
+    public void put(Key key, int obstructions, SnapshotSolidity trace) {
+        if (trace.isMissingChunks()) return;
+
+        // players that walk around leave entries behind, just start over instead of tracking usage
+        if (entries.size() >= maxEntries) entries.clear();
+
+        entries.put(key, new CachedObstruction(
+                obstructions,
+                trace.getVisitedChunkKeys(),
+                trace.getVisitedChunkVersions()
+        ));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    private static int quantise(double value) {
+        return (int) Math.floor(value * STEPS_PER_BLOCK);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key {
+        private final String world;
+        private final int fromX, fromY, fromZ;
+        private final int toX, toY, toZ;
+    }
+
+    @AllArgsConstructor
+    private static class CachedObstruction {
+        private final int obstructions;
+        private final long[] chunkKeys;
+        private final long[] chunkVersions;
+    }
+
+}
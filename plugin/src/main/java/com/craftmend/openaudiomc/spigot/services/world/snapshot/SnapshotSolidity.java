@@ -0,0 +1,71 @@
+package com.craftmend.openaudiomc.spigot.services.world.snapshot;
+
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.BlockSolidity;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads blocks for a single trace from the snapshot cache. Chunks that aren't cached count as air,
+ * and get requested so they're known for the next check.
+ */
+public class SnapshotSolidity implements BlockSolidity {
+
+    private final ChunkSnapshotCache cache;
+    private final String world;
+
+    // a trace usually stays in the same chunk for a while
+    private int lastChunkX = Integer.MIN_VALUE;
+    private int lastChunkZ = Integer.MIN_VALUE;
+    private SolidChunk lastChunk;
+    @Getter private boolean missingChunks = false;
+    // every chunk copy this trace read from, in order
+    private final List<Long> visitedChunkKeys = new ArrayList<>(4);
+    private final List<Long> visitedChunkVersions = new ArrayList<>(4);
+
+    public SnapshotSolidity(ChunkSnapshotCache cache, String world) {
+        this.cache = cache;
+        this.world = world;
+    }
+
+    @Override
+    public boolean isSolid(int x, int y, int z) {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        if (chunkX != lastChunkX || chunkZ != lastChunkZ) {
+            lastChunkX = chunkX;
+            lastChunkZ = chunkZ;
+            lastChunk = cache.get(world, chunkX, chunkZ);
+            if (lastChunk == null) {
+                missingChunks = true;
+                cache.request(world, chunkX, chunkZ);
+            } else {
+                visitedChunkKeys.add(ChunkSnapshotCache.chunkKey(chunkX, chunkZ));
+                visitedChunkVersions.add(lastChunk.getVersion());
+            }
+        }
+        return lastChunk != null && lastChunk.isSolid(x & 15, y, z & 15);
+    }
+
+    public long[] getVisitedChunkKeys() {
+        return toArray(visitedChunkKeys);
+    }
+
+    public long[] getVisitedChunkVersions() {
+        return toArray(visitedChunkVersions);
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+}
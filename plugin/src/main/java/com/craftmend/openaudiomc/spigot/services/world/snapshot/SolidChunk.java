@@ -0,0 +1,100 @@
+package com.craftmend.openaudiomc.spigot.services.world.snapshot;
+
+import lombok.Getter;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable copy of which blocks in a chunk are solid, one bit per block.
+ * Built from a chunk snapshot, so it can be read from any thread without touching the world.
+ */
+public class SolidChunk {
+
+    private static final boolean[] SOLID_MATERIALS = new boolean[Material.values().length];
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    static {
+        for (Material material : Material.values()) {
+            SOLID_MATERIALS[material.ordinal()] = material.isSolid();
+        }
+    }
+
+    // unique per copy, so things derived from a copy can check if it's outdated without keeping it around
+    @Getter private final long version = VERSIONS.incrementAndGet();
+    private final int minHeight;
+    private final int maxHeight;
+    // indexed by ((y - minHeight) << 8) | (z << 4) | x
+    private final long[] bits;
+
+    private SolidChunk(int minHeight, int maxHeight, long[] bits) {
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.bits = bits;
+    }
+
+    /**
+     * @param snapshot  Snapshot of the chunk
+     * @param minHeight Lowest block Y of the world, below 0 on 1.18 and newer
+     * @param maxHeight Block Y above the highest block of the world
+     */
+    public static SolidChunk from(ChunkSnapshot snapshot, int minHeight, int maxHeight) {
+        return from(new BlockSource() {
+            @Override
+            public boolean isSectionEmpty(int sectionIndex) {
+                return snapshot.isSectionEmpty(sectionIndex);
+            }
+
+            @Override
+            public Material getBlockType(int x, int y, int z) {
+                return snapshot.getBlockType(x, y, z);
+            }
+        }, minHeight, maxHeight);
+    }
+
+    public static SolidChunk from(BlockSource source, int minHeight, int maxHeight) {
+        int height = maxHeight - minHeight;
+        long[] bits = new long[(height * 256) >> 6];
+        for (int section = 0; section < height >> 4; section++) {
+            // most of a chunk is usually air, no need to look at sections without blocks
+            if (source.isSectionEmpty(section)) continue;
+            for (int offset = section << 4; offset < (section + 1) << 4; offset++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (SOLID_MATERIALS[source.getBlockType(x, offset + minHeight, z).ordinal()]) {
+                            int index = (offset << 8) | (z << 4) | x;
+                            bits[index >> 6] |= 1L << index;
+                        }
+                    }
+                }
+            }
+        }
+        return new SolidChunk(minHeight, maxHeight, bits);
+    }
+
+    /**
+     * @param x Block X within the chunk, 0 to 15
+     * @param y Block Y
+     * @param z Block Z within the chunk, 0 to 15
+     * @return If the block is solid, blocks outside of the world never are
+     */
+    public boolean isSolid(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) return false;
+        int index = ((y - minHeight) << 8) | (z << 4) | x;
+        return (bits[index >> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * The blocks of a chunk, like a {@link ChunkSnapshot}
+     */
+    public interface BlockSource {
+        /**
+         * @param sectionIndex Index of the section, counted from the bottom of the world rather than from y 0
+         */
+        boolean isSectionEmpty(int sectionIndex);
+
+        Material getBlockType(int x, int y, int z);
+    }
+
+}
@@ -1,9 +1,10 @@
 package com.craftmend.openaudiomc.spigot.services.world.tracing;
 
 import com.craftmend.openaudiomc.spigot.services.world.Vector3;
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.BlockSolidity;
 import com.craftmend.openaudiomc.spigot.services.world.interfaces.IRayTracer;
 import org.bukkit.Location;
-import org.bukkit.block.Block;
+import org.bukkit.World;
 import org.bukkit.util.Vector;
 
 import java.util.HashSet;
@@ -13,21 +14,27 @@ import java.util.Set;
  * Rough ray tracer that estimates paths between locations.
  * Not as precise as the FullRayTracer but a lot more efficient for longer paths.
  *
+ * Superseded by the {@link VoxelRayTracer}, which visits every block exactly once and in order.
+ *
  * I'm AlReAdY TrAcEr
  */
 public class EstimatedRayTracer implements IRayTracer {
 
     @Override
     public int obstructionsBetweenLocations(Location start, Vector3 end) {
-        Set<Block> blockSet = new HashSet<>();
+        World world = start.getWorld();
+        return countObstructions(start.toVector(), end.toBukkit(), (x, y, z) -> world.getBlockAt(x, y, z).getType().isSolid());
+    }
+
+    public static int countObstructions(Vector startVector, Vector endVector, BlockSolidity solidity) {
+        Set<Long> blockSet = new HashSet<>();
 
-        Vector startVector = start.toVector();
-        Vector endVector = end.toBukkit();
+        startVector = startVector.clone();
         double distance = Math.abs(startVector.distanceSquared(endVector));
         Vector vector = endVector.clone().subtract(startVector).normalize().multiply(1);
 
         for (double length = 0; length < distance; startVector.add(vector)) {
-            blockSet.add(start.getWorld().getBlockAt(startVector.getBlockX(), startVector.getBlockY(), startVector.getBlockZ()));
+            blockSet.add(blockKey(startVector.getBlockX(), startVector.getBlockY(), startVector.getBlockZ()));
             length++;
         }
 
@@ -35,8 +42,8 @@ public class EstimatedRayTracer implements IRayTracer {
         boolean wasLastSolid = false;
         int oscillations = 0;
 
-        for (Block block : blockSet) {
-            boolean isSolid = block.getType().isSolid();
+        for (long block : blockSet) {
+            boolean isSolid = solidity.isSolid((int) (block >> 38), (int) (block << 52 >> 52), (int) (block << 26 >> 38));
             if (isSolid && !wasLastSolid) {
                 oscillations++;
             }
@@ -46,4 +53,8 @@ public class EstimatedRayTracer implements IRayTracer {
         return oscillations;
     }
 
+    private static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
 }
@@ -0,0 +1,144 @@
+package com.craftmend.openaudiomc.spigot.services.world.tracing;
+
+import com.craftmend.openaudiomc.spigot.services.world.Vector3;
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.BlockSolidity;
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.IRayTracer;
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.VoxelVisitor;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Exact ray tracer, based on the voxel traversal algorithm by Amanatides and Woo.
+ *
+ * Instead of sampling points along the ray, it steps from block boundary to block boundary, so
+ * every block the ray passes through gets visited exactly once and in order, and the amount of
+ * work only depends on the number of blocks between the two locations.
+ */
+public class VoxelRayTracer implements IRayTracer {
+
+    @Override
+    public int obstructionsBetweenLocations(Location start, Vector3 end) {
+        World world = start.getWorld();
+        return countObstructions(
+                start.getX(), start.getY(), start.getZ(),
+                end.getX(), end.getY(), end.getZ(),
+                (x, y, z) -> world.getBlockAt(x, y, z).getType().isSolid()
+        );
+    }
+
+    /**
+     * Count the solid sections between two points. A wall that's multiple blocks thick counts as one
+     * obstruction. The blocks that contain the points themselves are ignored, since those are the
+     * source and the listener, not something that's in between them.
+     *
+     * @return The amount of times the ray enters a solid block
+     */
+    public static int countObstructions(double fromX, double fromY, double fromZ,
+                                        double toX, double toY, double toZ,
+                                        BlockSolidity solidity) {
+        ObstructionCounter counter = new ObstructionCounter(
+                solidity,
+                floor(fromX), floor(fromY), floor(fromZ),
+                floor(toX), floor(toY), floor(toZ)
+        );
+        traverse(fromX, fromY, fromZ, toX, toY, toZ, counter);
+        return counter.obstructions;
+    }
+
+    /**
+     * Visit every block on the line between two points, starting with the block that contains
+     * the start and ending with the block that contains the end
+     *
+     * @return The amount of visited blocks
+     */
+    public static int traverse(double fromX, double fromY, double fromZ,
+                               double toX, double toY, double toZ,
+                               VoxelVisitor visitor) {
+        int x = floor(fromX);
+        int y = floor(fromY);
+        int z = floor(fromZ);
+        int endX = floor(toX);
+        int endY = floor(toY);
+        int endZ = floor(toZ);
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+
+        int stepX = Integer.signum(endX - x);
+        int stepY = Integer.signum(endY - y);
+        int stepZ = Integer.signum(endZ - z);
+
+        // the ray is parameterized from 0 to 1, these are the values of t where the
+        // next boundary gets crossed on every axis, and the distance between two boundaries
+        double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dx);
+        double deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dy);
+        double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dz);
+        double maxX = boundary(fromX, x, stepX, deltaX);
+        double maxY = boundary(fromY, y, stepY, deltaY);
+        double maxZ = boundary(fromZ, z, stepZ, deltaZ);
+
+        int visited = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z) + 1;
+        visitor.visit(x, y, z);
+
+        for (int i = 1; i < visited; i++) {
+            // rounding can make a ray that ends on a boundary cross it, never step past the end on an axis
+            double nextX = x == endX ? Double.POSITIVE_INFINITY : maxX;
+            double nextY = y == endY ? Double.POSITIVE_INFINITY : maxY;
+            double nextZ = z == endZ ? Double.POSITIVE_INFINITY : maxZ;
+
+            if (nextX <= nextY && nextX <= nextZ) {
+                x += stepX;
+                maxX += deltaX;
+            } else if (nextY <= nextZ) {
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                z += stepZ;
+                maxZ += deltaZ;
+            }
+            visitor.visit(x, y, z);
+        }
+
+        return visited;
+    }
+
+    private static double boundary(double from, int block, int step, double delta) {
+        if (step == 0) return Double.POSITIVE_INFINITY;
+        double distance = step > 0 ? (block + 1) - from : from - block;
+        return distance * delta;
+    }
+
+    private static int floor(double value) {
+        int floored = (int) value;
+        return value < floored ? floored - 1 : floored;
+    }
+
+    private static class ObstructionCounter implements VoxelVisitor {
+
+        private final BlockSolidity solidity;
+        private final int startX, startY, startZ;
+        private final int endX, endY, endZ;
+        private boolean wasSolid = false;
+        private int obstructions = 0;
+
+        private ObstructionCounter(BlockSolidity solidity, int startX, int startY, int startZ, int endX, int endY, int endZ) {
+            this.solidity = solidity;
+            this.startX = startX;
+            this.startY = startY;
+            this.startZ = startZ;
+            this.endX = endX;
+            this.endY = endY;
+            this.endZ = endZ;
+        }
+
+        @Override
+        public void visit(int x, int y, int z) {
+            if ((x == startX && y == startY && z == startZ) || (x == endX && y == endY && z == endZ)) return;
+            boolean isSolid = solidity.isSolid(x, y, z);
+            if (isSolid && !wasSolid) obstructions++;
+            wasSolid = isSolid;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.regions.objects.RegionShape;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.AudioRegionIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class AudioRegionIndexTest {
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(38);
+        AudioRegionIndex index = new AudioRegionIndex();
+        Map<String, RegionShape> shapes = new HashMap<>();
+
+        for (int i = 0; i < 500; i++) {
+            RegionShape shape = randomShape(random, "region" + i);
+            shapes.put(shape.getName(), shape);
+            index.update(shape.getName(), Collections.singletonList(shape));
+        }
+
+        // move some regions and remove others, like redefining them would
+        for (int i = 0; i < 100; i++) {
+            String name = "region" + random.nextInt(500);
+            if (random.nextBoolean()) {
+                RegionShape shape = randomShape(random, name);
+                shapes.put(name, shape);
+                index.update(name, Collections.singletonList(shape));
+            } else {
+                shapes.remove(name);
+                index.update(name, Collections.emptyList());
+            }
+        }
+        Assert.assertEquals(shapes.size(), index.size());
+
+        for (int i = 0; i < 5000; i++) {
+            int x = random.nextInt(2200) - 1100;
+            int y = random.nextInt(256);
+            int z = random.nextInt(2200) - 1100;
+
+            Set<String> expected = new TreeSet<>();
+            for (RegionShape shape : shapes.values()) {
+                if (shape.contains(x, y, z)) expected.add(shape.getName());
+            }
+
+            Set<String> found = new TreeSet<>();
+            for (RegionShape shape : index.query("world", x, y, z)) {
+                found.add(shape.getName());
+            }
+            Assert.assertEquals(expected, found);
+            Assert.assertTrue(index.query("world_nether", x, y, z).isEmpty());
+        }
+    }
+
+    @Test
+    public void testShapeIsChecked() {
+        AudioRegionIndex index = new AudioRegionIndex();
+        // only the blocks on the diagonal are part of this region
+        index.update("diagonal", Collections.singletonList(new RegionShape("diagonal", "world", 0, 0, 0, 0, 10, 255, 10, (x, y, z) -> x == z)));
+
+        Assert.assertEquals(1, index.query("world", 5, 64, 5).size());
+        Assert.assertEquals(0, index.query("world", 5, 64, 6).size());
+        Assert.assertEquals(0, index.query("world", 11, 64, 11).size());
+    }
+
+    @Test
+    public void testReplaceDropsRegionsThatAreGone() {
+        AudioRegionIndex index = new AudioRegionIndex();
+        index.update("old", Collections.singletonList(new RegionShape("old", "world", 0, 0, 0, 0, 10, 255, 10, (x, y, z) -> true)));
+
+        Map<String, List<RegionShape>> regions = new HashMap<>();
+        regions.put("new", Collections.singletonList(new RegionShape("new", "world_nether", 0, 0, 0, 0, 10, 255, 10, (x, y, z) -> true)));
+        regions.put("empty", Collections.emptyList());
+        index.replace(regions);
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertTrue(index.query("world", 5, 64, 5).isEmpty());
+        Assert.assertTrue(index.getShapes("old").isEmpty());
+        Assert.assertEquals(1, index.query("world_nether", 5, 64, 5).size());
+    }
+
+    private RegionShape randomShape(Random random, String name) {
+        int minX = random.nextInt(2000) - 1000;
+        int minY = random.nextInt(200);
+        int minZ = random.nextInt(2000) - 1000;
+        return new RegionShape(name, "world", random.nextInt(5),
+                minX, minY, minZ,
+                minX + random.nextInt(300), minY + random.nextInt(56), minZ + random.nextInt(300),
+                (x, y, z) -> true);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.generic.utils.data.ConcurrentHeatMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+public class ConcurrentHeatMapTest {
+
+    @Test
+    public void testTopFollowsBumps() {
+        ConcurrentHeatMap<String, Byte> heatMap = new ConcurrentHeatMap<>(60, 10, ConcurrentHeatMap.BYTE_CONTEXT);
+        bump(heatMap, "a", 5);
+        bump(heatMap, "b", 3);
+        bump(heatMap, "c", 1);
+
+        List<ConcurrentHeatMap<String, Byte>.Value> top = heatMap.getTop(2);
+        Assert.assertEquals(2, top.size());
+        Assert.assertEquals("a", top.get(0).getValue());
+        Assert.assertEquals("b", top.get(1).getValue());
+        Assert.assertEquals(6, (int) heatMap.get("a").getScore());
+    }
+
+    @Test
+    public void testEvictsColdestBeyondMax() {
+        ConcurrentHeatMap<String, Byte> heatMap = new ConcurrentHeatMap<>(60, 3, ConcurrentHeatMap.BYTE_CONTEXT);
+        bump(heatMap, "a", 5);
+        bump(heatMap, "b", 4);
+        heatMap.forceValue("c", Instant.now().minusSeconds(30), 1);
+        bump(heatMap, "d", 3);
+
+        Assert.assertEquals(3, heatMap.getMap().size());
+        Assert.assertFalse(heatMap.getMap().containsKey("c"));
+
+        Random random = new Random(38);
+        ConcurrentHeatMap<String, Byte> large = new ConcurrentHeatMap<>(60, 50, ConcurrentHeatMap.BYTE_CONTEXT);
+        for (int i = 0; i < 20000; i++) {
+            // skewed, so the low keys are way hotter than the rest
+            large.bump("key-" + (int) (Math.pow(random.nextDouble(), 3) * 200));
+            Assert.assertTrue(large.getMap().size() <= 50);
+        }
+        Assert.assertEquals("key-0", large.getTop(1).get(0).getValue());
+    }
+
+    @Test
+    public void testLoweredScoreGetsEvictedFirst() {
+        ConcurrentHeatMap<String, Byte> heatMap = new ConcurrentHeatMap<>(60, 3, ConcurrentHeatMap.BYTE_CONTEXT);
+        bump(heatMap, "a", 5);
+        bump(heatMap, "b", 4);
+        bump(heatMap, "c", 3);
+
+        // a is now colder than all the others, even though it was the hottest when it got tracked
+        heatMap.get("a").setScore(1);
+        heatMap.forceValue("d", Instant.now(), 10);
+
+        Assert.assertEquals(3, heatMap.getMap().size());
+        Assert.assertFalse(heatMap.getMap().containsKey("a"));
+        Assert.assertTrue(heatMap.getMap().containsKey("c"));
+    }
+
+    @Test
+    public void testOldPingsDecay() {
+        ConcurrentHeatMap<String, Byte> heatMap = new ConcurrentHeatMap<>(60 * 60, 10, 60, ConcurrentHeatMap.BYTE_CONTEXT);
+        // four pings three half lives ago are worth half a ping now
+        heatMap.forceValue("old", Instant.now().minusSeconds(180), 4);
+        heatMap.bump("new");
+
+        Assert.assertEquals("new", heatMap.getTop(1).get(0).getValue());
+        Assert.assertEquals(4, (int) heatMap.get("old").getScore());
+    }
+
+    @Test
+    public void testExpiry() {
+        ConcurrentHeatMap<String, Byte> heatMap = new ConcurrentHeatMap<>(60, 10, ConcurrentHeatMap.BYTE_CONTEXT);
+        heatMap.forceValue("expired", Instant.now().minusSeconds(120), 10);
+        heatMap.forceValue("fresh", Instant.now().minusSeconds(30), 10);
+
+        Assert.assertEquals(1, heatMap.getTop(10).size());
+        Assert.assertEquals(1, (int) heatMap.get("expired").getScore());
+
+        heatMap.clean();
+        Assert.assertFalse(heatMap.getMap().containsKey("expired"));
+        Assert.assertTrue(heatMap.getMap().containsKey("fresh"));
+    }
+
+    @Test
+    public void testSessionCache() {
+        // same usage as the session cache in the AuthenticationDriver
+        ConcurrentHeatMap<UUID, String> sessions = new ConcurrentHeatMap<>(60, 100, () -> "");
+        UUID player = UUID.randomUUID();
+
+        ConcurrentHeatMap<UUID, String>.Value entry = sessions.get(player);
+        Assert.assertTrue(entry.getContext().isEmpty());
+        Assert.assertFalse(sessions.getMap().containsKey(player));
+
+        entry.setContext("token");
+        entry.bump();
+        sessions.clean();
+        Assert.assertEquals("token", sessions.get(player).getContext());
+
+        sessions.delete(player);
+        Assert.assertTrue(sessions.get(player).getContext().isEmpty());
+    }
+
+    private void bump(ConcurrentHeatMap<String, Byte> heatMap, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            heatMap.bump(key);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.players.objects.LocationUpdateLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LocationUpdateLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void testOnlySendsQuantisedChanges() {
+        LocationUpdateLimiter limiter = new LocationUpdateLimiter(10, 1, 0);
+
+        Assert.assertTrue(limiter.update(10.04, 64, -3.96, 10.2f, 90.4f, 0));
+        Assert.assertEquals(10.0, limiter.getX(), 0);
+        Assert.assertEquals(-4.0, limiter.getZ(), 0);
+        Assert.assertEquals(10, limiter.getPitch());
+        Assert.assertEquals(90, limiter.getYaw());
+
+        // still rounds to the same tenth of a block and degree
+        Assert.assertFalse(limiter.update(10.01, 64.02, -3.99, 10.4f, 89.6f, MS));
+        Assert.assertTrue(limiter.update(10.06, 64, -3.96, 10.2f, 90.4f, 2 * MS));
+        Assert.assertEquals(10.1, limiter.getX(), 0);
+    }
+
+    @Test
+    public void testRateLimit() {
+        LocationUpdateLimiter limiter = new LocationUpdateLimiter(10, 1, 80);
+
+        Assert.assertTrue(limiter.update(0, 0, 0, 0, 0, 0));
+        Assert.assertFalse(limiter.update(1, 0, 0, 0, 0, 50 * MS));
+        Assert.assertTrue(limiter.isPending());
+        Assert.assertTrue(limiter.update(1, 0, 0, 0, 0, 100 * MS));
+        Assert.assertFalse(limiter.isPending());
+
+        // moving back to what the client has before it could be sent isn't pending anymore
+        Assert.assertFalse(limiter.update(2, 0, 0, 0, 0, 150 * MS));
+        Assert.assertTrue(limiter.isPending());
+        Assert.assertFalse(limiter.update(1, 0, 0, 0, 0, 160 * MS));
+        Assert.assertFalse(limiter.isPending());
+
+        limiter.reset();
+        Assert.assertTrue(limiter.update(1, 0, 0, 0, 0, 170 * MS));
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.generic.metrics.Counter;
+import com.craftmend.openaudiomc.generic.metrics.Histogram;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.generic.metrics.PacketMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testPrometheusFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter sent = registry.counter("test_packets_total", "Packets", "channel", "A");
+        registry.counter("test_packets_total", "Packets", "channel", "B").add(3);
+        sent.inc();
+        sent.inc();
+        registry.gauge("test_clients", "Clients", () -> 7);
+
+        // looking the same metric up again returns the same instance
+        Assert.assertSame(sent, registry.counter("test_packets_total", "Packets", "channel", "A"));
+
+        String output = registry.toPrometheus();
+        Assert.assertTrue(output.contains("# TYPE test_packets_total counter\n"));
+        Assert.assertTrue(output.contains("test_packets_total{channel=\"A\"} 2\n"));
+        Assert.assertTrue(output.contains("test_packets_total{channel=\"B\"} 3\n"));
+        Assert.assertTrue(output.contains("# TYPE test_clients gauge\ntest_clients 7\n"));
+    }
+
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram histogram = registry.histogram("test_duration_seconds", "Duration", new double[]{0.1, 1});
+        histogram.observe(0.05);
+        histogram.observe(0.5);
+        histogram.observe(5);
+
+        String output = registry.toPrometheus();
+        Assert.assertTrue(output.contains("test_duration_seconds_bucket{le=\"0.1\"} 1\n"));
+        Assert.assertTrue(output.contains("test_duration_seconds_bucket{le=\"1.0\"} 2\n"));
+        Assert.assertTrue(output.contains("test_duration_seconds_bucket{le=\"+Inf\"} 3\n"));
+        Assert.assertTrue(output.contains("test_duration_seconds_count 3\n"));
+        Assert.assertEquals(5.55, histogram.getSum(), 0.0001);
+    }
+
+    @Test
+    public void testGaugeSupplierGetsReplaced() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("test_queue_depth", "Queue", () -> 1);
+        // like a service that got reloaded and registered its gauge again
+        registry.gauge("test_queue_depth", "Queue", () -> 2);
+
+        Assert.assertTrue(registry.toPrometheus().contains("test_queue_depth 2\n"));
+    }
+
+    @Test
+    public void testBytesAreCountedAsUtf8() {
+        for (String text : new String[]{"", "{\"a\":1}", "caf\u00e9", "\u266b music", "\ud83c\udfb5", "broken \ud83c"}) {
+            Assert.assertEquals(text, text.getBytes(StandardCharsets.UTF_8).length, PacketMetrics.utf8Length(text));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeMismatch() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_metric", "Metric");
+        registry.gauge("test_metric", "Metric", () -> 1);
+    }
+
+}
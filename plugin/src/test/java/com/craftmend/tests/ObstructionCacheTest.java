@@ -0,0 +1,68 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.ChunkSnapshotCache;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.ObstructionCache;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.SnapshotSolidity;
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.SolidChunk;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.VoxelRayTracer;
+import org.bukkit.Material;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObstructionCacheTest {
+
+    @Test
+    public void testRecopiedChunkInvalidatesResult() {
+        ChunkSnapshotCache snapshots = new ChunkSnapshotCache();
+        ObstructionCache cache = new ObstructionCache(snapshots, 100);
+        snapshots.put("world", 0, 0, chunk(true));
+
+        ObstructionCache.Key key = ObstructionCache.key("world", 1.5, 64.5, 1.5, 14.5, 64.5, 1.5);
+        Assert.assertEquals(1, trace(snapshots, cache, key, 14.5));
+        Assert.assertEquals(Integer.valueOf(1), cache.get(key));
+
+        // the wall got removed, the cached result is about the old copy
+        snapshots.put("world", 0, 0, chunk(false));
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals(1, cache.getInvalidations());
+        Assert.assertEquals(0, trace(snapshots, cache, key, 14.5));
+        Assert.assertEquals(Integer.valueOf(0), cache.get(key));
+    }
+
+    @Test
+    public void testTraceThroughMissingChunkIsNotCached() {
+        ChunkSnapshotCache snapshots = new ChunkSnapshotCache();
+        ObstructionCache cache = new ObstructionCache(snapshots, 100);
+        snapshots.put("world", 0, 0, chunk(true));
+
+        // ends in chunk 1, 0 which isn't copied yet
+        ObstructionCache.Key key = ObstructionCache.key("world", 1.5, 64.5, 1.5, 20.5, 64.5, 1.5);
+        Assert.assertEquals(1, trace(snapshots, cache, key, 20.5));
+        Assert.assertNull(cache.get(key));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, snapshots.getPendingCount());
+    }
+
+    private int trace(ChunkSnapshotCache snapshots, ObstructionCache cache, ObstructionCache.Key key, double toX) {
+        SnapshotSolidity solidity = new SnapshotSolidity(snapshots, "world");
+        int obstructions = VoxelRayTracer.countObstructions(1.5, 64.5, 1.5, toX, 64.5, 1.5, solidity);
+        cache.put(key, obstructions, solidity);
+        return obstructions;
+    }
+
+    private SolidChunk chunk(boolean wall) {
+        // a wall at x 8, all the way up
+        return SolidChunk.from(new SolidChunk.BlockSource() {
+            @Override
+            public boolean isSectionEmpty(int sectionIndex) {
+                return !wall;
+            }
+
+            @Override
+            public Material getBlockType(int x, int y, int z) {
+                return x == 8 ? Material.STONE : Material.AIR;
+            }
+        }, 0, 256);
+    }
+
+}
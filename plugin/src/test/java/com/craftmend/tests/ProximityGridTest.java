@@ -0,0 +1,61 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.voicechat.filters.ProximityGrid;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class ProximityGridTest {
+
+    private static final String[] WORLDS = new String[]{"world", "world_nether"};
+    private static final int RADIUS = 25;
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(38);
+        ProximityGrid<Integer> grid = new ProximityGrid<>(RADIUS);
+        List<double[]> points = new ArrayList<>();
+        List<String> worlds = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            String world = WORLDS[random.nextInt(WORLDS.length)];
+            double x = (random.nextDouble() * 1000) - 500;
+            double z = (random.nextDouble() * 1000) - 500;
+            points.add(new double[]{x, z});
+            worlds.add(world);
+            grid.insert(world, x, z, i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            String world = WORLDS[random.nextInt(WORLDS.length)];
+            double x = (random.nextDouble() * 1000) - 500;
+            double z = (random.nextDouble() * 1000) - 500;
+
+            Set<Integer> neighbours = new HashSet<>(grid.getNeighbours(world, x, z));
+            for (int j = 0; j < points.size(); j++) {
+                double dx = points.get(j)[0] - x;
+                double dz = points.get(j)[1] - z;
+                boolean sameWorld = worlds.get(j).equals(world);
+
+                // everything in range has to be found
+                if (sameWorld && dx * dx + dz * dz <= RADIUS * RADIUS) {
+                    Assert.assertTrue(neighbours.contains(j));
+                }
+                // and nothing further away than the cells around the point
+                if (!sameWorld || Math.abs(dx) >= 2 * RADIUS || Math.abs(dz) >= 2 * RADIUS) {
+                    Assert.assertFalse(neighbours.contains(j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownWorld() {
+        ProximityGrid<Integer> grid = new ProximityGrid<>(RADIUS);
+        grid.insert("world", 0, 0, 1);
+        Assert.assertTrue(grid.getNeighbours("world_the_end", 0, 0).isEmpty());
+        Assert.assertEquals(Collections.singletonList(1), grid.getNeighbours("world", -RADIUS, RADIUS));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionExpiryQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RegionExpiryQueueTest {
+
+    @Test
+    public void testExpiresInOrder() {
+        RegionExpiryQueue queue = new RegionExpiryQueue();
+        List<String> expired = new ArrayList<>();
+
+        queue.schedule(3000, () -> expired.add("c"));
+        queue.schedule(1000, () -> expired.add("a"));
+        RegionExpiryQueue.Expiry cancelled = queue.schedule(1500, () -> expired.add("cancelled"));
+        queue.schedule(2000, () -> expired.add("b"));
+        queue.cancel(cancelled);
+
+        Assert.assertEquals(0, queue.expire(999));
+        Assert.assertEquals(2, queue.expire(2000));
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(1, queue.expire(5000));
+
+        List<String> expected = new ArrayList<>();
+        expected.add("a");
+        expected.add("b");
+        expected.add("c");
+        Assert.assertEquals(expected, expired);
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRescheduleWhileExpiring() {
+        RegionExpiryQueue queue = new RegionExpiryQueue();
+        List<String> expired = new ArrayList<>();
+
+        // like a temporary region that gets replaced by a new one once it expires
+        queue.schedule(1000, () -> queue.schedule(2000, () -> expired.add("replaced")));
+
+        Assert.assertEquals(1, queue.expire(1000));
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(1, queue.expire(2000));
+        Assert.assertEquals(1, expired.size());
+    }
+
+}
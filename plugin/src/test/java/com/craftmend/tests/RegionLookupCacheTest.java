@@ -0,0 +1,47 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.regions.interfaces.IRegion;
+import com.craftmend.openaudiomc.spigot.modules.regions.objects.Region;
+import com.craftmend.openaudiomc.spigot.modules.regions.utils.RegionLookupCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RegionLookupCacheTest {
+
+    @Test
+    public void testCachesPerBlock() {
+        RegionLookupCache cache = new RegionLookupCache(60000, 100);
+        AtomicInteger resolves = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            List<IRegion> regions = cache.get("world", 10, 64, -20, () -> {
+                resolves.incrementAndGet();
+                return Collections.singletonList(new Region("spawn", null));
+            });
+            Assert.assertEquals("spawn", regions.get(0).getId());
+        }
+        Assert.assertEquals(1, resolves.get());
+
+        // other worlds and blocks are their own entries
+        cache.get("world_nether", 10, 64, -20, () -> { resolves.incrementAndGet(); return Collections.emptyList(); });
+        cache.get("world", 10, 65, -20, () -> { resolves.incrementAndGet(); return Collections.emptyList(); });
+        Assert.assertEquals(3, resolves.get());
+        Assert.assertEquals(9, cache.getHits());
+
+        cache.invalidate();
+        cache.get("world", 10, 64, -20, () -> { resolves.incrementAndGet(); return Collections.emptyList(); });
+        Assert.assertEquals(4, resolves.get());
+    }
+
+    @Test
+    public void testReturnsCopies() {
+        RegionLookupCache cache = new RegionLookupCache(60000, 100);
+        cache.get("world", 0, 0, 0, () -> Collections.singletonList(new Region("spawn", null))).clear();
+        Assert.assertEquals(1, cache.get("world", 0, 0, 0, Collections::emptyList).size());
+    }
+
+}
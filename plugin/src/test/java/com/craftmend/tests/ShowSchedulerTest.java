@@ -0,0 +1,105 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.show.engine.ShowRun;
+import com.craftmend.openaudiomc.spigot.modules.show.engine.ShowScheduler;
+import com.craftmend.openaudiomc.spigot.modules.show.interfaces.ShowRunnable;
+import com.craftmend.openaudiomc.spigot.modules.show.objects.ShowCue;
+import org.bukkit.World;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ShowSchedulerTest {
+
+    @Test
+    public void testRunsCuesInOrder() throws InterruptedException {
+        ShowScheduler scheduler = new ShowScheduler();
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(1);
+
+        // added out of order, some share a timestamp
+        List<ShowCue> cues = new ArrayList<>();
+        long[] timestamps = {40, 0, 20, 20, 10, 60, 30};
+        for (long timestamp : timestamps) {
+            cues.add(cue(timestamp, () -> executed.add((int) timestamp)));
+        }
+
+        scheduler.start(cues, 80, run -> finished.countDown());
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(Arrays.asList(0, 10, 20, 20, 30, 40, 60), executed);
+        Assert.assertEquals(0, scheduler.getActiveRuns());
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testPauseAndResume() throws InterruptedException {
+        ShowScheduler scheduler = new ShowScheduler();
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+
+        ShowRun run = scheduler.start(Arrays.asList(
+                cue(0, first::countDown),
+                cue(1000, second::countDown)
+        ), 1000, done -> {});
+
+        Assert.assertTrue(first.await(5, TimeUnit.SECONDS));
+        scheduler.pause(run);
+        long pausedAt = run.getElapsedMillis();
+
+        // show time doesn't move while paused, so the second cue can't become due
+        Assert.assertFalse(second.await(300, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(pausedAt, run.getElapsedMillis());
+        Assert.assertEquals(1, run.getExecutedCues());
+
+        scheduler.resume(run);
+        Assert.assertTrue(second.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, run.getExecutedCues());
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testStopAndShutdown() throws InterruptedException {
+        ShowScheduler scheduler = new ShowScheduler();
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        List<String> late = Collections.synchronizedList(new ArrayList<>());
+
+        ShowRun run = scheduler.start(Arrays.asList(
+                cue(0, first::countDown),
+                cue(200, () -> late.add("stopped"))
+        ), 200, done -> finished.countDown());
+        Assert.assertTrue(first.await(5, TimeUnit.SECONDS));
+        scheduler.stop(run);
+
+        scheduler.start(Collections.singletonList(cue(200, () -> late.add("shutdown"))), 200, done -> finished.countDown());
+        scheduler.shutdown();
+
+        // neither the stopped run nor the one that was running during shutdown fire anything
+        Assert.assertFalse(finished.await(500, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(late.isEmpty());
+        Assert.assertEquals(0, scheduler.getActiveRuns());
+    }
+
+    private ShowCue cue(long timestamp, Runnable action) {
+        return new ShowCue(UUID.randomUUID(), timestamp, new ShowRunnable() {
+            @Override
+            public void prepare(String serialize, World world) {
+            }
+
+            @Override
+            public String serialize() {
+                return "";
+            }
+
+            @Override
+            public void run() {
+                action.run();
+            }
+        });
+    }
+
+}
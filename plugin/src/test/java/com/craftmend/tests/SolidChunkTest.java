@@ -0,0 +1,64 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.services.world.snapshot.SolidChunk;
+import org.bukkit.Material;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolidChunkTest {
+
+    @Test
+    public void testNegativeHeights() {
+        // a 1.18 world, with a stone floor at -60 and a wall from -10 up to 5
+        SolidChunk chunk = SolidChunk.from(new SolidChunk.BlockSource() {
+            @Override
+            public boolean isSectionEmpty(int sectionIndex) {
+                // sections are counted from the bottom of the world, -64 to -49 is section 0
+                int minY = (sectionIndex << 4) - 64;
+                int maxY = minY + 15;
+                return !(minY <= -60 && maxY >= -60) && !(maxY >= -10 && minY <= 5);
+            }
+
+            @Override
+            public Material getBlockType(int x, int y, int z) {
+                if (y == -60) return Material.STONE;
+                if (x == 8 && y >= -10 && y <= 5) return Material.STONE;
+                return Material.AIR;
+            }
+        }, -64, 320);
+
+        Assert.assertTrue(chunk.isSolid(3, -60, 3));
+        Assert.assertFalse(chunk.isSolid(3, -59, 3));
+        Assert.assertTrue(chunk.isSolid(8, -10, 0));
+        Assert.assertTrue(chunk.isSolid(8, -1, 15));
+        Assert.assertTrue(chunk.isSolid(8, 5, 7));
+        Assert.assertFalse(chunk.isSolid(8, 6, 7));
+        Assert.assertFalse(chunk.isSolid(7, 0, 7));
+
+        // outside of the world
+        Assert.assertFalse(chunk.isSolid(3, -65, 3));
+        Assert.assertFalse(chunk.isSolid(3, 320, 3));
+    }
+
+    @Test
+    public void testSkipsOnlyEmptySections() {
+        // every section says it's empty, except the one that has the blocks
+        SolidChunk chunk = SolidChunk.from(new SolidChunk.BlockSource() {
+            @Override
+            public boolean isSectionEmpty(int sectionIndex) {
+                return sectionIndex != 3;
+            }
+
+            @Override
+            public Material getBlockType(int x, int y, int z) {
+                return Material.STONE;
+            }
+        }, -64, 320);
+
+        Assert.assertFalse(chunk.isSolid(0, -17, 0));
+        Assert.assertTrue(chunk.isSolid(0, -16, 0));
+        Assert.assertTrue(chunk.isSolid(0, -1, 0));
+        Assert.assertFalse(chunk.isSolid(0, 0, 0));
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.ApplicableSpeaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerClusters;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerIndex;
+import com.craftmend.openaudiomc.spigot.services.world.Vector3;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SpeakerClustersTest {
+
+    @Test
+    public void testDenseFieldBecomesOneSpeaker() {
+        SpeakerIndex index = new SpeakerIndex();
+        List<ApplicableSpeaker> inRange = new ArrayList<>();
+
+        // a 4x4x4 block of speakers, all within one cluster cell
+        for (int x = 0; x < 4; x++) {
+            for (int y = 64; y < 68; y++) {
+                for (int z = 0; z < 4; z++) {
+                    inRange.add(add(index, speaker("rain", x, y, z, EnumSet.noneOf(ExtraSpeakerOptions.class))));
+                }
+            }
+        }
+        ApplicableSpeaker other = add(index, speaker("birds", 1, 64, 1, EnumSet.noneOf(ExtraSpeakerOptions.class)));
+        ApplicableSpeaker obstructed = add(index, speaker("rain", 2, 64, 2, EnumSet.of(ExtraSpeakerOptions.PROCESS_OBSTRUCTIONS)));
+        inRange.add(other);
+        inRange.add(obstructed);
+
+        SpeakerClusters clusters = new SpeakerClusters(index, () -> 0, 4);
+        Collection<ApplicableSpeaker> clustered = clusters.cluster(inRange);
+
+        Assert.assertEquals(3, clustered.size());
+        Assert.assertTrue(clustered.contains(other));
+        Assert.assertTrue(clustered.contains(obstructed));
+
+        ApplicableSpeaker cluster = null;
+        for (ApplicableSpeaker speaker : clustered) {
+            if (speaker.getClusterSize() > 1) cluster = speaker;
+        }
+        Assert.assertNotNull(cluster);
+        Assert.assertEquals(64, cluster.getClusterSize());
+        Assert.assertEquals("rain", cluster.getSpeaker().getSource());
+
+        // the cluster has to reach everywhere its members could be heard
+        for (int i = 0; i < 64; i++) {
+            Speaker member = inRange.get(i).getSpeaker();
+            Vector3 center = cluster.getLocation();
+            double dx = member.getLocation().getX() - center.getX();
+            double dy = member.getLocation().getY() - center.getY();
+            double dz = member.getLocation().getZ() - center.getZ();
+            Assert.assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) + member.getRadius() <= cluster.getSpeaker().getRadius());
+        }
+
+        // players that only see part of the cluster get the same cluster, so it doesn't change while walking
+        Collection<ApplicableSpeaker> partial = clusters.cluster(Arrays.asList(inRange.get(0), inRange.get(1)));
+        Assert.assertEquals(1, partial.size());
+        Assert.assertEquals(cluster.getSpeaker().getSpeakerId(), partial.iterator().next().getSpeaker().getSpeakerId());
+    }
+
+    @Test
+    public void testDisabled() {
+        SpeakerIndex index = new SpeakerIndex();
+        List<ApplicableSpeaker> inRange = Arrays.asList(
+                add(index, speaker("rain", 0, 64, 0, EnumSet.noneOf(ExtraSpeakerOptions.class))),
+                add(index, speaker("rain", 1, 64, 0, EnumSet.noneOf(ExtraSpeakerOptions.class)))
+        );
+        Assert.assertEquals(2, new SpeakerClusters(index, () -> 0, 0).cluster(inRange).size());
+    }
+
+    private ApplicableSpeaker add(SpeakerIndex index, Speaker speaker) {
+        index.add(speaker);
+        return new ApplicableSpeaker(speaker, speaker.getSpeakerType(), Vector3.from(speaker.getLocation()));
+    }
+
+    private Speaker speaker(String source, int x, int y, int z, EnumSet<ExtraSpeakerOptions> options) {
+        return new Speaker(source, UUID.randomUUID(), 10, new MappedLocation(x, y, z, "world"), SpeakerType.SPEAKER_3D, options);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SpeakerIndexTest {
+
+    private static final String[] WORLDS = new String[]{"world", "world_nether"};
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(38);
+        SpeakerIndex index = new SpeakerIndex();
+        List<Speaker> speakers = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            Speaker speaker = randomSpeaker(random);
+            speakers.add(speaker);
+            index.add(speaker);
+        }
+
+        // remove a few again, to make sure they don't linger in their cells
+        for (int i = 0; i < 500; i++) {
+            index.remove(speakers.remove(random.nextInt(speakers.size())));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            String world = WORLDS[random.nextInt(WORLDS.length)];
+            double x = (random.nextDouble() * 1000) - 500;
+            double y = random.nextDouble() * 256;
+            double z = (random.nextDouble() * 1000) - 500;
+
+            Assert.assertEquals(linearScan(speakers, world, x, y, z), ids(index.query(world, x, y, z)));
+        }
+    }
+
+    @Test
+    public void testRadiusUpdate() {
+        SpeakerIndex index = new SpeakerIndex();
+        Speaker speaker = new Speaker("test", UUID.randomUUID(), 5, new MappedLocation(0, 64, 0, "world"), SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class));
+        index.add(speaker);
+
+        Assert.assertTrue(index.query("world", 40, 64, 0).isEmpty());
+
+        speaker.setRadius(50);
+        index.updateRadius(speaker);
+        Assert.assertEquals(1, index.query("world", 40, 64, 0).size());
+        Assert.assertTrue(index.query("world_nether", 40, 64, 0).isEmpty());
+    }
+
+    private Speaker randomSpeaker(Random random) {
+        MappedLocation location = new MappedLocation(
+                random.nextInt(1000) - 500,
+                random.nextInt(256),
+                random.nextInt(1000) - 500,
+                WORLDS[random.nextInt(WORLDS.length)]
+        );
+        return new Speaker("test", UUID.randomUUID(), 1 + random.nextInt(60), location, SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class));
+    }
+
+    // the original SpeakerCollector filter, without the bukkit locations
+    private Set<UUID> linearScan(List<Speaker> speakers, String world, double x, double y, double z) {
+        Set<UUID> found = new HashSet<>();
+        for (Speaker speaker : speakers) {
+            if (!speaker.getLocation().getWorld().equals(world)) continue;
+            double dx = speaker.getLocation().getX() - x;
+            double dy = speaker.getLocation().getY() - y;
+            double dz = speaker.getLocation().getZ() - z;
+            if (Math.sqrt(dx * dx + dy * dy + dz * dz) > speaker.getRadius()) continue;
+            found.add(speaker.getSpeakerId());
+        }
+        return found;
+    }
+
+    private Set<UUID> ids(List<Speaker> speakers) {
+        Set<UUID> found = new HashSet<>();
+        for (Speaker speaker : speakers) {
+            found.add(speaker.getSpeakerId());
+        }
+        return found;
+    }
+
+}
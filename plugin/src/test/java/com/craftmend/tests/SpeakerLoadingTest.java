@@ -0,0 +1,199 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.interfaces.SpeakerRegionHost;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegionLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SpeakerLoadingTest {
+
+    @Test
+    public void testRegionKeys() {
+        Assert.assertEquals("world:0:0", SpeakerRegionLoader.regionKey("world", 31, 0));
+        Assert.assertEquals("world:1:0", SpeakerRegionLoader.regionKey("world", 32, 0));
+        Assert.assertEquals("world:-1:-1", SpeakerRegionLoader.regionKey("world", -1, -32));
+        Assert.assertEquals("world:-2:0", SpeakerRegionLoader.regionKey("world", -33, 0));
+    }
+
+    @Test
+    public void testRegionStaysLoadedUntilItsLastChunkUnloads() {
+        Fixture fixture = new Fixture();
+        Speaker speaker = fixture.store(10, 10);
+        fixture.store(600, 10);
+
+        // two chunks of the same region only query it once
+        fixture.loader.onChunkLoad("world", 0, 0);
+        fixture.loader.onChunkLoad("world", 1, 0);
+        fixture.runAll();
+        Assert.assertEquals(1, fixture.queries);
+        Assert.assertEquals(Collections.singleton(speaker), fixture.registeredSpeakers());
+
+        fixture.loader.onChunkUnload("world", 0, 0);
+        Assert.assertEquals(Collections.singleton(speaker), fixture.registeredSpeakers());
+
+        fixture.loader.onChunkUnload("world", 1, 0);
+        Assert.assertTrue(fixture.registeredSpeakers().isEmpty());
+        Assert.assertEquals(0, fixture.loader.getLoadedRegions());
+
+        // unloading a chunk that never loaded doesn't do anything
+        fixture.loader.onChunkUnload("world", 40, 0);
+        fixture.runAll();
+        Assert.assertEquals(1, fixture.queries);
+        Assert.assertTrue(fixture.unlisted.contains(speaker.getLocation()));
+    }
+
+    @Test
+    public void testUnloadWhileQuerying() {
+        Fixture fixture = new Fixture();
+        Speaker speaker = fixture.store(10, 10);
+
+        // the region unloads before its query finished
+        fixture.loader.onChunkLoad("world", 0, 0);
+        fixture.loader.onChunkUnload("world", 0, 0);
+        fixture.runAll();
+        Assert.assertTrue(fixture.registeredSpeakers().isEmpty());
+
+        // and loads again before the first query finished, only the second one counts
+        fixture.loader.onChunkLoad("world", 0, 0);
+        fixture.loader.onChunkUnload("world", 0, 0);
+        fixture.loader.onChunkLoad("world", 0, 0);
+        fixture.runAll();
+        Assert.assertEquals(3, fixture.queries);
+        Assert.assertEquals(1, fixture.registerCalls);
+        Assert.assertEquals(Collections.singleton(speaker), fixture.registeredSpeakers());
+
+        // the speakers of a reloaded region still unload with it
+        fixture.loader.onChunkUnload("world", 0, 0);
+        Assert.assertTrue(fixture.registeredSpeakers().isEmpty());
+    }
+
+    @Test
+    public void testWorldUnload() {
+        Fixture fixture = new Fixture();
+        fixture.store(10, 10);
+        fixture.store(600, 600);
+        Speaker nether = fixture.store("world_nether", 10, 10);
+
+        fixture.loader.onChunkLoad("world", 0, 0);
+        fixture.loader.onChunkLoad("world", 40, 40);
+        fixture.loader.onChunkLoad("world_nether", 0, 0);
+        fixture.runAll();
+        Assert.assertEquals(3, fixture.registeredSpeakers().size());
+
+        fixture.loader.onWorldUnload("world");
+        Assert.assertEquals(Collections.singleton(nether), fixture.registeredSpeakers());
+        Assert.assertEquals(1, fixture.loader.getLoadedRegions());
+    }
+
+    @Test
+    public void testTrackedSpeakers() {
+        Fixture fixture = new Fixture();
+        Speaker stored = fixture.store(10, 10);
+        Speaker removed = fixture.store(20, 10);
+
+        // placed while the region was loading, replaces what was stored at that location
+        fixture.loader.onChunkLoad("world", 0, 0);
+        Speaker placed = fixture.speaker("world", 10, 10);
+        fixture.register(placed);
+        fixture.runAll();
+        Assert.assertSame(placed, fixture.registered.get(stored.getLocation()));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(placed, removed)), fixture.registeredSpeakers());
+
+        // placed after it loaded
+        Speaker later = fixture.speaker("world", 30, 10);
+        fixture.register(later);
+
+        // broken by a player, so it isn't part of the region anymore
+        fixture.unlist(removed);
+        fixture.unlisted.clear();
+
+        fixture.loader.onChunkUnload("world", 0, 0);
+        Assert.assertTrue(fixture.registeredSpeakers().isEmpty());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(placed.getLocation(), later.getLocation())), new HashSet<>(fixture.unlisted));
+    }
+
+    /**
+     * Stands in for the speaker service and the scheduler, tasks only run when the test says so
+     */
+    private static class Fixture implements SpeakerRegionHost {
+
+        private final Map<String, List<Speaker>> stored = new HashMap<>();
+        private final Map<MappedLocation, Speaker> registered = new HashMap<>();
+        private final List<MappedLocation> unlisted = new ArrayList<>();
+        private final Queue<Runnable> asyncTasks = new ArrayDeque<>();
+        private final Queue<Runnable> syncTasks = new ArrayDeque<>();
+        private final SpeakerRegionLoader loader = new SpeakerRegionLoader(this, asyncTasks::add, syncTasks::add);
+        private int queries = 0;
+        private int registerCalls = 0;
+
+        private Speaker speaker(String world, int x, int z) {
+            return new Speaker("test", UUID.randomUUID(), 10, new MappedLocation(x, 64, z, world),
+                    SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class));
+        }
+
+        private Speaker store(int x, int z) {
+            return store("world", x, z);
+        }
+
+        private Speaker store(String world, int x, int z) {
+            Speaker speaker = speaker(world, x, z);
+            stored.computeIfAbsent(speaker.getRegion(), region -> new ArrayList<>()).add(speaker);
+            return speaker;
+        }
+
+        private void register(Speaker speaker) {
+            Speaker previous = registered.put(speaker.getLocation(), speaker);
+            if (previous != null) loader.untrack(previous);
+            loader.track(speaker);
+        }
+
+        private void unlist(Speaker speaker) {
+            unlistSpeakers(Collections.singletonList(speaker.getLocation()));
+        }
+
+        private Set<Speaker> registeredSpeakers() {
+            return new HashSet<>(registered.values());
+        }
+
+        private void runAll() {
+            while (!asyncTasks.isEmpty() || !syncTasks.isEmpty()) {
+                while (!asyncTasks.isEmpty()) asyncTasks.poll().run();
+                while (!syncTasks.isEmpty()) syncTasks.poll().run();
+            }
+        }
+
+        @Override
+        public Collection<Speaker> queryRegion(String region) {
+            queries++;
+            return new ArrayList<>(stored.getOrDefault(region, Collections.emptyList()));
+        }
+
+        @Override
+        public Speaker getSpeaker(MappedLocation location) {
+            return registered.get(location);
+        }
+
+        @Override
+        public void registerLoadedSpeakers(Collection<Speaker> speakers) {
+            registerCalls++;
+            speakers.forEach(this::register);
+        }
+
+        @Override
+        public void unlistSpeakers(Collection<MappedLocation> locations) {
+            for (MappedLocation location : locations) {
+                Speaker speaker = registered.remove(location);
+                if (speaker == null) continue;
+                unlisted.add(location);
+                loader.untrack(speaker);
+            }
+        }
+    }
+
+}
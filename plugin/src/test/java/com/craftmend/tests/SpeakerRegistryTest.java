@@ -0,0 +1,87 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.openaudiomc.spigot.modules.speakers.utils.SpeakerRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SpeakerRegistryTest {
+
+    @Test
+    public void testSnapshotsDontChange() {
+        SpeakerRegistry registry = new SpeakerRegistry();
+        Speaker first = speaker(0);
+        registry.putAll(Collections.singletonList(first));
+        SpeakerRegistry.Snapshot before = registry.getSnapshot();
+
+        Speaker replacement = speaker(0);
+        List<Speaker> replaced = registry.putAll(Arrays.asList(replacement, speaker(1)));
+        Assert.assertEquals(Collections.singletonList(first), replaced);
+
+        // the old snapshot still has the old state
+        Assert.assertEquals(1, before.size());
+        Assert.assertSame(first, before.getSpeaker(first.getLocation()));
+
+        SpeakerRegistry.Snapshot after = registry.getSnapshot();
+        Assert.assertEquals(2, after.size());
+        Assert.assertSame(replacement, after.getSpeaker(first.getLocation()));
+        Assert.assertTrue(after.getVersion() > before.getVersion());
+
+        Assert.assertEquals(Collections.singletonList(replacement), registry.removeAll(Collections.singletonList(first.getLocation())));
+        Assert.assertEquals(1, registry.getSnapshot().size());
+        Assert.assertEquals(2, after.size());
+    }
+
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        SpeakerRegistry registry = new SpeakerRegistry();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        SpeakerRegistry.Snapshot snapshot = registry.getSnapshot();
+                        int counted = 0;
+                        for (Speaker ignored : snapshot.getSpeakers().values()) counted++;
+                        // speakers get added and removed in pairs, a snapshot never has half of a pair
+                        Assert.assertEquals(snapshot.size(), counted);
+                        Assert.assertEquals(0, counted % 2);
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        Random random = new Random(38);
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(500) * 2;
+            if (random.nextBoolean()) {
+                registry.putAll(Arrays.asList(speaker(id), speaker(id + 1)));
+            } else {
+                registry.removeAll(Arrays.asList(speaker(id).getLocation(), speaker(id + 1).getLocation()));
+            }
+        }
+
+        running.set(false);
+        for (Thread reader : readers) reader.join();
+        if (failure.get() != null) throw new AssertionError(failure.get());
+    }
+
+    private Speaker speaker(int x) {
+        return new Speaker("test", UUID.randomUUID(), 10, new MappedLocation(x, 64, 0, "world"), SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class));
+    }
+
+}
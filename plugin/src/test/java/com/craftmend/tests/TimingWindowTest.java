@@ -0,0 +1,40 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.modules.players.tick.TimingWindow;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingWindowTest {
+
+    @Test
+    public void testPercentiles() {
+        TimingWindow window = new TimingWindow(100);
+        // added in reverse, so the window has to sort them
+        for (int i = 100; i >= 1; i--) {
+            window.add(i);
+        }
+
+        long[] sorted = window.sorted();
+        Assert.assertEquals(50, TimingWindow.percentile(sorted, 0.5));
+        Assert.assertEquals(95, TimingWindow.percentile(sorted, 0.95));
+        Assert.assertEquals(99, TimingWindow.percentile(sorted, 0.99));
+        Assert.assertEquals(0, TimingWindow.percentile(new long[0], 0.5));
+    }
+
+    @Test
+    public void testOnlyKeepsRecentSamples() {
+        TimingWindow window = new TimingWindow(10);
+        for (int i = 0; i < 10; i++) {
+            window.add(1_000_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            window.add(5);
+        }
+
+        long[] sorted = window.sorted();
+        Assert.assertEquals(10, sorted.length);
+        Assert.assertEquals(5, TimingWindow.percentile(sorted, 0.99));
+        Assert.assertEquals(20, window.getTotal());
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.spigot.services.world.interfaces.BlockSolidity;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.EstimatedRayTracer;
+import com.craftmend.openaudiomc.spigot.services.world.tracing.VoxelRayTracer;
+import org.bukkit.util.Vector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VoxelRayTracerTest {
+
+    private static final int GRID_SIZE = 64;
+
+    @Test
+    public void testVisitsEveryBlockOnceInOrder() {
+        Random random = new Random(38);
+        for (int i = 0; i < 5000; i++) {
+            double fromX = random.nextDouble() * 40 - 20, fromY = random.nextDouble() * 40, fromZ = random.nextDouble() * 40 - 20;
+            double toX = random.nextDouble() * 40 - 20, toY = random.nextDouble() * 40, toZ = random.nextDouble() * 40 - 20;
+
+            List<int[]> visited = new ArrayList<>();
+            int count = VoxelRayTracer.traverse(fromX, fromY, fromZ, toX, toY, toZ, (x, y, z) -> visited.add(new int[]{x, y, z}));
+            Assert.assertEquals(count, visited.size());
+
+            // starts and ends in the blocks that contain the points
+            Assert.assertArrayEquals(new int[]{floor(fromX), floor(fromY), floor(fromZ)}, visited.get(0));
+            Assert.assertArrayEquals(new int[]{floor(toX), floor(toY), floor(toZ)}, visited.get(visited.size() - 1));
+
+            // every step moves to a neighbouring block, and never visits one twice
+            Set<String> seen = new HashSet<>();
+            for (int j = 0; j < visited.size(); j++) {
+                int[] block = visited.get(j);
+                Assert.assertTrue(seen.add(block[0] + "," + block[1] + "," + block[2]));
+                if (j == 0) continue;
+                int[] previous = visited.get(j - 1);
+                int distance = Math.abs(block[0] - previous[0]) + Math.abs(block[1] - previous[1]) + Math.abs(block[2] - previous[2]);
+                Assert.assertEquals(1, distance);
+            }
+        }
+    }
+
+    @Test
+    public void testCountsWalls() {
+        // two walls along the x axis, the first one two blocks thick
+        BlockSolidity walls = (x, y, z) -> x == 3 || x == 4 || x == 8;
+        Assert.assertEquals(2, VoxelRayTracer.countObstructions(0.5, 0.5, 0.5, 12.5, 0.5, 0.5, walls));
+        Assert.assertEquals(1, VoxelRayTracer.countObstructions(0.5, 0.5, 0.5, 6.5, 0.5, 0.5, walls));
+        Assert.assertEquals(0, VoxelRayTracer.countObstructions(0.5, 0.5, 0.5, 2.5, 0.5, 0.5, walls));
+
+        // the blocks of the source and listener themselves don't count
+        Assert.assertEquals(0, VoxelRayTracer.countObstructions(8.5, 0.5, 0.5, 5.5, 0.5, 0.5, walls));
+        Assert.assertEquals(0, VoxelRayTracer.countObstructions(3.5, 0.5, 0.5, 8.5, 9.5, 0.5, (x, y, z) -> (x == 3 && y == 0) || (x == 8 && y == 9)));
+    }
+
+    @Test
+    public void testLooksUpFewerBlocksThanEstimatedTracer() {
+        Random random = new Random(38);
+        boolean[] grid = new boolean[GRID_SIZE * GRID_SIZE * GRID_SIZE];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = random.nextDouble() < 0.2;
+        }
+
+        AtomicLong lookups = new AtomicLong();
+        BlockSolidity solidity = (x, y, z) -> {
+            lookups.incrementAndGet();
+            if (x < 0 || y < 0 || z < 0 || x >= GRID_SIZE || y >= GRID_SIZE || z >= GRID_SIZE) return false;
+            return grid[(x * GRID_SIZE + y) * GRID_SIZE + z];
+        };
+
+        List<double[]> rays = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rays.add(new double[]{
+                    random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE,
+                    random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE, random.nextDouble() * GRID_SIZE
+            });
+        }
+
+        for (double[] ray : rays) {
+            VoxelRayTracer.countObstructions(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5], solidity);
+        }
+        long voxelLookups = lookups.getAndSet(0);
+
+        for (double[] ray : rays) {
+            EstimatedRayTracer.countObstructions(new Vector(ray[0], ray[1], ray[2]), new Vector(ray[3], ray[4], ray[5]), solidity);
+        }
+        long estimatedLookups = lookups.get();
+
+        // the estimated tracer samples distance squared steps, which overshoots the target by a lot
+        Assert.assertTrue(voxelLookups < estimatedLookups);
+    }
+
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+
+}
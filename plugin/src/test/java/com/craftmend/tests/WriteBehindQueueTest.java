@@ -0,0 +1,158 @@
+package com.craftmend.tests;
+
+import com.craftmend.openaudiomc.generic.database.internal.WriteBehindQueue;
+import com.craftmend.openaudiomc.generic.metrics.MetricsRegistry;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.ExtraSpeakerOptions;
+import com.craftmend.openaudiomc.spigot.modules.speakers.enums.SpeakerType;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.MappedLocation;
+import com.craftmend.openaudiomc.spigot.modules.speakers.objects.Speaker;
+import com.craftmend.storm.Storm;
+import com.craftmend.storm.StormOptions;
+import com.craftmend.storm.connection.sqlite.SqliteFileDriver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WriteBehindQueueTest {
+
+    private Storm storm;
+    private WriteBehindQueue queue;
+
+    @Before
+    public void setup() throws Exception {
+        File file = File.createTempFile("openaudiomc-queue", ".db");
+        file.deleteOnExit();
+
+        Class.forName("org.sqlite.JDBC");
+        storm = new Storm(new StormOptions(), new SqliteFileDriver(file));
+        storm.registerModel(new Speaker());
+        storm.runMigrations();
+        queue = new WriteBehindQueue(storm, new MetricsRegistry());
+    }
+
+    @Test
+    public void testCoalescesWrites() throws Exception {
+        Speaker speaker = speaker(0);
+        queue.save(speaker);
+        queue.save(speaker);
+        queue.save(speaker);
+        Assert.assertEquals(1, queue.getQueueDepth());
+        Assert.assertEquals(2, queue.getCoalescedWrites());
+
+        queue.awaitFlush();
+        Assert.assertEquals(1, queue.getExecutedWrites());
+        Assert.assertEquals(1, rows());
+    }
+
+    @Test
+    public void testSaveAndDeleteOfNewModelCancelOut() throws Exception {
+        Speaker speaker = speaker(0);
+        queue.save(speaker);
+        queue.delete(speaker);
+        Assert.assertEquals(0, queue.getQueueDepth());
+
+        queue.awaitFlush();
+        Assert.assertEquals(0, queue.getExecutedWrites());
+        Assert.assertEquals(0, queue.getFailedWrites());
+        Assert.assertEquals(0, rows());
+
+        // queued again after it got dropped, it's only written once
+        queue.save(speaker);
+        queue.awaitFlush();
+        Assert.assertEquals(1, queue.getExecutedWrites());
+        Assert.assertEquals(1, rows());
+
+        // it exists now, so the delete has to happen
+        queue.save(speaker);
+        queue.delete(speaker);
+        queue.awaitFlush();
+        Assert.assertEquals(0, queue.getFailedWrites());
+        Assert.assertEquals(0, rows());
+    }
+
+    @Test
+    public void testBatchGetsWrittenInOneTransaction() throws Exception {
+        List<Speaker> speakers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Speaker speaker = speaker(i);
+            speakers.add(speaker);
+            queue.save(speaker);
+        }
+        queue.awaitFlush();
+        Assert.assertEquals(20, queue.getExecutedWrites());
+        Assert.assertEquals(20, rows());
+        for (Speaker speaker : speakers) {
+            Assert.assertNotNull(speaker.getId());
+        }
+
+        // saving them again updates the rows they got
+        for (Speaker speaker : speakers) {
+            queue.save(speaker);
+        }
+        queue.awaitFlush();
+        Assert.assertEquals(0, queue.getFailedWrites());
+        Assert.assertEquals(20, rows());
+    }
+
+    @Test
+    public void testShutdownWritesEverything() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            queue.save(speaker(i));
+        }
+        queue.shutdown();
+        Assert.assertEquals(0, queue.getQueueDepth());
+        Assert.assertEquals(50, rows());
+
+        // writes after the shutdown happen right away
+        queue.save(speaker(50));
+        Assert.assertEquals(51, rows());
+        queue.awaitFlush();
+        Assert.assertEquals(0, queue.getFailedWrites());
+    }
+
+    @Test
+    public void testReadsDuringShutdown() throws Exception {
+        List<Speaker> speakers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Speaker speaker = speaker(i);
+            speakers.add(speaker);
+            queue.save(speaker);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                for (Speaker speaker : speakers) {
+                    queue.save(speaker);
+                    queue.awaitFlush();
+                }
+            } catch (Throwable throwable) {
+                failure.set(throwable);
+            }
+        });
+        reader.start();
+        queue.shutdown();
+        reader.join();
+
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(0, queue.getFailedWrites());
+        Assert.assertEquals(200, rows());
+    }
+
+    private Speaker speaker(int x) {
+        return new Speaker("test", UUID.randomUUID(), 10, new MappedLocation(x, 64, 0, "world"),
+                SpeakerType.SPEAKER_3D, EnumSet.noneOf(ExtraSpeakerOptions.class));
+    }
+
+    private int rows() throws Exception {
+        return storm.buildQuery(Speaker.class).execute().join().size();
+    }
+
+}